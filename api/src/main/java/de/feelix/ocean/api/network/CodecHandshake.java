@@ -0,0 +1,137 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.api.util.BufferUtil;
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.util.AttributeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper for the codec handshake that opens every connection.
+ * The client sends the names of the codecs it supports in order of preference, and the server
+ * answers with the name of the codec it picked. Both sides then install the packet codec stages.
+ */
+public class CodecHandshake {
+    /**
+     * The channel attribute holding the negotiated codec.
+     */
+    public static final AttributeKey<PacketCodec> CODEC_KEY = AttributeKey.valueOf("packetCodec");
+
+    /**
+     * The pipeline name of the packet decoder.
+     */
+    public static final String DECODER_NAME = "packetDecoder";
+
+    /**
+     * The pipeline name of the packet encoder.
+     */
+    public static final String ENCODER_NAME = "packetEncoder";
+
+    private static final byte MAGIC = (byte) 0xC0;
+    private static final int MAX_CODECS = 16;
+
+    /**
+     * Writes a handshake request listing the codecs the client supports.
+     *
+     * @param alloc The allocator for the request buffer
+     * @param codecNames The codec names in order of preference
+     * @return The request buffer
+     */
+    public static ByteBuf writeRequest(ByteBufAllocator alloc, List<String> codecNames) {
+        ByteBuf buf = alloc.ioBuffer();
+        buf.writeByte(MAGIC);
+        VarInt.writeVarInt(buf, codecNames.size());
+        for (String name : codecNames) {
+            BufferUtil.writeString(buf, name);
+        }
+        return buf;
+    }
+
+    /**
+     * Reads a handshake request.
+     *
+     * @param buf The request frame
+     * @return The codec names in order of preference
+     * @throws CorruptedFrameException if the frame is not a valid handshake request
+     */
+    public static List<String> readRequest(ByteBuf buf) {
+        checkMagic(buf);
+        int count = VarInt.readVarInt(buf);
+        if (count < 0 || count > MAX_CODECS) {
+            throw new CorruptedFrameException("Invalid codec count in handshake: " + count);
+        }
+        List<String> codecNames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codecNames.add(BufferUtil.readString(buf));
+        }
+        return codecNames;
+    }
+
+    /**
+     * Writes a handshake response naming the selected codec.
+     *
+     * @param alloc The allocator for the response buffer
+     * @param codecName The selected codec name, or null if no codec could be agreed on
+     * @return The response buffer
+     */
+    public static ByteBuf writeResponse(ByteBufAllocator alloc, String codecName) {
+        ByteBuf buf = alloc.ioBuffer();
+        buf.writeByte(MAGIC);
+        BufferUtil.writeString(buf, codecName);
+        return buf;
+    }
+
+    /**
+     * Reads a handshake response.
+     *
+     * @param buf The response frame
+     * @return The selected codec name, or null if no codec could be agreed on
+     * @throws CorruptedFrameException if the frame is not a valid handshake response
+     */
+    public static String readResponse(ByteBuf buf) {
+        checkMagic(buf);
+        return BufferUtil.readString(buf);
+    }
+
+    /**
+     * Selects the first codec from the list that is registered locally.
+     *
+     * @param codecNames The codec names in order of preference
+     * @return The selected codec, or null if none is supported
+     */
+    public static PacketCodec select(List<String> codecNames) {
+        for (String name : codecNames) {
+            PacketCodec codec = name != null ? PacketCodecs.get(name) : null;
+            if (codec != null) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the handshake stage with the packet decoder and encoder for a codec.
+     *
+     * @param pipeline The channel pipeline
+     * @param handshakeName The pipeline name of the handshake handler
+     * @param codec The negotiated codec
+     */
+    public static void installCodec(ChannelPipeline pipeline, String handshakeName, PacketCodec codec) {
+        pipeline.channel().attr(CODEC_KEY).set(codec);
+        pipeline.addAfter(handshakeName, ENCODER_NAME, new PacketEncoder(codec));
+        pipeline.replace(handshakeName, DECODER_NAME, new PacketDecoder(codec));
+    }
+
+    private static void checkMagic(ByteBuf buf) {
+        if (!buf.isReadable() || buf.readByte() != MAGIC) {
+            throw new CorruptedFrameException("Expected a codec handshake frame");
+        }
+    }
+}
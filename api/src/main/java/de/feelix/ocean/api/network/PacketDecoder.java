@@ -0,0 +1,40 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.serialization.PacketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+
+/**
+ * Decoder that turns inbound frames into packets with the negotiated codec.
+ */
+@ChannelHandler.Sharable
+public class PacketDecoder extends MessageToMessageDecoder<ByteBuf> {
+    private final PacketCodec codec;
+
+    /**
+     * Creates a new PacketDecoder with the specified codec.
+     *
+     * @param codec The codec used to decode packets
+     */
+    public PacketDecoder(PacketCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Gets the codec used by this decoder.
+     *
+     * @return The codec
+     */
+    public PacketCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        out.add(codec.decode(msg));
+    }
+}
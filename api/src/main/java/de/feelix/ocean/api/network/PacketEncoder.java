@@ -0,0 +1,42 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Encoder that validates outbound packets and encodes them with the negotiated codec.
+ */
+@ChannelHandler.Sharable
+public class PacketEncoder extends MessageToByteEncoder<Packet> {
+    private final PacketCodec codec;
+
+    /**
+     * Creates a new PacketEncoder with the specified codec.
+     *
+     * @param codec The codec used to encode packets
+     */
+    public PacketEncoder(PacketCodec codec) {
+        super(true);
+        this.codec = codec;
+    }
+
+    /**
+     * Gets the codec used by this encoder.
+     *
+     * @return The codec
+     */
+    public PacketCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Packet packet, ByteBuf out) throws Exception {
+        // Validate the packet before encoding
+        packet.validate();
+        codec.encode(packet, out);
+    }
+}
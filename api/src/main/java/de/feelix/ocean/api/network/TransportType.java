@@ -0,0 +1,197 @@
+package de.feelix.ocean.api.network;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.kqueue.KQueueEventLoopGroup;
+import io.netty.channel.kqueue.KQueueServerSocketChannel;
+import io.netty.channel.kqueue.KQueueSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * The Netty transport used by the server and the client.
+ * The native transports use fewer system calls than NIO and give access to socket options such as
+ * {@code SO_REUSEPORT} and {@code TCP_FASTOPEN}, but they are only available on their platform.
+ */
+public enum TransportType {
+    /**
+     * The portable Java NIO transport.
+     */
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return NioSocketChannel.class;
+        }
+    },
+
+    /**
+     * The native epoll transport for Linux.
+     */
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return EpollSocketChannel.class;
+        }
+    },
+
+    /**
+     * The native kqueue transport for macOS and BSD.
+     */
+    KQUEUE {
+        @Override
+        public boolean isAvailable() {
+            return KQueue.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new KQueueEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return KQueueServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return KQueueSocketChannel.class;
+        }
+    },
+
+    /**
+     * Picks the best transport available on this platform, falling back to {@link #NIO}.
+     * Use {@link #resolve()} to get the concrete transport.
+     */
+    AUTO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return resolve().newEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverChannelClass() {
+            return resolve().serverChannelClass();
+        }
+
+        @Override
+        public Class<? extends SocketChannel> channelClass() {
+            return resolve().channelClass();
+        }
+    };
+
+    /**
+     * Checks if this transport can be used on the current platform.
+     *
+     * @return true if the transport is available, false otherwise
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * Creates a new event loop group for this transport.
+     *
+     * @param threads The number of threads, or 0 to use Netty's default
+     * @return The new event loop group
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads);
+
+    /**
+     * Gets the server channel class for this transport.
+     *
+     * @return The server channel class
+     */
+    public abstract Class<? extends ServerSocketChannel> serverChannelClass();
+
+    /**
+     * Gets the client channel class for this transport.
+     *
+     * @return The client channel class
+     */
+    public abstract Class<? extends SocketChannel> channelClass();
+
+    /**
+     * Checks if this is a native transport.
+     *
+     * @return true if this transport is native, false otherwise
+     */
+    public boolean isNative() {
+        return resolve() != NIO;
+    }
+
+    /**
+     * Gets the concrete transport to use.
+     * {@link #AUTO} resolves to the first available native transport or to {@link #NIO};
+     * every other transport resolves to itself.
+     *
+     * @return The concrete transport
+     * @throws IllegalStateException if this transport is not available on the current platform
+     */
+    public TransportType resolve() {
+        if (this == AUTO) {
+            if (EPOLL.isAvailable()) {
+                return EPOLL;
+            }
+            if (KQUEUE.isAvailable()) {
+                return KQUEUE;
+            }
+            return NIO;
+        }
+        if (!isAvailable()) {
+            throw new IllegalStateException("Transport " + this + " is not available: " + unavailabilityCause());
+        }
+        return this;
+    }
+
+    private Throwable unavailabilityCause() {
+        switch (this) {
+            case EPOLL:
+                return Epoll.unavailabilityCause();
+            case KQUEUE:
+                return KQueue.unavailabilityCause();
+            default:
+                return null;
+        }
+    }
+}
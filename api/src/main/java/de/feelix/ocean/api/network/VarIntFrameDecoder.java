@@ -0,0 +1,80 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.util.List;
+
+/**
+ * Decoder that splits the inbound byte stream into frames prefixed with a varint length.
+ * Each frame is emitted as a retained slice of the cumulation buffer, so no payload bytes are copied.
+ */
+public class VarIntFrameDecoder extends ByteToMessageDecoder {
+    /**
+     * The default maximum frame length in bytes.
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024 * 1024;
+
+    private final int maxFrameLength;
+
+    /**
+     * Creates a new VarIntFrameDecoder with the default maximum frame length.
+     */
+    public VarIntFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Creates a new VarIntFrameDecoder with the specified maximum frame length.
+     *
+     * @param maxFrameLength The maximum frame length in bytes
+     */
+    public VarIntFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Max frame length must be positive: " + maxFrameLength);
+        }
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        int startIndex = in.readerIndex();
+
+        // Read the length prefix, waiting for more data if it is incomplete
+        int length = 0;
+        for (int i = 0; ; i++) {
+            if (!in.isReadable()) {
+                in.readerIndex(startIndex);
+                return;
+            }
+            byte b = in.readByte();
+            if (i == VarInt.MAX_VAR_INT_BYTES - 1 && (b & 0xF0) != 0) {
+                // The last byte holds the top 4 bits; anything above them, or a continuation, is malformed
+                throw new CorruptedFrameException("Frame length prefix does not fit in " + VarInt.MAX_VAR_INT_BYTES + " bytes");
+            }
+            length |= (b & 0x7F) << (i * 7);
+            if (b >= 0) {
+                break;
+            }
+        }
+
+        if (length < 0) {
+            throw new CorruptedFrameException("Negative frame length: " + length);
+        }
+        if (length > maxFrameLength) {
+            throw new TooLongFrameException("Frame length " + length + " exceeds maximum of " + maxFrameLength);
+        }
+
+        // Wait until the whole frame has arrived
+        if (in.readableBytes() < length) {
+            in.readerIndex(startIndex);
+            return;
+        }
+
+        out.add(in.readRetainedSlice(length));
+    }
+}
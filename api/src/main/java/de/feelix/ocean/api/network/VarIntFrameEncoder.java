@@ -0,0 +1,53 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.util.List;
+
+/**
+ * Encoder that prepends a varint length to every outbound buffer.
+ * The length prefix is written to a small pooled buffer and the payload is passed on as-is,
+ * so the transport can use a gathering write instead of copying the payload.
+ */
+@ChannelHandler.Sharable
+public class VarIntFrameEncoder extends MessageToMessageEncoder<ByteBuf> {
+    private final int maxFrameLength;
+
+    /**
+     * Creates a new VarIntFrameEncoder with the default maximum frame length.
+     */
+    public VarIntFrameEncoder() {
+        this(VarIntFrameDecoder.DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Creates a new VarIntFrameEncoder with the specified maximum frame length.
+     *
+     * @param maxFrameLength The maximum frame length in bytes
+     */
+    public VarIntFrameEncoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Max frame length must be positive: " + maxFrameLength);
+        }
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        int length = msg.readableBytes();
+        if (length > maxFrameLength) {
+            throw new TooLongFrameException("Frame length " + length + " exceeds maximum of " + maxFrameLength);
+        }
+
+        ByteBuf header = ctx.alloc().ioBuffer(VarInt.varIntSize(length));
+        VarInt.writeVarInt(header, length);
+
+        out.add(header);
+        out.add(msg.retain());
+    }
+}
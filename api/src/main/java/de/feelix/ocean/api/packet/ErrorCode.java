@@ -0,0 +1,41 @@
+package de.feelix.ocean.api.packet;
+
+/**
+ * Error codes carried by failed {@link OutPacket}s.
+ * Codes are plain ints so that they are cheap on the wire and applications can define their own;
+ * codes below 100 are reserved for the built-in ones.
+ */
+public final class ErrorCode {
+    /**
+     * No error, used by successful responses.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The request failed; retrying it will most likely fail again.
+     */
+    public static final int GENERIC = 1;
+
+    /**
+     * The server rejected the request because it is overloaded; it may be retried later.
+     */
+    public static final int OVERLOADED = 2;
+
+    /**
+     * The client exceeded a rate limit; the request may be retried once the client has slowed down.
+     */
+    public static final int RATE_LIMITED = 3;
+
+    private ErrorCode() {
+    }
+
+    /**
+     * Checks if a request that failed with the specified code may be retried.
+     *
+     * @param code The error code
+     * @return true if the request may be retried, false otherwise
+     */
+    public static boolean isRetryable(int code) {
+        return code == OVERLOADED || code == RATE_LIMITED;
+    }
+}
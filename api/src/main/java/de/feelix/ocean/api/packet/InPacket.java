@@ -7,9 +7,20 @@ package de.feelix.ocean.api.packet;
 public interface InPacket extends Packet {
     /**
      * Gets the transaction ID for this packet.
-     * The transaction ID is used to correlate requests and responses.
+     * The transaction ID is used to correlate requests and responses and must be positive.
      *
      * @return The transaction ID
      */
-    String getTransactionId();
+    long getTransactionId();
+
+    /**
+     * Checks if handling this packet twice has the same effect as handling it once.
+     * A client may send an idempotent request again when the connection is lost before the response
+     * arrives, because it cannot know whether the server has already handled it.
+     *
+     * @return true if the packet is idempotent, false otherwise
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
 }
\ No newline at end of file
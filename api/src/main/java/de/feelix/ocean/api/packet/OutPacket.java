@@ -1,16 +1,22 @@
 package de.feelix.ocean.api.packet;
 
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.serialization.VarEncoded;
 import de.feelix.ocean.api.validation.ValidationException;
 
 /**
  * Class for packets sent from server to client.
  * This is the response packet containing a transaction ID and a response string.
  */
+@GenerateCodec
 public class OutPacket implements Packet {
-    private final String transactionId;
+    @VarEncoded
+    private final long transactionId;
     private final String response;
     private final boolean success;
     private final String errorMessage;
+    @VarEncoded
+    private final int errorCode;
 
     /**
      * Private constructor used by the Builder.
@@ -20,6 +26,26 @@ public class OutPacket implements Packet {
         this.response = builder.response;
         this.success = builder.success;
         this.errorMessage = builder.errorMessage;
+        // Failed responses without an explicit code get the generic one
+        this.errorCode = !builder.success && builder.errorCode == ErrorCode.NONE ? ErrorCode.GENERIC : builder.errorCode;
+    }
+
+    /**
+     * Creates a new OutPacket from all of its fields.
+     * This is used by the generated codec.
+     *
+     * @param transactionId The transaction ID
+     * @param response The response string
+     * @param success Whether the operation was successful
+     * @param errorMessage The error message
+     * @param errorCode The error code
+     */
+    OutPacket(long transactionId, String response, boolean success, String errorMessage, int errorCode) {
+        this.transactionId = transactionId;
+        this.response = response;
+        this.success = success;
+        this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
     }
 
     /**
@@ -29,11 +55,12 @@ public class OutPacket implements Packet {
      * @param transactionId The transaction ID from the corresponding InPacket
      * @param response The response string
      */
-    public OutPacket(String transactionId, String response) {
+    public OutPacket(long transactionId, String response) {
         this.transactionId = transactionId;
         this.response = response;
         this.success = true;
         this.errorMessage = null;
+        this.errorCode = ErrorCode.NONE;
     }
 
     /**
@@ -41,7 +68,7 @@ public class OutPacket implements Packet {
      *
      * @return The transaction ID
      */
-    public String getTransactionId() {
+    public long getTransactionId() {
         return transactionId;
     }
 
@@ -72,6 +99,24 @@ public class OutPacket implements Packet {
         return errorMessage;
     }
 
+    /**
+     * Gets the error code if the operation failed.
+     *
+     * @return The error code, or {@link ErrorCode#NONE} if the operation was successful
+     */
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Checks if the failed request may be retried, for example because the server was overloaded.
+     *
+     * @return true if the request may be retried, false otherwise
+     */
+    public boolean isRetryable() {
+        return !success && ErrorCode.isRetryable(errorCode);
+    }
+
     @Override
     public PacketType getType() {
         return PacketType.OUT_PACKET;
@@ -79,8 +124,8 @@ public class OutPacket implements Packet {
 
     @Override
     public void validate() throws ValidationException {
-        if (transactionId == null || transactionId.isEmpty()) {
-            throw new ValidationException("Transaction ID cannot be null or empty");
+        if (transactionId <= 0) {
+            throw new ValidationException("Transaction ID must be positive");
         }
         if (!success && (response != null)) {
             throw new ValidationException("Response should be null for failed operations");
@@ -91,16 +136,20 @@ public class OutPacket implements Packet {
         if (!success && (errorMessage == null || errorMessage.isEmpty())) {
             throw new ValidationException("Error message cannot be null or empty for failed operations");
         }
+        if (success != (errorCode == ErrorCode.NONE)) {
+            throw new ValidationException("Error code must be set for failed operations only");
+        }
     }
 
     /**
      * Builder for OutPacket.
      */
     public static class Builder {
-        private String transactionId;
+        private long transactionId;
         private String response;
         private boolean success = true;
         private String errorMessage;
+        private int errorCode = ErrorCode.NONE;
 
         /**
          * Sets the transaction ID.
@@ -108,7 +157,7 @@ public class OutPacket implements Packet {
          * @param transactionId The transaction ID
          * @return This builder
          */
-        public Builder transactionId(String transactionId) {
+        public Builder transactionId(long transactionId) {
             this.transactionId = transactionId;
             return this;
         }
@@ -146,6 +195,17 @@ public class OutPacket implements Packet {
             return this;
         }
 
+        /**
+         * Sets the error code.
+         *
+         * @param errorCode The error code
+         * @return This builder
+         */
+        public Builder errorCode(int errorCode) {
+            this.errorCode = errorCode;
+            return this;
+        }
+
         /**
          * Creates a new OutPacket with the configured values.
          *
@@ -162,7 +222,7 @@ public class OutPacket implements Packet {
          * @param response The response string
          * @return The new OutPacket
          */
-        public static OutPacket success(String transactionId, String response) {
+        public static OutPacket success(long transactionId, String response) {
             return new Builder()
                 .transactionId(transactionId)
                 .response(response)
@@ -177,12 +237,41 @@ public class OutPacket implements Packet {
          * @param errorMessage The error message
          * @return The new OutPacket
          */
-        public static OutPacket error(String transactionId, String errorMessage) {
+        public static OutPacket error(long transactionId, String errorMessage) {
             return new Builder()
                 .transactionId(transactionId)
                 .success(false)
                 .errorMessage(errorMessage)
+                .errorCode(ErrorCode.GENERIC)
                 .build();
         }
+
+        /**
+         * Creates an error response with the specified transaction ID, error code, and error message.
+         *
+         * @param transactionId The transaction ID
+         * @param errorCode The error code
+         * @param errorMessage The error message
+         * @return The new OutPacket
+         */
+        public static OutPacket error(long transactionId, int errorCode, String errorMessage) {
+            return new Builder()
+                .transactionId(transactionId)
+                .success(false)
+                .errorMessage(errorMessage)
+                .errorCode(errorCode)
+                .build();
+        }
+
+        /**
+         * Creates a retryable error response telling the client that the server is overloaded.
+         *
+         * @param transactionId The transaction ID
+         * @param errorMessage The error message
+         * @return The new OutPacket
+         */
+        public static OutPacket overloaded(long transactionId, String errorMessage) {
+            return error(transactionId, ErrorCode.OVERLOADED, errorMessage);
+        }
     }
 }
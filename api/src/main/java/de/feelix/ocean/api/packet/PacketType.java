@@ -1,31 +1,85 @@
 package de.feelix.ocean.api.packet;
 
+import de.feelix.ocean.api.serialization.PacketTypeRegistry;
+
 /**
- * Enumeration of packet types.
- * This provides type safety and centralized management of packet types.
+ * Type of a packet.
+ * Every packet type has a string identifier used by the JSON format and a compact numeric ID
+ * used by the binary format and for array-indexed lookups. Packet types are open: besides the
+ * built-in types declared here, applications register their own through {@link PacketTypeRegistry}.
  */
-public enum PacketType {
+public final class PacketType {
+    /**
+     * The highest numeric ID a packet type may use.
+     */
+    public static final int MAX_ID = 0xFFFF;
+
     /**
      * Packet type for OutPacket.
      */
-    OUT_PACKET("OUT_PACKET"),
-    
+    public static final PacketType OUT_PACKET = new PacketType(0, "OUT_PACKET");
+
     /**
      * Packet type for SimpleInPacket.
      */
-    SIMPLE_IN_PACKET("SIMPLE_IN_PACKET");
-    
+    public static final PacketType SIMPLE_IN_PACKET = new PacketType(1, "SIMPLE_IN_PACKET");
+
+    /**
+     * Packet type for SubscribePacket.
+     */
+    public static final PacketType SUBSCRIBE_PACKET = new PacketType(2, "SUBSCRIBE_PACKET");
+
+    /**
+     * Packet type for UnsubscribePacket.
+     */
+    public static final PacketType UNSUBSCRIBE_PACKET = new PacketType(3, "UNSUBSCRIBE_PACKET");
+
+    /**
+     * Packet type for TopicMessagePacket.
+     */
+    public static final PacketType TOPIC_MESSAGE_PACKET = new PacketType(4, "TOPIC_MESSAGE_PACKET");
+
+    /**
+     * Packet type for PingPacket.
+     */
+    public static final PacketType PING_PACKET = new PacketType(5, "PING_PACKET");
+
+    /**
+     * Packet type for PongPacket.
+     */
+    public static final PacketType PONG_PACKET = new PacketType(6, "PONG_PACKET");
+
+    private final int id;
     private final String identifier;
-    
+
     /**
-     * Creates a new PacketType with the specified identifier.
+     * Creates a new PacketType with the specified numeric ID and identifier.
+     * The type must be registered with {@link PacketTypeRegistry#register(PacketType)} before it can be
+     * resolved from the wire; {@link PacketTypeRegistry#register(int, String)} does both in one step.
      *
+     * @param id The numeric ID, between 0 and {@link #MAX_ID}
      * @param identifier The string identifier for the packet type
      */
-    PacketType(String identifier) {
+    public PacketType(int id, String identifier) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Packet type ID must be between 0 and " + MAX_ID + ": " + id);
+        }
+        if (identifier == null || identifier.isEmpty()) {
+            throw new IllegalArgumentException("Packet type identifier cannot be null or empty");
+        }
+        this.id = id;
         this.identifier = identifier;
     }
-    
+
+    /**
+     * Gets the numeric ID for this packet type.
+     *
+     * @return The numeric ID
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Gets the string identifier for this packet type.
      *
@@ -34,19 +88,29 @@ public enum PacketType {
     public String getIdentifier() {
         return identifier;
     }
-    
+
     /**
-     * Gets a PacketType by its string identifier.
+     * Gets a registered PacketType by its string identifier.
      *
      * @param identifier The string identifier
      * @return The corresponding PacketType, or null if not found
      */
     public static PacketType fromIdentifier(String identifier) {
-        for (PacketType type : values()) {
-            if (type.getIdentifier().equals(identifier)) {
-                return type;
-            }
-        }
-        return null;
+        return PacketTypeRegistry.fromIdentifier(identifier);
+    }
+
+    /**
+     * Gets a registered PacketType by its numeric ID.
+     *
+     * @param id The numeric ID
+     * @return The corresponding PacketType, or null if not found
+     */
+    public static PacketType fromId(int id) {
+        return PacketTypeRegistry.fromId(id);
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
     }
-}
\ No newline at end of file
+}
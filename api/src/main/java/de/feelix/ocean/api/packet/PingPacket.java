@@ -0,0 +1,41 @@
+package de.feelix.ocean.api.packet;
+
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.validation.ValidationException;
+
+/**
+ * Heartbeat request. Whoever receives a ping answers it with a {@link PongPacket} carrying the same payload.
+ * The server sends pings to connections it has not heard from for a while and closes them if they stay silent.
+ */
+@GenerateCodec
+public class PingPacket implements Packet {
+    private final long payload;
+
+    /**
+     * Creates a new PingPacket with the specified payload.
+     *
+     * @param payload An opaque value the pong echoes, for example the time the ping was sent
+     */
+    public PingPacket(long payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the payload of this packet.
+     *
+     * @return The payload
+     */
+    public long getPayload() {
+        return payload;
+    }
+
+    @Override
+    public PacketType getType() {
+        return PacketType.PING_PACKET;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        // Every payload is valid
+    }
+}
@@ -0,0 +1,40 @@
+package de.feelix.ocean.api.packet;
+
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.validation.ValidationException;
+
+/**
+ * Heartbeat response to a {@link PingPacket}, carrying the payload of the ping.
+ */
+@GenerateCodec
+public class PongPacket implements Packet {
+    private final long payload;
+
+    /**
+     * Creates a new PongPacket with the specified payload.
+     *
+     * @param payload The payload of the ping being answered
+     */
+    public PongPacket(long payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the payload of this packet.
+     *
+     * @return The payload
+     */
+    public long getPayload() {
+        return payload;
+    }
+
+    @Override
+    public PacketType getType() {
+        return PacketType.PONG_PACKET;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        // Every payload is valid
+    }
+}
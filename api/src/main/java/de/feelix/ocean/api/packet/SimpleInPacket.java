@@ -1,13 +1,17 @@
 package de.feelix.ocean.api.packet;
 
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.serialization.VarEncoded;
 import de.feelix.ocean.api.validation.ValidationException;
 
 /**
  * A simple implementation of the InPacket interface.
  * This is an example of how to create custom packets.
  */
+@GenerateCodec
 public class SimpleInPacket implements InPacket {
-    private final String transactionId;
+    @VarEncoded
+    private final long transactionId;
     private final String message;
 
     /**
@@ -16,13 +20,13 @@ public class SimpleInPacket implements InPacket {
      * @param transactionId The transaction ID for correlating with the response
      * @param message The message to send to the server
      */
-    public SimpleInPacket(String transactionId, String message) {
+    public SimpleInPacket(long transactionId, String message) {
         this.transactionId = transactionId;
         this.message = message;
     }
 
     @Override
-    public String getTransactionId() {
+    public long getTransactionId() {
         return transactionId;
     }
 
@@ -42,8 +46,8 @@ public class SimpleInPacket implements InPacket {
 
     @Override
     public void validate() throws ValidationException {
-        if (transactionId == null || transactionId.isEmpty()) {
-            throw new ValidationException("Transaction ID cannot be null or empty");
+        if (transactionId <= 0) {
+            throw new ValidationException("Transaction ID must be positive");
         }
         if (message == null) {
             throw new ValidationException("Message cannot be null");
@@ -0,0 +1,76 @@
+package de.feelix.ocean.api.packet;
+
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.validation.ValidationException;
+
+/**
+ * A message published to a topic, pushed by the server to every client subscribed to the topic.
+ * Unlike an {@link OutPacket}, it does not answer a request and carries no transaction ID.
+ */
+@GenerateCodec
+public class TopicMessagePacket implements Packet {
+    /**
+     * The maximum length of a topic name.
+     */
+    public static final int MAX_TOPIC_LENGTH = 256;
+
+    private final String topic;
+    private final String payload;
+
+    /**
+     * Creates a new TopicMessagePacket with the specified topic and payload.
+     *
+     * @param topic The topic the message was published to
+     * @param payload The message payload
+     */
+    public TopicMessagePacket(String topic, String payload) {
+        this.topic = topic;
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the topic the message was published to.
+     *
+     * @return The topic
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Gets the message payload.
+     *
+     * @return The payload
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    @Override
+    public PacketType getType() {
+        return PacketType.TOPIC_MESSAGE_PACKET;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        validateTopic(topic);
+        if (payload == null) {
+            throw new ValidationException("Payload cannot be null");
+        }
+    }
+
+    /**
+     * Validates a topic name.
+     *
+     * @param topic The topic name
+     * @throws ValidationException if the topic is null, empty, or longer than {@link #MAX_TOPIC_LENGTH}
+     */
+    static void validateTopic(String topic) throws ValidationException {
+        if (topic == null || topic.isEmpty()) {
+            throw new ValidationException("Topic cannot be null or empty");
+        }
+        if (topic.length() > MAX_TOPIC_LENGTH) {
+            throw new ValidationException("Topic cannot be longer than " + MAX_TOPIC_LENGTH + " characters");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package de.feelix.ocean.api.packet;
+
+import de.feelix.ocean.api.serialization.GenerateCodec;
+import de.feelix.ocean.api.serialization.VarEncoded;
+import de.feelix.ocean.api.validation.ValidationException;
+
+/**
+ * Asks the server to stop pushing the messages published to a topic to this client.
+ * The server answers with a regular {@link OutPacket}.
+ */
+@GenerateCodec
+public class UnsubscribePacket implements InPacket {
+    @VarEncoded
+    private final long transactionId;
+    private final String topic;
+
+    /**
+     * Creates a new UnsubscribePacket with the specified transaction ID and topic.
+     *
+     * @param transactionId The transaction ID for correlating with the response
+     * @param topic The topic to unsubscribe from
+     */
+    public UnsubscribePacket(long transactionId, String topic) {
+        this.transactionId = transactionId;
+        this.topic = topic;
+    }
+
+    @Override
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Gets the topic to unsubscribe from.
+     *
+     * @return The topic
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        // Subscriptions form a set, so unsubscribing twice is the same as once
+        return true;
+    }
+
+    @Override
+    public PacketType getType() {
+        return PacketType.UNSUBSCRIBE_PACKET;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        if (transactionId <= 0) {
+            throw new ValidationException("Transaction ID must be positive");
+        }
+        TopicMessagePacket.validateTopic(topic);
+    }
+}
@@ -0,0 +1,80 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary codec based on the per-type {@link PacketSchema}s held by {@link PacketRegistry}.
+ * Each frame starts with the numeric packet type ID as a varint, followed by a format byte and the packet body.
+ * Packet types with a registered schema are written field by field; all other packet types
+ * fall back to a JSON body so that every registered packet can still be sent.
+ */
+public class BinaryPacketCodec implements PacketCodec {
+    /**
+     * The name of this codec.
+     */
+    public static final String NAME = "binary";
+
+    private static final byte FORMAT_SCHEMA = 0;
+    private static final byte FORMAT_JSON = 1;
+
+    /**
+     * Registers a schema for a packet type.
+     * This is a shortcut for {@link PacketRegistry#registerSchema(PacketType, PacketSchema)}.
+     *
+     * @param type The packet type
+     * @param schema The schema for the packet type
+     * @param <T> The packet class
+     */
+    public static <T extends Packet> void registerSchema(PacketType type, PacketSchema<T> schema) {
+        PacketRegistry.registerSchema(type, schema);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void encode(Packet packet, ByteBuf out) {
+        PacketType type = packet.getType();
+        VarInt.writeVarInt(out, type.getId());
+
+        PacketSchema<Packet> schema = PacketRegistry.getSchema(type);
+        if (schema != null) {
+            out.writeByte(FORMAT_SCHEMA);
+            schema.write(packet, out);
+        } else {
+            out.writeByte(FORMAT_JSON);
+            ByteBufUtil.writeUtf8(out, PacketSerializer.toJson(packet));
+        }
+    }
+
+    @Override
+    public Packet decode(ByteBuf in) throws IOException {
+        int typeId = VarInt.readVarInt(in);
+        Class<? extends Packet> packetClass = PacketRegistry.getPacketClass(typeId);
+        if (packetClass == null) {
+            throw new IllegalArgumentException("Unknown packet type ID: " + typeId);
+        }
+
+        byte format = in.readByte();
+        if (format == FORMAT_SCHEMA) {
+            PacketSchema<Packet> schema = PacketRegistry.getSchema(typeId);
+            if (schema == null) {
+                throw new IOException("No binary schema registered for packet type ID: " + typeId);
+            }
+            return schema.read(in);
+        } else if (format == FORMAT_JSON) {
+            String json = in.readCharSequence(in.readableBytes(), StandardCharsets.UTF_8).toString();
+            return PacketSerializer.fromJson(json, packetClass);
+        }
+        throw new IOException("Unknown packet body format: " + format);
+    }
+}
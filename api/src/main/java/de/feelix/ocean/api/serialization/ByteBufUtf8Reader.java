@@ -0,0 +1,97 @@
+package de.feelix.ocean.api.serialization;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader that decodes UTF-8 straight from a Netty buffer.
+ * Unlike an InputStreamReader over a ByteBufInputStream it keeps no intermediate byte buffer.
+ * Only the readable bytes of the buffer are consumed, which makes it suitable for a single frame.
+ * Malformed input, including overlong sequences and encoded surrogates, is rejected with a
+ * {@link CharConversionException}.
+ */
+class ByteBufUtf8Reader extends Reader {
+    private final ByteBuf buf;
+    private char pendingLowSurrogate;
+
+    /**
+     * Creates a new ByteBufUtf8Reader that consumes the specified buffer.
+     *
+     * @param buf The buffer to read from
+     */
+    ByteBufUtf8Reader(ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        int n = 0;
+        if (pendingLowSurrogate != 0) {
+            cbuf[off + n++] = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+        }
+
+        while (n < len && buf.isReadable()) {
+            int b = buf.readByte();
+            if (b >= 0) {
+                // ASCII fast path
+                cbuf[off + n++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                int codePoint = ((b & 0x1F) << 6) | continuation();
+                if (codePoint < 0x80) {
+                    throw new CharConversionException("Overlong UTF-8 sequence for code point: " + codePoint);
+                }
+                cbuf[off + n++] = (char) codePoint;
+            } else if ((b & 0xF0) == 0xE0) {
+                int codePoint = ((b & 0x0F) << 12) | (continuation() << 6) | continuation();
+                if (codePoint < 0x800) {
+                    throw new CharConversionException("Overlong UTF-8 sequence for code point: " + codePoint);
+                }
+                if (Character.isSurrogate((char) codePoint)) {
+                    // Surrogates only exist in UTF-16; UTF-8 encodes the code point they stand for instead
+                    throw new CharConversionException("Encoded surrogate in UTF-8: " + codePoint);
+                }
+                cbuf[off + n++] = (char) codePoint;
+            } else if ((b & 0xF8) == 0xF0) {
+                int codePoint = ((b & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                if (!Character.isSupplementaryCodePoint(codePoint)) {
+                    throw new CharConversionException("Invalid UTF-8 code point: " + codePoint);
+                }
+                cbuf[off + n++] = Character.highSurrogate(codePoint);
+                char low = Character.lowSurrogate(codePoint);
+                if (n < len) {
+                    cbuf[off + n++] = low;
+                } else {
+                    pendingLowSurrogate = low;
+                }
+            } else {
+                throw new CharConversionException("Invalid UTF-8 lead byte: " + (b & 0xFF));
+            }
+        }
+
+        return n == 0 ? -1 : n;
+    }
+
+    private int continuation() throws IOException {
+        if (!buf.isReadable()) {
+            throw new CharConversionException("Truncated UTF-8 sequence");
+        }
+        int b = buf.readByte();
+        if ((b & 0xC0) != 0x80) {
+            throw new CharConversionException("Invalid UTF-8 continuation byte: " + (b & 0xFF));
+        }
+        return b & 0x3F;
+    }
+
+    @Override
+    public void close() {
+        // The buffer is owned by the caller
+    }
+}
@@ -0,0 +1,54 @@
+package de.feelix.ocean.api.serialization;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Writer that encodes characters as UTF-8 straight into a Netty buffer.
+ * Unlike an OutputStreamWriter over a ByteBufOutputStream it keeps no intermediate byte buffer,
+ * so wrapping a buffer for a single packet costs only this small object.
+ */
+class ByteBufUtf8Writer extends Writer {
+    private final ByteBuf buf;
+
+    /**
+     * Creates a new ByteBufUtf8Writer that appends to the specified buffer.
+     *
+     * @param buf The buffer to write to
+     */
+    ByteBufUtf8Writer(ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    @Override
+    public void write(int c) {
+        if (c < 0x80) {
+            buf.writeByte(c);
+        } else {
+            ByteBufUtil.writeUtf8(buf, String.valueOf((char) c));
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        ByteBufUtil.writeUtf8(buf, str, off, off + len);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        ByteBufUtil.writeUtf8(buf, CharBuffer.wrap(cbuf), off, off + len);
+    }
+
+    @Override
+    public void flush() {
+        // Nothing is buffered
+    }
+
+    @Override
+    public void close() {
+        // The buffer is owned by the caller
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.ocean.api.serialization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a packet class for which a {@link GeneratedCodec} is generated at compile time.
+ * The annotation processor in the {@code processor} module serializes every non-static, non-transient
+ * field and reconstructs the packet through a non-private constructor whose parameters have the same
+ * names and types as those fields. Fields are read through a getter ({@code getX} or {@code isX})
+ * or directly if they are not private.
+ * Generated codecs are discovered at runtime and registered with {@link PacketRegistry} automatically.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+}
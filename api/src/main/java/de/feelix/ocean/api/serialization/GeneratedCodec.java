@@ -0,0 +1,92 @@
+package de.feelix.ocean.api.serialization;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import de.feelix.ocean.api.packet.Packet;
+
+import java.io.IOException;
+
+/**
+ * Base class for codecs generated for classes annotated with {@link GenerateCodec}.
+ * A generated codec reads and writes the packet fields directly, both as a binary {@link PacketSchema}
+ * and as a Gson {@link TypeAdapter}, so neither wire format needs reflection on the hot path.
+ * Implementations are listed as services and loaded by {@link PacketRegistry}.
+ *
+ * @param <T> The packet class this codec handles
+ */
+public abstract class GeneratedCodec<T extends Packet> extends TypeAdapter<T> implements PacketSchema<T> {
+    /**
+     * Gets the packet class this codec handles.
+     *
+     * @return The packet class
+     */
+    public abstract Class<T> getPacketClass();
+
+    /**
+     * Reads a string value that may be JSON null.
+     *
+     * @param in The reader
+     * @return The string, or null
+     * @throws IOException if the value cannot be read
+     */
+    protected static String nextNullableString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a byte value. Like Gson's own adapter, values from -128 to 255 are accepted, so unsigned
+     * bytes can be read, and anything else is rejected instead of wrapped.
+     *
+     * @param in The reader
+     * @return The byte
+     * @throws IOException if the value cannot be read
+     * @throws JsonSyntaxException if the value does not fit into a byte
+     */
+    protected static byte nextByte(JsonReader in) throws IOException {
+        int value = in.nextInt();
+        if (value < Byte.MIN_VALUE || value > 0xFF) {
+            throw new JsonSyntaxException("Lossy conversion from " + value + " to byte; at path " + in.getPreviousPath());
+        }
+        return (byte) value;
+    }
+
+    /**
+     * Reads a short value. Like Gson's own adapter, values from -32768 to 65535 are accepted, so unsigned
+     * shorts can be read, and anything else is rejected instead of wrapped.
+     *
+     * @param in The reader
+     * @return The short
+     * @throws IOException if the value cannot be read
+     * @throws JsonSyntaxException if the value does not fit into a short
+     */
+    protected static short nextShort(JsonReader in) throws IOException {
+        int value = in.nextInt();
+        if (value < Short.MIN_VALUE || value > 0xFFFF) {
+            throw new JsonSyntaxException("Lossy conversion from " + value + " to short; at path " + in.getPreviousPath());
+        }
+        return (short) value;
+    }
+
+    /**
+     * Reads a char value, which is written as a string of exactly one character.
+     *
+     * @param in The reader
+     * @return The char
+     * @throws IOException if the value cannot be read
+     * @throws JsonSyntaxException if the value is not a single character
+     */
+    protected static char nextChar(JsonReader in) throws IOException {
+        String value = in.nextString();
+        if (value.length() != 1) {
+            throw new JsonSyntaxException("Expected a single character but was \"" + value + "\"; at path "
+                + in.getPreviousPath());
+        }
+        return value.charAt(0);
+    }
+}
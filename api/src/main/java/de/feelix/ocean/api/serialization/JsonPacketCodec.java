@@ -0,0 +1,33 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+/**
+ * Codec that uses the JSON format of {@link PacketSerializer} on the wire.
+ * This is the most compatible codec and is always available.
+ * Packets are streamed directly into and out of the frame buffers.
+ */
+public class JsonPacketCodec implements PacketCodec {
+    /**
+     * The name of this codec.
+     */
+    public static final String NAME = "json";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void encode(Packet packet, ByteBuf out) throws IOException {
+        PacketSerializer.write(packet, new ByteBufUtf8Writer(out));
+    }
+
+    @Override
+    public Packet decode(ByteBuf in) throws IOException {
+        return PacketSerializer.deserialize(in);
+    }
+}
@@ -0,0 +1,40 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+/**
+ * Interface for wire formats that turn packets into bytes and back.
+ * Client and server agree on a codec by name when a connection is established.
+ */
+public interface PacketCodec {
+    /**
+     * Gets the name of this codec.
+     * The name identifies the codec during the connection handshake.
+     *
+     * @return The codec name
+     */
+    String getName();
+
+    /**
+     * Encodes a packet into a buffer.
+     * The packet is expected to be validated by the caller.
+     *
+     * @param packet The packet to encode
+     * @param out The buffer to write to
+     * @throws IOException if the packet cannot be encoded
+     */
+    void encode(Packet packet, ByteBuf out) throws IOException;
+
+    /**
+     * Decodes a packet from a buffer containing exactly one frame.
+     *
+     * @param in The buffer to read from
+     * @return The decoded packet
+     * @throws IOException if the packet cannot be decoded
+     * @throws IllegalArgumentException if the packet type is unknown
+     */
+    Packet decode(ByteBuf in) throws IOException;
+}
@@ -0,0 +1,58 @@
+package de.feelix.ocean.api.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for packet codecs.
+ * This class maps codec names to their implementations so both sides can negotiate a codec by name.
+ */
+public class PacketCodecs {
+    private static final Map<String, PacketCodec> CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * The JSON codec.
+     */
+    public static final PacketCodec JSON = new JsonPacketCodec();
+
+    /**
+     * The binary codec.
+     */
+    public static final PacketCodec BINARY = new BinaryPacketCodec();
+
+    static {
+        // Register built-in codecs
+        register(JSON);
+        register(BINARY);
+    }
+
+    /**
+     * Registers a codec under its name.
+     *
+     * @param codec The codec
+     */
+    public static void register(PacketCodec codec) {
+        CODECS.put(codec.getName(), codec);
+    }
+
+    /**
+     * Gets a codec by its name.
+     *
+     * @param name The codec name
+     * @return The codec, or null if not found
+     */
+    public static PacketCodec get(String name) {
+        return CODECS.get(name);
+    }
+
+    /**
+     * Gets the names of all registered codecs.
+     *
+     * @return A list of codec names
+     */
+    public static List<String> getNames() {
+        return new ArrayList<>(CODECS.keySet());
+    }
+}
@@ -2,33 +2,78 @@ package de.feelix.ocean.api.serialization;
 
 import de.feelix.ocean.api.packet.Packet;
 import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.packet.PingPacket;
+import de.feelix.ocean.api.packet.PongPacket;
 import de.feelix.ocean.api.packet.OutPacket;
 import de.feelix.ocean.api.packet.SimpleInPacket;
+import de.feelix.ocean.api.packet.SubscribePacket;
+import de.feelix.ocean.api.packet.TopicMessagePacket;
+import de.feelix.ocean.api.packet.UnsubscribePacket;
 
-import java.util.EnumMap;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
 /**
  * Registry for packet types.
- * This class maps packet types to their respective classes.
+ * This class maps packet types to their respective classes and binary schemas.
+ * Lookups by packet type are array-indexed by the numeric type ID.
+ * Codecs generated for {@link GenerateCodec} classes are discovered through {@link ServiceLoader}
+ * and attached to their packet type as soon as the packet class is registered.
  */
 public class PacketRegistry {
-    private static final Map<PacketType, Class<? extends Packet>> PACKET_TYPES = new EnumMap<>(PacketType.class);
+    private static final Logger LOGGER = Logger.getLogger(PacketRegistry.class.getName());
+
+    private static final PacketTypeMap<Class<? extends Packet>> PACKET_TYPES = new PacketTypeMap<>();
+    private static final PacketTypeMap<PacketSchema<?>> SCHEMAS = new PacketTypeMap<>();
+    private static final Map<Class<?>, GeneratedCodec<?>> GENERATED_CODECS = new ConcurrentHashMap<>();
 
     static {
+        // Discover codecs generated at compile time
+        for (GeneratedCodec<?> codec : ServiceLoader.load(GeneratedCodec.class, PacketRegistry.class.getClassLoader())) {
+            GENERATED_CODECS.put(codec.getPacketClass(), codec);
+        }
+        LOGGER.fine("Loaded " + GENERATED_CODECS.size() + " generated packet codecs");
+
         // Register built-in packet types
         register(PacketType.OUT_PACKET, OutPacket.class);
         register(PacketType.SIMPLE_IN_PACKET, SimpleInPacket.class);
+        register(PacketType.SUBSCRIBE_PACKET, SubscribePacket.class);
+        register(PacketType.UNSUBSCRIBE_PACKET, UnsubscribePacket.class);
+        register(PacketType.TOPIC_MESSAGE_PACKET, TopicMessagePacket.class);
+        register(PacketType.PING_PACKET, PingPacket.class);
+        register(PacketType.PONG_PACKET, PongPacket.class);
     }
 
     /**
      * Registers a packet type with its class.
+     * The packet type is registered with {@link PacketTypeRegistry} if it is not already.
+     * If a codec was generated for the class, it is registered as the binary schema of the packet type.
      *
      * @param type The packet type
      * @param packetClass The packet class
+     * @throws IllegalArgumentException if the ID or identifier of the type is taken by another type
      */
     public static void register(PacketType type, Class<? extends Packet> packetClass) {
+        PacketTypeRegistry.register(type);
         PACKET_TYPES.put(type, packetClass);
+
+        GeneratedCodec<?> codec = GENERATED_CODECS.get(packetClass);
+        if (codec != null) {
+            SCHEMAS.put(type, codec);
+        }
+    }
+
+    /**
+     * Registers a binary schema for a packet type, replacing any generated codec.
+     *
+     * @param type The packet type
+     * @param schema The schema for the packet type
+     * @param <T> The packet class
+     */
+    public static <T extends Packet> void registerSchema(PacketType type, PacketSchema<T> schema) {
+        SCHEMAS.put(type, schema);
     }
 
     /**
@@ -41,6 +86,16 @@ public class PacketRegistry {
         return PACKET_TYPES.get(type);
     }
 
+    /**
+     * Gets the class for a numeric packet type ID.
+     *
+     * @param typeId The numeric packet type ID
+     * @return The packet class, or null if not found
+     */
+    public static Class<? extends Packet> getPacketClass(int typeId) {
+        return PACKET_TYPES.get(typeId);
+    }
+
     /**
      * Gets the class for a packet type identifier.
      *
@@ -51,4 +106,37 @@ public class PacketRegistry {
         PacketType type = PacketType.fromIdentifier(typeIdentifier);
         return type != null ? PACKET_TYPES.get(type) : null;
     }
+
+    /**
+     * Gets the binary schema for a packet type.
+     *
+     * @param type The packet type
+     * @return The schema, or null if the packet type has no schema
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Packet> PacketSchema<T> getSchema(PacketType type) {
+        return (PacketSchema<T>) SCHEMAS.get(type);
+    }
+
+    /**
+     * Gets the binary schema for a numeric packet type ID.
+     *
+     * @param typeId The numeric packet type ID
+     * @return The schema, or null if the packet type has no schema
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Packet> PacketSchema<T> getSchema(int typeId) {
+        return (PacketSchema<T>) SCHEMAS.get(typeId);
+    }
+
+    /**
+     * Gets the codec generated for a packet class.
+     *
+     * @param packetClass The packet class
+     * @return The generated codec, or null if none was generated
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Packet> GeneratedCodec<T> getGeneratedCodec(Class<T> packetClass) {
+        return (GeneratedCodec<T>) GENERATED_CODECS.get(packetClass);
+    }
 }
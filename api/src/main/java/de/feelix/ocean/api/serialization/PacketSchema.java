@@ -0,0 +1,29 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Interface for the binary layout of a single packet class.
+ * Schemas are registered with {@link BinaryPacketCodec} and read and write the packet fields
+ * directly, without any reflection or intermediate representation.
+ *
+ * @param <T> The packet class this schema describes
+ */
+public interface PacketSchema<T extends Packet> {
+    /**
+     * Writes the fields of a packet to a buffer.
+     *
+     * @param packet The packet to write
+     * @param out The buffer to write to
+     */
+    void write(T packet, ByteBuf out);
+
+    /**
+     * Reads the fields of a packet from a buffer.
+     *
+     * @param in The buffer to read from
+     * @return The packet
+     */
+    T read(ByteBuf in);
+}
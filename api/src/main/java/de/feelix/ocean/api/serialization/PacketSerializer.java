@@ -3,24 +3,35 @@ package de.feelix.ocean.api.serialization;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import de.feelix.ocean.api.packet.Packet;
 import de.feelix.ocean.api.packet.PacketType;
 import de.feelix.ocean.api.validation.ValidationException;
+import io.netty.buffer.ByteBuf;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 /**
  * Serializer for packets using Gson.
  * This class handles the serialization and deserialization of packets.
+ * Packets are streamed through Gson's JsonWriter and JsonReader, so no intermediate
+ * JSON tree is built for the {@code {type, data}} envelope.
+ * Packet classes with a {@link GeneratedCodec} are bound by that codec instead of by reflection.
  */
 public class PacketSerializer {
     private static final Gson GSON = new GsonBuilder()
         .registerTypeAdapter(PacketType.class, new PacketTypeAdapter())
+        .registerTypeAdapterFactory(new GeneratedCodecFactory())
         .create();
 
     /**
@@ -36,10 +47,29 @@ public class PacketSerializer {
         // Validate the packet before serialization
         packet.validate();
 
-        JsonObject json = new JsonObject();
-        json.addProperty("type", packet.getType().getIdentifier());
-        json.add("data", GSON.toJsonTree(packet));
-        return GSON.toJson(json);
+        StringWriter writer = new StringWriter();
+        try {
+            write(packet, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Serializes a packet to JSON and writes the UTF-8 bytes directly into a buffer.
+     * The packet is validated before serialization.
+     *
+     * @param packet The packet to serialize
+     * @param out The buffer to write to
+     * @throws IOException if the packet cannot be written
+     * @throws ValidationException if the packet is invalid
+     */
+    public static void serialize(Packet packet, ByteBuf out) throws IOException {
+        // Validate the packet before serialization
+        packet.validate();
+
+        write(packet, new ByteBufUtf8Writer(out));
     }
 
     /**
@@ -47,20 +77,116 @@ public class PacketSerializer {
      * The packet type is extracted from the JSON to determine the class to instantiate.
      *
      * @param json The JSON string
-     * @return The deserialized packet, or null if the packet type is not registered
+     * @return The deserialized packet
      * @throws IllegalArgumentException if the packet type is unknown
      */
     public static Packet deserialize(String json) {
-        JsonObject jsonObject = JsonParser.parseString(json).getAsJsonObject();
-        String typeIdentifier = jsonObject.get("type").getAsString();
-        JsonElement data = jsonObject.get("data");
+        try {
+            return read(new StringReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        Class<? extends Packet> packetClass = PacketRegistry.getPacketClassByIdentifier(typeIdentifier);
-        if (packetClass == null) {
-            throw new IllegalArgumentException("Unknown packet type: " + typeIdentifier);
+    /**
+     * Deserializes a packet from the UTF-8 JSON in a buffer.
+     * All readable bytes of the buffer are consumed.
+     *
+     * @param in The buffer to read from
+     * @return The deserialized packet
+     * @throws IOException if the JSON cannot be read
+     * @throws IllegalArgumentException if the packet type is unknown
+     */
+    public static Packet deserialize(ByteBuf in) throws IOException {
+        return read(new ByteBufUtf8Reader(in));
+    }
+
+    /**
+     * Writes the {@code {type, data}} envelope for a packet without validating it.
+     *
+     * @param packet The packet to write
+     * @param out The writer to write to
+     * @throws IOException if the packet cannot be written
+     */
+    static void write(Packet packet, Writer out) throws IOException {
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Packet> adapter = (TypeAdapter<Packet>) GSON.getAdapter(packet.getClass());
+
+        JsonWriter writer = GSON.newJsonWriter(out);
+        writer.beginObject();
+        writer.name("type").value(packet.getType().getIdentifier());
+        writer.name("data");
+        adapter.write(writer, packet);
+        writer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * Reads a packet from its {@code {type, data}} envelope.
+     * The data is bound as soon as the type is known; only if the data precedes the type
+     * in the document is it buffered as a tree first.
+     *
+     * @param in The reader to read from
+     * @return The packet
+     * @throws IOException if the JSON cannot be read
+     * @throws IllegalArgumentException if the packet type is unknown or missing
+     */
+    static Packet read(Reader in) throws IOException {
+        JsonReader reader = GSON.newJsonReader(in);
+        String typeIdentifier = null;
+        Class<? extends Packet> packetClass = null;
+        Packet packet = null;
+        JsonElement bufferedData = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("type".equals(name)) {
+                typeIdentifier = reader.nextString();
+                packetClass = PacketRegistry.getPacketClassByIdentifier(typeIdentifier);
+                if (packetClass == null) {
+                    throw new IllegalArgumentException("Unknown packet type: " + typeIdentifier);
+                }
+            } else if ("data".equals(name)) {
+                if (packetClass != null) {
+                    packet = GSON.getAdapter(packetClass).read(reader);
+                } else {
+                    bufferedData = JsonParser.parseReader(reader);
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (typeIdentifier == null) {
+            throw new IllegalArgumentException("Missing packet type");
+        }
+        if (packet == null && bufferedData != null) {
+            packet = GSON.fromJson(bufferedData, packetClass);
         }
+        return packet;
+    }
+
+    /**
+     * Serializes only the fields of a packet to JSON, without the type envelope.
+     *
+     * @param packet The packet to serialize
+     * @return The JSON string
+     */
+    static String toJson(Packet packet) {
+        return GSON.toJson(packet);
+    }
 
-        return GSON.fromJson(data, packetClass);
+    /**
+     * Deserializes the fields of a packet from JSON written by {@link #toJson(Packet)}.
+     *
+     * @param json The JSON string
+     * @param packetClass The packet class
+     * @return The deserialized packet
+     */
+    static Packet fromJson(String json, Class<? extends Packet> packetClass) {
+        return GSON.fromJson(json, packetClass);
     }
 
     /**
@@ -82,4 +208,19 @@ public class PacketSerializer {
             return type;
         }
     }
+
+    /**
+     * TypeAdapterFactory that hands out the generated codec of a packet class, if there is one.
+     */
+    private static class GeneratedCodecFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+            Class<? super T> rawType = typeToken.getRawType();
+            if (!Packet.class.isAssignableFrom(rawType)) {
+                return null;
+            }
+            return (TypeAdapter<T>) PacketRegistry.getGeneratedCodec((Class) rawType);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.PacketType;
+
+import java.util.Arrays;
+
+/**
+ * Map from packet types to values, backed by an array indexed by the numeric packet type ID.
+ * Reads are a single volatile array load and never lock. Writes copy the array under a lock,
+ * which keeps registration at runtime safe while making lookups as cheap as an array access.
+ *
+ * @param <V> The value type
+ */
+public class PacketTypeMap<V> {
+    private volatile Object[] table = new Object[0];
+
+    /**
+     * Gets the value for a packet type.
+     *
+     * @param type The packet type
+     * @return The value, or null if not found
+     */
+    public V get(PacketType type) {
+        return get(type.getId());
+    }
+
+    /**
+     * Gets the value for a numeric packet type ID.
+     *
+     * @param id The packet type ID
+     * @return The value, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        Object[] current = table;
+        return id >= 0 && id < current.length ? (V) current[id] : null;
+    }
+
+    /**
+     * Associates a value with a packet type.
+     *
+     * @param type The packet type
+     * @param value The value, or null to remove the mapping
+     * @return The previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V put(PacketType type, V value) {
+        int id = type.getId();
+        Object[] current = table;
+        Object[] updated = Arrays.copyOf(current, Math.max(current.length, id + 1));
+        Object previous = updated[id];
+        updated[id] = value;
+        table = updated;
+        return (V) previous;
+    }
+
+    /**
+     * Removes the value for a packet type.
+     *
+     * @param type The packet type
+     * @return The previous value, or null if there was none
+     */
+    public V remove(PacketType type) {
+        return get(type) != null ? put(type, null) : null;
+    }
+}
@@ -0,0 +1,94 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.PacketType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for packet types.
+ * This class resolves packet types by numeric ID with an array lookup and by string identifier
+ * with a hash lookup. Both lookups are lock-free; registration may happen at any time.
+ * Client and server must register the same types under the same IDs.
+ */
+public class PacketTypeRegistry {
+    private static final PacketTypeMap<PacketType> BY_ID = new PacketTypeMap<>();
+    private static final Map<String, PacketType> BY_IDENTIFIER = new ConcurrentHashMap<>();
+
+    static {
+        // Register built-in packet types
+        register(PacketType.OUT_PACKET);
+        register(PacketType.SIMPLE_IN_PACKET);
+        register(PacketType.SUBSCRIBE_PACKET);
+        register(PacketType.UNSUBSCRIBE_PACKET);
+        register(PacketType.TOPIC_MESSAGE_PACKET);
+        register(PacketType.PING_PACKET);
+        register(PacketType.PONG_PACKET);
+    }
+
+    /**
+     * Creates and registers a packet type.
+     *
+     * @param id The numeric ID
+     * @param identifier The string identifier
+     * @return The registered packet type
+     * @throws IllegalArgumentException if the ID or identifier is already taken by another type
+     */
+    public static PacketType register(int id, String identifier) {
+        return register(new PacketType(id, identifier));
+    }
+
+    /**
+     * Registers a packet type.
+     * Registering the same instance again has no effect.
+     *
+     * @param type The packet type
+     * @return The registered packet type
+     * @throws IllegalArgumentException if the ID or identifier is already taken by another type
+     */
+    public static synchronized PacketType register(PacketType type) {
+        PacketType byId = BY_ID.get(type);
+        if (byId != null && byId != type) {
+            throw new IllegalArgumentException("Packet type ID " + type.getId() + " is already used by " + byId);
+        }
+        PacketType byIdentifier = BY_IDENTIFIER.get(type.getIdentifier());
+        if (byIdentifier != null && byIdentifier != type) {
+            throw new IllegalArgumentException("Packet type identifier " + type.getIdentifier() + " is already registered");
+        }
+
+        BY_IDENTIFIER.put(type.getIdentifier(), type);
+        BY_ID.put(type, type);
+        return type;
+    }
+
+    /**
+     * Gets a packet type by its numeric ID.
+     *
+     * @param id The numeric ID
+     * @return The packet type, or null if not found
+     */
+    public static PacketType fromId(int id) {
+        return BY_ID.get(id);
+    }
+
+    /**
+     * Gets a packet type by its string identifier.
+     *
+     * @param identifier The string identifier
+     * @return The packet type, or null if not found
+     */
+    public static PacketType fromIdentifier(String identifier) {
+        return identifier != null ? BY_IDENTIFIER.get(identifier) : null;
+    }
+
+    /**
+     * Gets all registered packet types.
+     *
+     * @return A list of all registered packet types
+     */
+    public static List<PacketType> getAll() {
+        return new ArrayList<>(BY_IDENTIFIER.values());
+    }
+}
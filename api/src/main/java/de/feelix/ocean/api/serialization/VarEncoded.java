@@ -0,0 +1,19 @@
+package de.feelix.ocean.api.serialization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@code int} or {@code long} field of a {@link GenerateCodec} packet that is written
+ * as a varint by the generated binary codec instead of with a fixed width.
+ * This suits values that are usually small and non-negative, such as transaction IDs;
+ * negative values always take the maximum number of bytes.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface VarEncoded {
+}
@@ -0,0 +1,42 @@
+package de.feelix.ocean.api.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class for writing compact field encodings to Netty buffers.
+ */
+public class BufferUtil {
+    /**
+     * Writes a nullable string as a varint length followed by its UTF-8 bytes.
+     * The length is stored off by one so that zero can represent null.
+     *
+     * @param buf The buffer to write to
+     * @param value The string to write, may be null
+     */
+    public static void writeString(ByteBuf buf, String value) {
+        if (value == null) {
+            VarInt.writeVarInt(buf, 0);
+            return;
+        }
+        int length = ByteBufUtil.utf8Bytes(value);
+        VarInt.writeVarInt(buf, length + 1);
+        ByteBufUtil.reserveAndWriteUtf8(buf, value, length);
+    }
+
+    /**
+     * Reads a nullable string written by {@link #writeString(ByteBuf, String)}.
+     *
+     * @param buf The buffer to read from
+     * @return The string, or null if a null value was written
+     */
+    public static String readString(ByteBuf buf) {
+        int length = VarInt.readVarInt(buf) - 1;
+        if (length < 0) {
+            return null;
+        }
+        return buf.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+}
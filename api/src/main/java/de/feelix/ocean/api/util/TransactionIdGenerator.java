@@ -1,6 +1,5 @@
 package de.feelix.ocean.api.util;
 
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -11,21 +10,12 @@ public class TransactionIdGenerator {
     
     /**
      * Generates a unique transaction ID based on a counter.
-     * This is more efficient than UUID for high-frequency operations.
+     * IDs are positive and increase monotonically within a JVM, so they are small on the wire
+     * and can be correlated without allocating.
      *
      * @return A unique transaction ID
      */
-    public static String generateId() {
-        return String.valueOf(COUNTER.incrementAndGet());
-    }
-    
-    /**
-     * Generates a unique transaction ID based on UUID.
-     * This is more suitable for distributed systems.
-     *
-     * @return A unique transaction ID
-     */
-    public static String generateUUID() {
-        return UUID.randomUUID().toString();
+    public static long generateId() {
+        return COUNTER.incrementAndGet();
     }
 }
\ No newline at end of file
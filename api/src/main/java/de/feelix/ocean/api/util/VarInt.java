@@ -0,0 +1,123 @@
+package de.feelix.ocean.api.util;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Utility class for reading and writing variable-length integers.
+ * Values are encoded in groups of 7 bits, least significant group first,
+ * with the high bit of each byte signalling that another byte follows.
+ */
+public class VarInt {
+    /**
+     * The maximum number of bytes an encoded int can occupy.
+     */
+    public static final int MAX_VAR_INT_BYTES = 5;
+
+    /**
+     * The maximum number of bytes an encoded long can occupy.
+     */
+    public static final int MAX_VAR_LONG_BYTES = 10;
+
+    /**
+     * Gets the number of bytes needed to encode the specified value.
+     *
+     * @param value The value
+     * @return The encoded size in bytes
+     */
+    public static int varIntSize(int value) {
+        if ((value & (~0 << 7)) == 0) {
+            return 1;
+        }
+        if ((value & (~0 << 14)) == 0) {
+            return 2;
+        }
+        if ((value & (~0 << 21)) == 0) {
+            return 3;
+        }
+        if ((value & (~0 << 28)) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
+    /**
+     * Writes a variable-length int to a buffer.
+     *
+     * @param buf The buffer to write to
+     * @param value The value to write
+     */
+    public static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    /**
+     * Reads a variable-length int from a buffer.
+     *
+     * @param buf The buffer to read from
+     * @return The decoded value
+     * @throws IllegalArgumentException if the encoded value is longer than {@link #MAX_VAR_INT_BYTES}
+     */
+    public static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        for (int i = 0; i < MAX_VAR_INT_BYTES; i++) {
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << (i * 7);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarInt is longer than " + MAX_VAR_INT_BYTES + " bytes");
+    }
+
+    /**
+     * Gets the number of bytes needed to encode the specified long value.
+     *
+     * @param value The value
+     * @return The encoded size in bytes
+     */
+    public static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Writes a variable-length long to a buffer.
+     *
+     * @param buf The buffer to write to
+     * @param value The value to write
+     */
+    public static void writeVarLong(ByteBuf buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte((int) value);
+    }
+
+    /**
+     * Reads a variable-length long from a buffer.
+     *
+     * @param buf The buffer to read from
+     * @return The decoded value
+     * @throws IllegalArgumentException if the encoded value is longer than {@link #MAX_VAR_LONG_BYTES}
+     */
+    public static long readVarLong(ByteBuf buf) {
+        long value = 0;
+        for (int i = 0; i < MAX_VAR_LONG_BYTES; i++) {
+            byte b = buf.readByte();
+            value |= (long) (b & 0x7F) << (i * 7);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarLong is longer than " + MAX_VAR_LONG_BYTES + " bytes");
+    }
+}
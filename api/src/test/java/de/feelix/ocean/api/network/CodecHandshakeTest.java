@@ -0,0 +1,94 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CodecHandshakeTest {
+    private static final ByteBufAllocator ALLOC = ByteBufAllocator.DEFAULT;
+
+    @Test
+    void requestRoundTrip() {
+        List<String> names = Arrays.asList("binary", "json");
+        ByteBuf request = CodecHandshake.writeRequest(ALLOC, names);
+        try {
+            assertEquals(names, CodecHandshake.readRequest(request));
+            assertFalse(request.isReadable());
+        } finally {
+            request.release();
+        }
+    }
+
+    @Test
+    void responseRoundTrip() {
+        for (String name : new String[]{"binary", null}) {
+            ByteBuf response = CodecHandshake.writeResponse(ALLOC, name);
+            try {
+                assertEquals(name, CodecHandshake.readResponse(response));
+            } finally {
+                response.release();
+            }
+        }
+    }
+
+    @Test
+    void selectsFirstKnownCodec() {
+        assertSame(PacketCodecs.JSON, CodecHandshake.select(Arrays.asList("unknown", null, "json", "binary")));
+        assertSame(PacketCodecs.BINARY, CodecHandshake.select(Arrays.asList("binary", "json")));
+        assertNull(CodecHandshake.select(Arrays.asList("unknown", "other")));
+        assertNull(CodecHandshake.select(Collections.emptyList()));
+    }
+
+    @Test
+    void rejectsFramesWithoutMagic() {
+        assertThrows(CorruptedFrameException.class, () -> CodecHandshake.readRequest(Unpooled.EMPTY_BUFFER));
+        assertThrows(CorruptedFrameException.class,
+            () -> CodecHandshake.readResponse(Unpooled.wrappedBuffer(new byte[]{0x00, 0x00})));
+    }
+
+    @Test
+    void rejectsTooManyCodecs() {
+        ByteBuf request = CodecHandshake.writeRequest(ALLOC, Collections.emptyList());
+        try {
+            request.writerIndex(1);
+            VarInt.writeVarInt(request, 17);
+            assertThrows(CorruptedFrameException.class, () -> CodecHandshake.readRequest(request));
+        } finally {
+            request.release();
+        }
+    }
+
+    @Test
+    void installCodecReplacesHandshakeStage() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast("handshake", new ChannelInboundHandlerAdapter());
+
+        CodecHandshake.installCodec(channel.pipeline(), "handshake", PacketCodecs.BINARY);
+
+        assertEquals(Arrays.asList(CodecHandshake.DECODER_NAME, CodecHandshake.ENCODER_NAME),
+            channel.pipeline().names().subList(0, 2));
+        assertSame(PacketCodecs.BINARY, channel.attr(CodecHandshake.CODEC_KEY).get());
+        assertSame(PacketCodecs.BINARY,
+            assertInstanceOf(PacketDecoder.class, channel.pipeline().get(CodecHandshake.DECODER_NAME)).getCodec());
+        assertSame(PacketCodecs.BINARY,
+            assertInstanceOf(PacketEncoder.class, channel.pipeline().get(CodecHandshake.ENCODER_NAME)).getCodec());
+        assertFalse(channel.finish());
+    }
+}
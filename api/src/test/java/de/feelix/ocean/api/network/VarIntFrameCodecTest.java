@@ -0,0 +1,186 @@
+package de.feelix.ocean.api.network;
+
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VarIntFrameCodecTest {
+    private static final int MAX_FRAME_LENGTH = 300;
+
+    @Test
+    void encoderPrefixesLength() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameEncoder(MAX_FRAME_LENGTH));
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(payload(200))));
+        ByteBuf header = channel.readOutbound();
+        ByteBuf body = channel.readOutbound();
+        try {
+            assertEquals(2, header.readableBytes());
+            assertEquals(200, VarInt.readVarInt(header));
+            assertArrayEquals(payload(200), bytes(body));
+        } finally {
+            header.release();
+            body.release();
+        }
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void encoderRejectsOversizeFrame() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameEncoder(MAX_FRAME_LENGTH));
+        ByteBuf oversize = Unpooled.wrappedBuffer(payload(MAX_FRAME_LENGTH + 1));
+
+        EncoderException e = assertThrows(EncoderException.class, () -> channel.writeOutbound(oversize));
+        assertInstanceOf(TooLongFrameException.class, e.getCause());
+        assertNull(channel.readOutbound());
+        assertEquals(0, oversize.refCnt());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void roundTripsEncodedFrames() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new VarIntFrameEncoder(MAX_FRAME_LENGTH));
+        EmbeddedChannel decoder = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+
+        for (int length : new int[]{0, 1, 127, 128, MAX_FRAME_LENGTH}) {
+            encoder.writeOutbound(Unpooled.wrappedBuffer(payload(length)));
+            for (ByteBuf part; (part = encoder.readOutbound()) != null; ) {
+                decoder.writeInbound(part);
+            }
+            assertFrame(decoder, payload(length));
+        }
+        assertFalse(encoder.finish());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void decodesFrameSplitAcrossReads() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+        ByteBuf frame = frame(payload(200));
+
+        // Feed one byte at a time, splitting both the two-byte header and the payload
+        while (frame.readableBytes() > 1) {
+            assertFalse(channel.writeInbound(frame.readRetainedSlice(1)));
+        }
+        assertTrue(channel.writeInbound(frame));
+        assertFrame(channel, payload(200));
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void decodesCoalescedFrames() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+        ByteBuf first = frame(payload(3));
+        ByteBuf second = frame(payload(0));
+        ByteBuf third = frame(payload(150));
+        ByteBuf partial = frame(payload(10));
+        ByteBuf coalesced = Unpooled.buffer()
+            .writeBytes(first).writeBytes(second).writeBytes(third).writeBytes(partial, 5);
+
+        assertTrue(channel.writeInbound(coalesced));
+        assertFrame(channel, payload(3));
+        assertFrame(channel, payload(0));
+        assertFrame(channel, payload(150));
+        assertNull(channel.readInbound());
+
+        // The rest of the partial frame completes it
+        assertTrue(channel.writeInbound(partial));
+        assertFrame(channel, payload(10));
+        assertFalse(channel.finish());
+        first.release();
+        second.release();
+        third.release();
+    }
+
+    @Test
+    void acceptsFrameOfExactlyMaxLength() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+
+        assertTrue(channel.writeInbound(frame(payload(MAX_FRAME_LENGTH))));
+        assertFrame(channel, payload(MAX_FRAME_LENGTH));
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void rejectsOversizeHeaderBeforePayloadArrives() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+        ByteBuf header = Unpooled.buffer();
+        VarInt.writeVarInt(header, MAX_FRAME_LENGTH + 1);
+
+        assertThrows(TooLongFrameException.class, () -> channel.writeInbound(header));
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void rejectsMalformedLengthPrefixes() {
+        // Six bytes with the continuation bit set
+        assertCorrupted(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01);
+        // Five bytes that overflow into the sign bit
+        assertCorrupted(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        // Five bytes with bits beyond the 32 an int holds
+        assertCorrupted(0x80, 0x80, 0x80, 0x80, 0x10);
+        assertCorrupted(0x81, 0x80, 0x80, 0x80, 0x70);
+    }
+
+    @Test
+    void rejectsLargestPositiveLength() {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+
+        assertThrows(TooLongFrameException.class,
+            () -> channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{-1, -1, -1, -1, 0x07})));
+        channel.finishAndReleaseAll();
+    }
+
+    private static void assertCorrupted(int... header) {
+        EmbeddedChannel channel = new EmbeddedChannel(new VarIntFrameDecoder(MAX_FRAME_LENGTH));
+        byte[] bytes = new byte[header.length];
+        for (int i = 0; i < header.length; i++) {
+            bytes[i] = (byte) header[i];
+        }
+
+        assertThrows(CorruptedFrameException.class, () -> channel.writeInbound(Unpooled.wrappedBuffer(bytes)));
+        channel.finishAndReleaseAll();
+    }
+
+    private static void assertFrame(EmbeddedChannel channel, byte[] expected) {
+        ByteBuf frame = channel.readInbound();
+        try {
+            assertArrayEquals(expected, bytes(frame));
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static ByteBuf frame(byte[] payload) {
+        ByteBuf frame = Unpooled.buffer();
+        VarInt.writeVarInt(frame, payload.length);
+        return frame.writeBytes(payload);
+    }
+
+    private static byte[] payload(int length) {
+        byte[] payload = new byte[length];
+        for (int i = 0; i < length; i++) {
+            payload[i] = (byte) (i * 31 + length);
+        }
+        return payload;
+    }
+
+    private static byte[] bytes(ByteBuf buf) {
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.getBytes(buf.readerIndex(), bytes);
+        return bytes;
+    }
+}
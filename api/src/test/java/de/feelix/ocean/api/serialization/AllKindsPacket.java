@@ -0,0 +1,131 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.validation.ValidationException;
+
+import java.util.Objects;
+
+/**
+ * Test packet with one field of every kind the codec processor supports.
+ */
+@GenerateCodec
+public class AllKindsPacket implements Packet {
+    static final PacketType TYPE = new PacketType(0x7F00, "TEST_ALL_KINDS_PACKET");
+
+    static {
+        PacketRegistry.register(TYPE, AllKindsPacket.class);
+    }
+
+    private final boolean flag;
+    private final byte smallNumber;
+    private final short mediumNumber;
+    private final char letter;
+    private final int number;
+    private final long bigNumber;
+    @VarEncoded
+    private final int varNumber;
+    @VarEncoded
+    private final long varBigNumber;
+    private final float ratio;
+    private final double precise;
+    private final String text;
+
+    AllKindsPacket(boolean flag, byte smallNumber, short mediumNumber, char letter, int number, long bigNumber,
+                   int varNumber, long varBigNumber, float ratio, double precise, String text) {
+        this.flag = flag;
+        this.smallNumber = smallNumber;
+        this.mediumNumber = mediumNumber;
+        this.letter = letter;
+        this.number = number;
+        this.bigNumber = bigNumber;
+        this.varNumber = varNumber;
+        this.varBigNumber = varBigNumber;
+        this.ratio = ratio;
+        this.precise = precise;
+        this.text = text;
+    }
+
+    boolean isFlag() {
+        return flag;
+    }
+
+    byte getSmallNumber() {
+        return smallNumber;
+    }
+
+    short getMediumNumber() {
+        return mediumNumber;
+    }
+
+    char getLetter() {
+        return letter;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    long getBigNumber() {
+        return bigNumber;
+    }
+
+    int getVarNumber() {
+        return varNumber;
+    }
+
+    long getVarBigNumber() {
+        return varBigNumber;
+    }
+
+    float getRatio() {
+        return ratio;
+    }
+
+    double getPrecise() {
+        return precise;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    @Override
+    public PacketType getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        // Every value is valid
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AllKindsPacket)) {
+            return false;
+        }
+        AllKindsPacket that = (AllKindsPacket) o;
+        return flag == that.flag && smallNumber == that.smallNumber && mediumNumber == that.mediumNumber
+            && letter == that.letter && number == that.number && bigNumber == that.bigNumber
+            && varNumber == that.varNumber && varBigNumber == that.varBigNumber
+            && Float.compare(ratio, that.ratio) == 0 && Double.compare(precise, that.precise) == 0
+            && Objects.equals(text, that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(flag, smallNumber, mediumNumber, letter, number, bigNumber, varNumber, varBigNumber,
+            ratio, precise, text);
+    }
+
+    @Override
+    public String toString() {
+        return "AllKindsPacket{flag=" + flag + ", smallNumber=" + smallNumber + ", mediumNumber=" + mediumNumber
+            + ", letter=" + letter + ", number=" + number + ", bigNumber=" + bigNumber + ", varNumber=" + varNumber
+            + ", varBigNumber=" + varBigNumber + ", ratio=" + ratio + ", precise=" + precise + ", text=" + text + "}";
+    }
+}
@@ -0,0 +1,132 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.network.PacketDecoder;
+import de.feelix.ocean.api.network.PacketEncoder;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.util.VarInt;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryPacketCodecTest {
+    private static final int FORMAT_SCHEMA = 0;
+    private static final int FORMAT_JSON = 1;
+
+    @Test
+    void schemaBodyRoundTrip() {
+        AllKindsPacket packet = new AllKindsPacket(true, (byte) -3, (short) 512, 'q', -7, 1L << 40, 1 << 20,
+            -5L, 0.25f, -2.5, null);
+        EmbeddedChannel channel = newChannel();
+
+        ByteBuf frame = encode(channel, packet);
+        assertEquals(AllKindsPacket.TYPE.getId(), VarInt.readVarInt(frame.duplicate()));
+        assertEquals(FORMAT_SCHEMA, frame.getByte(VarInt.varIntSize(AllKindsPacket.TYPE.getId())));
+
+        assertEquals(packet, decode(channel, frame));
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void builtInPacketRoundTrip() {
+        OutPacket packet = OutPacket.Builder.error(42L, 7, "failed");
+        EmbeddedChannel channel = newChannel();
+
+        OutPacket decoded = (OutPacket) decode(channel, encode(channel, packet));
+        assertEquals(42L, decoded.getTransactionId());
+        assertFalse(decoded.isSuccess());
+        assertEquals(7, decoded.getErrorCode());
+        assertEquals("failed", decoded.getErrorMessage());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void jsonBodyRoundTrip() {
+        SchemalessPacket packet = new SchemalessPacket("n\u00e4me", 3);
+        EmbeddedChannel channel = newChannel();
+
+        ByteBuf frame = encode(channel, packet);
+        int headerLength = VarInt.varIntSize(SchemalessPacket.TYPE.getId());
+        assertEquals(FORMAT_JSON, frame.getByte(headerLength));
+        assertEquals("{\"name\":\"n\u00e4me\",\"count\":3}",
+            frame.toString(headerLength + 1, frame.readableBytes() - headerLength - 1, StandardCharsets.UTF_8));
+
+        assertEquals(packet, decode(channel, frame));
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void encoderValidatesPackets() {
+        EmbeddedChannel channel = newChannel();
+
+        EncoderException e = assertThrows(EncoderException.class,
+            () -> channel.writeOutbound(new SchemalessPacket("invalid", -1)));
+        assertEquals("Count cannot be negative", e.getCause().getMessage());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void rejectsUnknownTypeId() {
+        ByteBuf frame = Unpooled.buffer();
+        VarInt.writeVarInt(frame, PacketType.MAX_ID);
+        frame.writeByte(FORMAT_SCHEMA);
+
+        assertDecodeFails(IllegalArgumentException.class, frame);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        ByteBuf frame = Unpooled.buffer();
+        VarInt.writeVarInt(frame, AllKindsPacket.TYPE.getId());
+        frame.writeByte(2);
+
+        assertDecodeFails(IOException.class, frame);
+    }
+
+    @Test
+    void rejectsSchemaBodyWithoutSchema() {
+        ByteBuf frame = Unpooled.buffer();
+        VarInt.writeVarInt(frame, SchemalessPacket.TYPE.getId());
+        frame.writeByte(FORMAT_SCHEMA);
+
+        assertDecodeFails(IOException.class, frame);
+    }
+
+    private static void assertDecodeFails(Class<? extends Throwable> cause, ByteBuf frame) {
+        EmbeddedChannel channel = newChannel();
+
+        DecoderException e = assertThrows(DecoderException.class, () -> channel.writeInbound(frame));
+        assertInstanceOf(cause, e.getCause());
+        assertEquals(0, frame.refCnt());
+        assertFalse(channel.finish());
+    }
+
+    private static EmbeddedChannel newChannel() {
+        // Load the test packets so that their types are registered before any frame is decoded
+        AllKindsPacket.TYPE.getId();
+        SchemalessPacket.TYPE.getId();
+        return new EmbeddedChannel(new PacketEncoder(PacketCodecs.BINARY), new PacketDecoder(PacketCodecs.BINARY));
+    }
+
+    private static ByteBuf encode(EmbeddedChannel channel, Packet packet) {
+        channel.writeOutbound(packet);
+        return channel.readOutbound();
+    }
+
+    private static Packet decode(EmbeddedChannel channel, ByteBuf frame) {
+        channel.writeInbound(frame);
+        return channel.readInbound();
+    }
+}
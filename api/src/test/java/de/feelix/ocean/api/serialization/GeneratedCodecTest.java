@@ -0,0 +1,139 @@
+package de.feelix.ocean.api.serialization;
+
+import com.google.gson.JsonSyntaxException;
+import de.feelix.ocean.api.packet.Packet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratedCodecTest {
+    private static final AllKindsPacket TYPICAL = new AllKindsPacket(true, (byte) 7, (short) 1_000, 'x', 123_456,
+        9_876_543_210L, 300, 70_000L, 1.5f, Math.PI, "h\u00e9llo w\u00f6rld \u2713 \ud83c\udf0a");
+    private static final AllKindsPacket MAXIMUM = new AllKindsPacket(true, Byte.MAX_VALUE, Short.MAX_VALUE,
+        Character.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Float.MAX_VALUE,
+        Double.MAX_VALUE, "");
+    private static final AllKindsPacket MINIMUM = new AllKindsPacket(false, Byte.MIN_VALUE, Short.MIN_VALUE,
+        Character.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE, -Float.MIN_VALUE,
+        -Double.MIN_VALUE, null);
+
+    private final AllKindsPacketCodec codec = new AllKindsPacketCodec();
+
+    @Test
+    void generatedCodecIsRegisteredAsSchema() {
+        assertSame(AllKindsPacket.class, codec.getPacketClass());
+        assertSame(AllKindsPacket.class, PacketRegistry.getPacketClass(AllKindsPacket.TYPE));
+        assertEquals(AllKindsPacketCodec.class, PacketRegistry.getSchema(AllKindsPacket.TYPE).getClass());
+        assertEquals(AllKindsPacketCodec.class, PacketRegistry.getGeneratedCodec(AllKindsPacket.class).getClass());
+    }
+
+    @Test
+    void binaryRoundTrip() {
+        for (AllKindsPacket packet : new AllKindsPacket[]{TYPICAL, MAXIMUM, MINIMUM}) {
+            ByteBuf buf = Unpooled.buffer();
+            try {
+                codec.write(packet, buf);
+                assertEquals(packet, codec.read(buf));
+                assertFalse(buf.isReadable(), "trailing bytes after " + packet);
+            } finally {
+                buf.release();
+            }
+        }
+    }
+
+    @Test
+    void varEncodedFieldsUseVarInts() {
+        AllKindsPacket small = new AllKindsPacket(false, (byte) 0, (short) 0, 'a', 0, 0L, 1, 1L, 0f, 0d, "");
+        AllKindsPacket large = new AllKindsPacket(false, (byte) 0, (short) 0, 'a', 0, 0L, -1, -1L, 0f, 0d, "");
+
+        // Varints take 1 byte for 1 and 5 or 10 bytes for -1; fixed-width fields do not change size
+        assertEquals(13, encodedSize(large) - encodedSize(small));
+    }
+
+    @Test
+    void jsonRoundTrip() throws IOException {
+        for (AllKindsPacket packet : new AllKindsPacket[]{TYPICAL, MAXIMUM, MINIMUM}) {
+            assertEquals(packet, codec.fromJson(codec.toJson(packet)));
+        }
+        assertNull(codec.fromJson(codec.toJson(null)));
+    }
+
+    @Test
+    void jsonWritesNullString() {
+        assertTrue(codec.toJson(MINIMUM).contains("\"text\":null"));
+    }
+
+    @Test
+    void jsonSkipsUnknownFieldsAndDefaultsMissingOnes() throws IOException {
+        AllKindsPacket packet = codec.fromJson("{\"extra\":{\"nested\":[1,2]},\"number\":5,\"text\":\"t\"}");
+
+        assertEquals(new AllKindsPacket(false, (byte) 0, (short) 0, '\0', 5, 0L, 0, 0L, 0f, 0d, "t"), packet);
+    }
+
+    @Test
+    void jsonRejectsMalformedValues() {
+        assertThrows(JsonSyntaxException.class, () -> codec.fromJson("{\"smallNumber\":256}"));
+        assertThrows(JsonSyntaxException.class, () -> codec.fromJson("{\"mediumNumber\":-32769}"));
+        assertThrows(JsonSyntaxException.class, () -> codec.fromJson("{\"letter\":\"\"}"));
+        assertThrows(JsonSyntaxException.class, () -> codec.fromJson("{\"letter\":\"ab\"}"));
+        assertThrows(NumberFormatException.class, () -> codec.fromJson("{\"number\":\"many\"}"));
+        assertThrows(NumberFormatException.class, () -> codec.fromJson("{\"varNumber\":1.5}"));
+        assertThrows(IllegalStateException.class, () -> codec.fromJson("{\"flag\":1}"));
+        assertThrows(IllegalStateException.class, () -> codec.fromJson("{\"text\":[]}"));
+        assertThrows(IOException.class, () -> codec.fromJson("{\"number\":1"));
+    }
+
+    @Test
+    void jsonAcceptsUnsignedByteAndShort() throws IOException {
+        AllKindsPacket packet = codec.fromJson("{\"smallNumber\":200,\"mediumNumber\":65535}");
+
+        assertEquals((byte) 200, packet.getSmallNumber());
+        assertEquals((short) -1, packet.getMediumNumber());
+    }
+
+    @Test
+    void roundTripThroughPacketCodecs() throws IOException {
+        for (PacketCodec packetCodec : new PacketCodec[]{new BinaryPacketCodec(), new JsonPacketCodec()}) {
+            for (AllKindsPacket packet : new AllKindsPacket[]{TYPICAL, MAXIMUM, MINIMUM}) {
+                ByteBuf buf = Unpooled.buffer();
+                try {
+                    packetCodec.encode(packet, buf);
+                    Packet decoded = packetCodec.decode(buf);
+                    assertEquals(packet, decoded, packetCodec.getName());
+                } finally {
+                    buf.release();
+                }
+            }
+        }
+    }
+
+    @Test
+    void envelopeRejectsMalformedData() {
+        String json = "{\"type\":\"TEST_ALL_KINDS_PACKET\",\"data\":{\"smallNumber\":1000}}";
+        ByteBuf buf = Unpooled.copiedBuffer(json, StandardCharsets.UTF_8);
+        try {
+            assertThrows(JsonSyntaxException.class, () -> new JsonPacketCodec().decode(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    private int encodedSize(AllKindsPacket packet) {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            codec.write(packet, buf);
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package de.feelix.ocean.api.serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.packet.SimpleInPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes allocated per JSON round trip of a small packet, comparing the streamed envelope
+ * of {@link PacketSerializer} with the tree-based envelope it replaced.
+ * Both use the same generated codec for the packet fields, so only the handling of the envelope differs.
+ * It is a benchmark and only runs with the {@code benchmark} task.
+ */
+@Tag("benchmark")
+class PacketSerializerAllocationTest {
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+    private static final Gson TREE_GSON = new Gson();
+
+    private final SimpleInPacket packet = new SimpleInPacket(123_456_789L, "Hello, server!");
+    private final ByteBuf buf = Unpooled.buffer(256);
+
+    @Test
+    void streamingAllocatesLessThanTree() throws IOException {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported(), "allocation counting unavailable");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Both paths must produce the same bytes for the comparison to be fair
+        assertEquals(treeSerialize(packet), streamSerialize());
+
+        double tree = bytesPerRoundTrip(threads, this::treeRoundTrip);
+        double streaming = bytesPerRoundTrip(threads, this::streamRoundTrip);
+
+        assertTrue(streaming < tree * 0.75, "JSON round trip of SimpleInPacket: streaming " + streaming
+            + " B vs tree " + tree + " B");
+    }
+
+    private double bytesPerRoundTrip(com.sun.management.ThreadMXBean threads, RoundTrip roundTrip)
+        throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            roundTrip.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            roundTrip.run();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / (double) ITERATIONS;
+    }
+
+    private void streamRoundTrip() throws IOException {
+        buf.clear();
+        PacketSerializer.serialize(packet, buf);
+        check(PacketSerializer.deserialize(buf));
+    }
+
+    private void treeRoundTrip() {
+        buf.clear();
+        ByteBufUtil.writeUtf8(buf, treeSerialize(packet));
+        check(treeDeserialize(buf.toString(StandardCharsets.UTF_8)));
+    }
+
+    private String streamSerialize() throws IOException {
+        buf.clear();
+        PacketSerializer.serialize(packet, buf);
+        return buf.toString(StandardCharsets.UTF_8);
+    }
+
+    private void check(Packet decoded) {
+        if (((SimpleInPacket) decoded).getTransactionId() != packet.getTransactionId()) {
+            throw new AssertionError("Round trip changed the packet: " + decoded);
+        }
+    }
+
+    /**
+     * The envelope as it used to be written: a JsonObject holding the packet fields as a tree.
+     */
+    private static String treeSerialize(Packet packet) {
+        packet.validate();
+        JsonObject json = new JsonObject();
+        json.addProperty("type", packet.getType().getIdentifier());
+        json.add("data", adapter(packet.getClass()).toJsonTree(packet));
+        return TREE_GSON.toJson(json);
+    }
+
+    /**
+     * The envelope as it used to be read: the whole document parsed into a tree first.
+     */
+    private static Packet treeDeserialize(String json) {
+        JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+        PacketType type = PacketTypeRegistry.fromIdentifier(object.get("type").getAsString());
+        return adapter(PacketRegistry.getPacketClass(type)).fromJsonTree(object.get("data"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeAdapter<Packet> adapter(Class<? extends Packet> packetClass) {
+        return (TypeAdapter<Packet>) (TypeAdapter<?>) PacketRegistry.getGeneratedCodec(packetClass);
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        try {
+            return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        } catch (ClassCastException | LinkageError e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RoundTrip {
+        void run() throws IOException;
+    }
+}
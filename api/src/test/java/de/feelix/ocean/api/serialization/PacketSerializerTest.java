@@ -0,0 +1,139 @@
+package de.feelix.ocean.api.serialization;
+
+import com.google.gson.JsonSyntaxException;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.SimpleInPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PacketSerializerTest {
+    private static final AllKindsPacket ALL_KINDS = new AllKindsPacket(true, (byte) -1, (short) 300, '\u00df', 42,
+        -42L, 1 << 30, Long.MIN_VALUE, 3.5f, 1e-300, "\"quoted\" <tag> \ud83c\udf0a");
+
+    @Test
+    void stringRoundTrip() {
+        String json = PacketSerializer.serialize(ALL_KINDS);
+
+        assertEquals(ALL_KINDS, PacketSerializer.deserialize(json));
+    }
+
+    @Test
+    void bufferRoundTrip() throws IOException {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            PacketSerializer.serialize(ALL_KINDS, buf);
+            assertEquals(PacketSerializer.serialize(ALL_KINDS), buf.toString(StandardCharsets.UTF_8));
+            assertEquals(ALL_KINDS, PacketSerializer.deserialize(buf));
+            assertFalse(buf.isReadable());
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    void writesTypeBeforeData() {
+        String json = PacketSerializer.serialize(new SimpleInPacket(5L, "hi"));
+
+        assertEquals("{\"type\":\"SIMPLE_IN_PACKET\",\"data\":{\"transactionId\":5,\"message\":\"hi\"}}", json);
+    }
+
+    @Test
+    void readsDataBeforeType() throws IOException {
+        String json = moveDataBeforeType(PacketSerializer.serialize(ALL_KINDS));
+
+        assertEquals(ALL_KINDS, PacketSerializer.deserialize(json));
+        ByteBuf buf = Unpooled.copiedBuffer(json, StandardCharsets.UTF_8);
+        try {
+            assertEquals(ALL_KINDS, PacketSerializer.deserialize(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    void readsDataBeforeTypeWithoutGeneratedCodec() {
+        SchemalessPacket packet = new SchemalessPacket("reflective", 9);
+        String json = moveDataBeforeType(PacketSerializer.serialize(packet));
+
+        assertEquals(packet, PacketSerializer.deserialize(json));
+    }
+
+    @Test
+    void skipsUnknownEnvelopeFields() {
+        Packet packet = PacketSerializer.deserialize("{\"version\":[1,{\"a\":null}],\"data\":"
+            + "{\"transactionId\":7,\"response\":\"ok\",\"success\":true,\"errorCode\":0},\"extra\":true,"
+            + "\"type\":\"OUT_PACKET\"}");
+
+        OutPacket outPacket = (OutPacket) packet;
+        assertEquals(7L, outPacket.getTransactionId());
+        assertEquals("ok", outPacket.getResponse());
+    }
+
+    @Test
+    void rejectsMalformedBufferedData() {
+        String json = moveDataBeforeType(PacketSerializer.serialize(ALL_KINDS)).replace("\"smallNumber\":-1",
+            "\"smallNumber\":1000");
+
+        assertThrows(JsonSyntaxException.class, () -> PacketSerializer.deserialize(json));
+    }
+
+    @Test
+    void rejectsUnknownOrMissingType() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PacketSerializer.deserialize("{\"type\":\"TEST_UNKNOWN_PACKET\",\"data\":{}}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> PacketSerializer.deserialize("{\"data\":{\"transactionId\":1}}"));
+    }
+
+    @Test
+    void rejectsOverlongUtf8() {
+        // '/' as two bytes and as three bytes
+        assertRejectsMessageBytes((byte) 0xC0, (byte) 0xAF);
+        assertRejectsMessageBytes((byte) 0xE0, (byte) 0x80, (byte) 0xAF);
+    }
+
+    @Test
+    void rejectsEncodedSurrogates() {
+        // The high surrogate U+D800 and the low surrogate U+DFFF encoded on their own
+        assertRejectsMessageBytes((byte) 0xED, (byte) 0xA0, (byte) 0x80);
+        assertRejectsMessageBytes((byte) 0xED, (byte) 0xBF, (byte) 0xBF);
+    }
+
+    /**
+     * Asserts that a packet whose message consists of the specified bytes cannot be read from a buffer.
+     */
+    private static void assertRejectsMessageBytes(byte... message) {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            buf.writeCharSequence("{\"type\":\"SIMPLE_IN_PACKET\",\"data\":{\"transactionId\":1,\"message\":\"",
+                StandardCharsets.UTF_8);
+            buf.writeBytes(message);
+            buf.writeCharSequence("\"}}", StandardCharsets.UTF_8);
+            assertThrows(CharConversionException.class, () -> PacketSerializer.deserialize(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * Rewrites a serialized envelope so that its data comes before its type.
+     */
+    private static String moveDataBeforeType(String json) {
+        int dataStart = json.indexOf(",\"data\":");
+        String type = json.substring(1, dataStart);
+        String data = json.substring(dataStart + 1, json.length() - 1);
+        String reordered = "{" + data + "," + type + "}";
+        assertEquals(json.length(), reordered.length());
+        return reordered;
+    }
+}
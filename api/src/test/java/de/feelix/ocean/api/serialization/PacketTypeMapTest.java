@@ -0,0 +1,115 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.PacketType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PacketTypeMapTest {
+
+    @Test
+    void emptyMapReturnsNull() {
+        PacketTypeMap<String> map = new PacketTypeMap<>();
+
+        assertNull(map.get(0));
+        assertNull(map.get(-1));
+        assertNull(map.get(PacketType.OUT_PACKET));
+    }
+
+    @Test
+    void putReplacesAndRemoves() {
+        PacketTypeMap<String> map = new PacketTypeMap<>();
+        PacketType type = new PacketType(3, "A");
+
+        assertNull(map.put(type, "first"));
+        assertEquals("first", map.put(type, "second"));
+        assertEquals("second", map.get(3));
+        assertEquals("second", map.remove(type));
+        assertNull(map.get(type));
+        assertNull(map.remove(type));
+        assertNull(map.remove(new PacketType(100, "B")));
+    }
+
+    @Test
+    void keepsEntriesWhenGrowing() {
+        PacketTypeMap<Integer> map = new PacketTypeMap<>();
+
+        map.put(new PacketType(5, "A"), 5);
+        map.put(new PacketType(2, "B"), 2);
+        map.put(new PacketType(PacketType.MAX_ID, "C"), PacketType.MAX_ID);
+        map.put(new PacketType(1000, "D"), 1000);
+
+        assertEquals(5, map.get(5));
+        assertEquals(2, map.get(2));
+        assertEquals(PacketType.MAX_ID, map.get(PacketType.MAX_ID));
+        assertEquals(1000, map.get(1000));
+        assertNull(map.get(3));
+        assertNull(map.get(999));
+        assertNull(map.get(PacketType.MAX_ID + 1));
+    }
+
+    @Test
+    void readersSeeEveryEntryWhileTheMapGrows() throws Exception {
+        PacketTypeMap<Integer> map = new PacketTypeMap<>();
+        AtomicInteger written = new AtomicInteger(-1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        int count = 2000;
+
+        Thread writer = new Thread(() -> {
+            awaitQuietly(start);
+            for (int id = 0; id < count; id++) {
+                map.put(new PacketType(id, "TYPE_" + id), id);
+                written.set(id);
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                awaitQuietly(start);
+                try {
+                    // Every entry put before the last one seen must still be there, whichever copy is read
+                    for (int last = written.get(); last < count - 1; last = written.get()) {
+                        for (int id = 0; id <= last; id++) {
+                            Integer value = map.get(id);
+                            if (value == null || value != id) {
+                                throw new AssertionError("ID " + id + " mapped to " + value + " after " + last);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        start.countDown();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        for (int id = 0; id < count; id++) {
+            assertEquals(id, map.get(id));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.PacketType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacketTypeRegistryTest {
+
+    @Test
+    void resolvesBuiltInTypes() {
+        assertSame(PacketType.OUT_PACKET, PacketTypeRegistry.fromId(0));
+        assertSame(PacketType.PONG_PACKET, PacketTypeRegistry.fromIdentifier("PONG_PACKET"));
+        assertTrue(PacketTypeRegistry.getAll().contains(PacketType.PING_PACKET));
+    }
+
+    @Test
+    void registersAndResolvesNewType() {
+        PacketType type = PacketTypeRegistry.register(0x7E00, "TEST_REGISTERED_PACKET");
+
+        assertSame(type, PacketTypeRegistry.fromId(0x7E00));
+        assertSame(type, PacketTypeRegistry.fromIdentifier("TEST_REGISTERED_PACKET"));
+        assertSame(type, PacketType.fromId(0x7E00));
+        // Registering the same instance again has no effect
+        assertSame(type, PacketTypeRegistry.register(type));
+    }
+
+    @Test
+    void rejectsDuplicateId() {
+        PacketType type = PacketTypeRegistry.register(0x7E01, "TEST_DUPLICATE_ID_PACKET");
+
+        assertThrows(IllegalArgumentException.class, () -> PacketTypeRegistry.register(0x7E01, "TEST_OTHER_PACKET"));
+        assertThrows(IllegalArgumentException.class, () -> PacketTypeRegistry.register(0, "TEST_OTHER_PACKET"));
+        // An equal but distinct instance is a duplicate as well
+        assertThrows(IllegalArgumentException.class,
+            () -> PacketTypeRegistry.register(0x7E01, "TEST_DUPLICATE_ID_PACKET"));
+        assertSame(type, PacketTypeRegistry.fromId(0x7E01));
+        assertNull(PacketTypeRegistry.fromIdentifier("TEST_OTHER_PACKET"));
+    }
+
+    @Test
+    void rejectsDuplicateIdentifier() {
+        PacketType type = PacketTypeRegistry.register(0x7E02, "TEST_DUPLICATE_IDENTIFIER_PACKET");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> PacketTypeRegistry.register(0x7E03, "TEST_DUPLICATE_IDENTIFIER_PACKET"));
+        assertThrows(IllegalArgumentException.class, () -> PacketTypeRegistry.register(0x7E04, "OUT_PACKET"));
+        assertSame(type, PacketTypeRegistry.fromIdentifier("TEST_DUPLICATE_IDENTIFIER_PACKET"));
+        assertNull(PacketTypeRegistry.fromId(0x7E03));
+        assertNull(PacketTypeRegistry.fromId(0x7E04));
+    }
+
+    @Test
+    void rejectsOutOfRangeIds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PacketTypeRegistry.register(PacketType.MAX_ID + 1, "TEST_TOO_LARGE_PACKET"));
+        assertThrows(IllegalArgumentException.class, () -> PacketTypeRegistry.register(-1, "TEST_NEGATIVE_PACKET"));
+        assertThrows(IllegalArgumentException.class, () -> new PacketType(1, ""));
+        assertThrows(IllegalArgumentException.class, () -> new PacketType(1, null));
+        assertNull(PacketTypeRegistry.fromIdentifier("TEST_TOO_LARGE_PACKET"));
+    }
+
+    @Test
+    void acceptsLargestId() {
+        PacketType type = PacketTypeRegistry.register(PacketType.MAX_ID, "TEST_LARGEST_ID_PACKET");
+
+        assertSame(type, PacketTypeRegistry.fromId(PacketType.MAX_ID));
+        assertSame(PacketType.OUT_PACKET, PacketTypeRegistry.fromId(0));
+    }
+
+    @Test
+    void unknownLookupsReturnNull() {
+        assertNull(PacketTypeRegistry.fromId(-1));
+        assertNull(PacketTypeRegistry.fromId(PacketType.MAX_ID + 1));
+        assertNull(PacketTypeRegistry.fromId(Integer.MAX_VALUE));
+        assertNull(PacketTypeRegistry.fromIdentifier(null));
+        assertNull(PacketTypeRegistry.fromIdentifier("TEST_UNKNOWN_PACKET"));
+    }
+}
@@ -0,0 +1,60 @@
+package de.feelix.ocean.api.serialization;
+
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.validation.ValidationException;
+
+import java.util.Objects;
+
+/**
+ * Test packet without a generated codec, so the binary codec falls back to JSON for its body.
+ */
+public class SchemalessPacket implements Packet {
+    static final PacketType TYPE = new PacketType(0x7F01, "TEST_SCHEMALESS_PACKET");
+
+    static {
+        PacketRegistry.register(TYPE, SchemalessPacket.class);
+    }
+
+    private final String name;
+    private final int count;
+
+    SchemalessPacket(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    @Override
+    public PacketType getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void validate() throws ValidationException {
+        if (count < 0) {
+            throw new ValidationException("Count cannot be negative");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SchemalessPacket)) {
+            return false;
+        }
+        SchemalessPacket that = (SchemalessPacket) o;
+        return count == that.count && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, count);
+    }
+
+    @Override
+    public String toString() {
+        return "SchemalessPacket{name=" + name + ", count=" + count + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package de.feelix.ocean.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty channel handler that delays flushes to send bursts of small packets together.
+ * A flush is passed on once the batch size is reached, or else when the batch window has passed since the
+ * first unflushed write. Packets written within the window thus leave in a single write to the socket
+ * instead of one each. All state is confined to the channel's event loop.
+ */
+public class BatchFlushHandler extends ChannelOutboundHandlerAdapter {
+    private final long windowNanos;
+    private final int batchSize;
+    private int unflushedWrites;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Creates a new BatchFlushHandler.
+     *
+     * @param windowNanos The longest time a write waits for its flush in nanoseconds
+     * @param batchSize The number of writes after which a flush is passed on immediately
+     */
+    public BatchFlushHandler(long windowNanos, int batchSize) {
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Batch window must be positive: " + windowNanos);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.windowNanos = windowNanos;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        unflushedWrites++;
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (unflushedWrites >= batchSize) {
+            flushNow(ctx);
+        } else if (scheduledFlush == null && unflushedWrites > 0) {
+            scheduledFlush = ctx.executor().schedule(() -> flushNow(ctx), windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        // Send what has been written before the connection goes away
+        flushNow(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        flushNow(ctx);
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (unflushedWrites > 0) {
+            unflushedWrites = 0;
+            ctx.flush();
+        }
+    }
+}
@@ -46,7 +46,7 @@ public class ClientApplication {
             String input;
             while (!(input = scanner.nextLine()).equalsIgnoreCase("exit")) {
                 // Generate a transaction ID
-                String transactionId = TransactionIdGenerator.generateId();
+                long transactionId = TransactionIdGenerator.generateId();
                 
                 // Create and send a packet
                 SimpleInPacket packet = new SimpleInPacket(transactionId, input);
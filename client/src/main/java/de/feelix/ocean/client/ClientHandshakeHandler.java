@@ -0,0 +1,72 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Netty channel handler for the client side of the codec handshake.
+ * It offers the client's codecs when the connection becomes active and installs the codec the server picked.
+ */
+public class ClientHandshakeHandler extends SimpleChannelInboundHandler<ByteBuf> {
+    private final List<String> codecNames;
+    private final CompletableFuture<PacketCodec> handshakeFuture = new CompletableFuture<>();
+
+    /**
+     * Creates a new ClientHandshakeHandler offering the specified codecs.
+     *
+     * @param codecNames The codec names in order of preference
+     */
+    public ClientHandshakeHandler(List<String> codecNames) {
+        this.codecNames = codecNames;
+    }
+
+    /**
+     * Gets the future that is completed with the negotiated codec.
+     *
+     * @return The handshake future
+     */
+    public CompletableFuture<PacketCodec> handshakeFuture() {
+        return handshakeFuture;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        ctx.writeAndFlush(CodecHandshake.writeRequest(ctx.alloc(), codecNames));
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+        String codecName = CodecHandshake.readResponse(msg);
+        PacketCodec codec = codecName != null ? PacketCodecs.get(codecName) : null;
+
+        if (codec == null) {
+            handshakeFuture.completeExceptionally(
+                new IllegalStateException("Server did not accept any of the offered codecs: " + codecNames));
+            ctx.close();
+            return;
+        }
+
+        CodecHandshake.installCodec(ctx.pipeline(), ctx.name(), codec);
+        handshakeFuture.complete(codec);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        handshakeFuture.completeExceptionally(new IllegalStateException("Connection closed during handshake"));
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        handshakeFuture.completeExceptionally(cause);
+        ctx.fireExceptionCaught(cause);
+    }
+}
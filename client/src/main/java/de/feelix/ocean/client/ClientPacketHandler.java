@@ -1,14 +1,19 @@
 package de.feelix.ocean.client;
 
 import de.feelix.ocean.api.packet.OutPacket;
-import de.feelix.ocean.api.serialization.PacketSerializer;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.PingPacket;
+import de.feelix.ocean.api.packet.PongPacket;
+import de.feelix.ocean.api.packet.TopicMessagePacket;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
 /**
- * Netty channel handler for processing responses from the server.
+ * Netty channel handler for processing responses and topic messages from the server.
+ * Heartbeat pings from the server are answered automatically, and any other packet is passed to the
+ * client's {@link PacketListener}.
  */
-public class ClientPacketHandler extends SimpleChannelInboundHandler<String> {
+public class ClientPacketHandler extends SimpleChannelInboundHandler<Packet> {
     private final NettyClient client;
     
     /**
@@ -21,13 +26,19 @@ public class ClientPacketHandler extends SimpleChannelInboundHandler<String> {
     }
     
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, String msg) {
+    protected void channelRead0(ChannelHandlerContext ctx, Packet packet) {
         try {
-            // Deserialize the response packet
-            OutPacket outPacket = (OutPacket) PacketSerializer.deserialize(msg);
-            
-            // Handle the response
-            client.handleResponse(outPacket);
+            if (packet instanceof OutPacket) {
+                // Handle the response
+                client.handleResponse((OutPacket) packet);
+            } else if (packet instanceof PingPacket) {
+                // Answer heartbeats so the server does not consider the connection dead
+                ctx.writeAndFlush(new PongPacket(((PingPacket) packet).getPayload()));
+            } else if (packet instanceof TopicMessagePacket) {
+                client.handleTopicMessage((TopicMessagePacket) packet);
+            } else {
+                client.handlePushedPacket(packet);
+            }
         } catch (Exception e) {
             System.err.println("Error processing response: " + e.getMessage());
             e.printStackTrace();
@@ -43,7 +54,6 @@ public class ClientPacketHandler extends SimpleChannelInboundHandler<String> {
     
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
-        System.out.println("Disconnected from server");
-        client.shutdown();
+        client.handleDisconnect(ctx.channel());
     }
 }
\ No newline at end of file
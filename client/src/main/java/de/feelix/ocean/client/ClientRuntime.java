@@ -0,0 +1,158 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.client.config.ClientConfig;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NettyRuntime;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared event loop group for many clients.
+ * Every {@link NettyClient} that is not created by a runtime gets an event loop group of its own, so an
+ * application with many clients would otherwise end up with many mostly idle I/O threads. Clients created
+ * by a runtime all run on its group instead; each connection is bound to one of its threads.
+ * The runtime is reference counted: the runtime itself and every connected client hold one reference, and
+ * the group is shut down once {@link #shutdown()} has been called and the last client has shut down.
+ */
+public class ClientRuntime {
+    private final TransportType transport;
+    private final EventLoopGroup group;
+    private final AtomicInteger referenceCount = new AtomicInteger(1);
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    /**
+     * Creates a new ClientRuntime with the best available transport and one thread per available processor.
+     */
+    public ClientRuntime() {
+        this(TransportType.AUTO, NettyRuntime.availableProcessors());
+    }
+
+    /**
+     * Creates a new ClientRuntime with the specified transport and number of threads.
+     * The threads are started on demand, as connections are assigned to them.
+     *
+     * @param transportType The transport type, which overrides the transport type of the client configurations
+     * @param threads The number of event loop threads
+     * @throws IllegalStateException if the transport is not available on this platform
+     */
+    public ClientRuntime(TransportType transportType, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+        this.transport = transportType.resolve();
+        this.group = transport.newEventLoopGroup(threads);
+    }
+
+    /**
+     * Gets the concrete transport used by this runtime.
+     *
+     * @return The transport
+     */
+    public TransportType getTransport() {
+        return transport;
+    }
+
+    /**
+     * Gets the event loop group shared by the clients.
+     *
+     * @return The event loop group
+     */
+    EventLoopGroup eventLoopGroup() {
+        return group;
+    }
+
+    /**
+     * Creates a new client on this runtime with the default configuration.
+     *
+     * @param host The server host
+     * @param port The server port
+     * @return The new client, which still has to be connected
+     */
+    public NettyClient newClient(String host, int port) {
+        return newClient(host, port, new ClientConfig());
+    }
+
+    /**
+     * Creates a new client on this runtime.
+     *
+     * @param host The server host
+     * @param port The server port
+     * @param config The client configuration
+     * @return The new client, which still has to be connected
+     */
+    public NettyClient newClient(String host, int port, ClientConfig config) {
+        return new NettyClient(host, port, config, this, false);
+    }
+
+    /**
+     * Creates a new connection pool on this runtime.
+     *
+     * @param servers The server addresses
+     * @param connectionsPerServer The number of connections to each server
+     * @param config The configuration used for every connection
+     * @return The new pool, which still has to be connected
+     */
+    public NettyClientPool newPool(List<InetSocketAddress> servers, int connectionsPerServer, ClientConfig config) {
+        return new NettyClientPool(servers, connectionsPerServer, config, this);
+    }
+
+    /**
+     * Gets the number of references held on this runtime, including its own until it is shut down.
+     *
+     * @return The reference count
+     */
+    public int getReferenceCount() {
+        return referenceCount.get();
+    }
+
+    /**
+     * Checks if {@link #shutdown()} has been called.
+     * The event loop group keeps running until the last client has shut down.
+     *
+     * @return true if the runtime has been shut down, false otherwise
+     */
+    public boolean isShutdown() {
+        return shutdown.get();
+    }
+
+    /**
+     * Releases the runtime's own reference.
+     * The event loop group is shut down right away if no client is connected, or else once the last one
+     * has shut down. No new client can connect afterwards.
+     */
+    public void shutdown() {
+        if (shutdown.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    /**
+     * Takes a reference for a client that is connecting.
+     *
+     * @throws IllegalStateException if the event loop group has already been shut down
+     */
+    void retain() {
+        while (true) {
+            int count = referenceCount.get();
+            if (count == 0 || shutdown.get()) {
+                throw new IllegalStateException("Client runtime has been shut down");
+            }
+            if (referenceCount.compareAndSet(count, count + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases a reference and shuts down the event loop group when it was the last one.
+     */
+    void release() {
+        if (referenceCount.decrementAndGet() == 0) {
+            group.shutdownGracefully();
+        }
+    }
+}
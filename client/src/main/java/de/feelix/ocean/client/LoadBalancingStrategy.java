@@ -0,0 +1,17 @@
+package de.feelix.ocean.client;
+
+/**
+ * How a {@link NettyClientPool} picks the connection for a request.
+ */
+public enum LoadBalancingStrategy {
+    /**
+     * Uses the connected connections in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Uses the connected connection with the fewest requests waiting for a response,
+     * so that a slow connection or server gets fewer new requests.
+     */
+    LEAST_IN_FLIGHT
+}
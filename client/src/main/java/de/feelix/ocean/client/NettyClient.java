@@ -1,34 +1,85 @@
 package de.feelix.ocean.client;
 
+import de.feelix.ocean.api.network.TransportType;
 import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.network.VarIntFrameDecoder;
+import de.feelix.ocean.api.network.VarIntFrameEncoder;
 import de.feelix.ocean.api.packet.OutPacket;
-import de.feelix.ocean.api.serialization.PacketSerializer;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.packet.SubscribePacket;
+import de.feelix.ocean.api.packet.TopicMessagePacket;
+import de.feelix.ocean.api.packet.UnsubscribePacket;
+import de.feelix.ocean.api.serialization.JsonPacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.util.TransactionIdGenerator;
+import de.feelix.ocean.client.config.ClientConfig;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
+import javax.net.ssl.SSLException;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Netty-based client implementation.
+ * Every request gets a deadline in a hashed wheel timer shared by all clients, so that a request the server
+ * never answers fails instead of staying pending forever. The number of requests waiting for a response
+ * can be capped, in which case senders wait for a free slot.
+ * When the connection is lost, the client reconnects with jittered exponential backoff. Requests sent in
+ * the meantime are buffered, in-flight idempotent requests are sent again, and topic subscriptions are
+ * restored once the connection is back.
  */
 public class NettyClient {
+    private static final long HANDSHAKE_TIMEOUT_SECONDS = 10;
+    private static final int MAX_PENDING_REQUEST_SLOTS = 1 << 16;
+    
     private final String host;
     private final int port;
-    private EventLoopGroup group;
-    private Channel channel;
-    private final ConcurrentMap<String, CompletableFuture<OutPacket>> pendingRequests = new ConcurrentHashMap<>();
+    private final ClientRuntime runtime;
+    private final boolean pooled;
+    private volatile EventLoopGroup group;
+    private volatile Channel channel;
+    private final ClientConfig config;
+    private volatile PacketCodec codec;
+    private final PendingRequestTable<PendingRequest> pendingRequests;
+    private volatile Semaphore inFlightPermits;
+    private volatile TopicListener topicListener;
+    private volatile PacketListener packetListener;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+    private final Deque<PendingRequest> buffered = new ArrayDeque<>();
+    private TransportType transport;
+    private SslContext sslContext;
+    private int reconnectAttempts;
+    private volatile boolean shutdown;
     
     /**
      * Creates a new NettyClient with the specified host and port.
@@ -37,65 +88,734 @@ public class NettyClient {
      * @param port The server port
      */
     public NettyClient(String host, int port) {
+        this(host, port, new ClientConfig());
+    }
+    
+    /**
+     * Creates a new NettyClient with the specified host, port, and configuration.
+     *
+     * @param host The server host
+     * @param port The server port
+     * @param config The client configuration
+     */
+    public NettyClient(String host, int port, ClientConfig config) {
+        this(host, port, config, null, false);
+    }
+    
+    /**
+     * Creates a new NettyClient that runs on the event loop group of a runtime.
+     * The client holds a reference on the runtime from connecting until it is shut down.
+     * Pooled clients always reconnect, because the pool relies on them to recover.
+     *
+     * @param host The server host
+     * @param port The server port
+     * @param config The client configuration
+     * @param runtime The runtime, or null to create an event loop group of its own on connect
+     * @param pooled true if the client belongs to a {@link NettyClientPool}
+     * @see ClientRuntime#newClient(String, int, ClientConfig)
+     */
+    NettyClient(String host, int port, ClientConfig config, ClientRuntime runtime, boolean pooled) {
         this.host = host;
         this.port = port;
+        this.config = config;
+        this.runtime = runtime;
+        this.pooled = pooled;
+        
+        // One slot per request that may be in flight, so clients with a low limit keep a small table
+        int maxInFlightRequests = config.getMaxInFlightRequests();
+        this.pendingRequests = new PendingRequestTable<>(maxInFlightRequests > 0
+            ? Math.min(maxInFlightRequests, MAX_PENDING_REQUEST_SLOTS)
+            : PendingRequestTable.DEFAULT_CAPACITY);
+        this.inFlightPermits = maxInFlightRequests > 0 ? new Semaphore(maxInFlightRequests) : null;
     }
     
     /**
-     * Connects to the server.
+     * Gets the client configuration.
+     * Changes only take effect on the next call to {@link #connect()}.
+     *
+     * @return The client configuration
+     */
+    public ClientConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * Gets the codec negotiated with the server.
+     *
+     * @return The negotiated codec, or null if the client is not connected
+     */
+    public PacketCodec getCodec() {
+        return codec;
+    }
+    
+    /**
+     * Connects to the server and waits until the codec handshake has completed.
      *
      * @throws Exception If an error occurs during connection
      */
     public void connect() throws Exception {
-        group = new NioEventLoopGroup();
-        
         try {
-            Bootstrap b = new Bootstrap();
-            b.group(group)
-                .channel(NioSocketChannel.class)
-                .option(ChannelOption.TCP_NODELAY, true)
-                .handler(new ChannelInitializer<SocketChannel>() {
-                    @Override
-                    protected void initChannel(SocketChannel ch) {
-                        ch.pipeline().addLast(
-                            new StringDecoder(CharsetUtil.UTF_8),
-                            new StringEncoder(CharsetUtil.UTF_8),
-                            new ClientPacketHandler(NettyClient.this)
-                        );
+            connectAsync().get();
+        } catch (ExecutionException e) {
+            shutdown();
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+    
+    /**
+     * Connects to the server without blocking.
+     * If the connection fails, {@link #shutdown()} must still be called to release the client's resources.
+     * Only connections that were established once are reconnected automatically.
+     *
+     * @return A future that completes once the codec handshake has completed
+     */
+    public CompletableFuture<Void> connectAsync() {
+        try {
+            transport = runtime != null ? runtime.getTransport() : config.getTransportType().resolve();
+            sslContext = config.isEnableSsl() ? createSslContext() : null;
+            synchronized (lock) {
+                if (group == null) {
+                    if (runtime != null) {
+                        runtime.retain();
+                        group = runtime.eventLoopGroup();
+                    } else {
+                        // A single connection only ever uses one event loop
+                        group = transport.newEventLoopGroup(1);
                     }
-                });
-            
-            // Connect to the server
-            ChannelFuture f = b.connect(host, port).sync();
-            channel = f.channel();
-            System.out.println("Connected to server at " + host + ":" + port);
+                }
+            }
         } catch (Exception e) {
-            shutdown();
-            throw e;
+            CompletableFuture<Void> connectFuture = new CompletableFuture<>();
+            connectFuture.completeExceptionally(e);
+            return connectFuture;
+        }
+        int maxInFlightRequests = config.getMaxInFlightRequests();
+        inFlightPermits = maxInFlightRequests > 0 ? new Semaphore(maxInFlightRequests) : null;
+        reconnectAttempts = 0;
+        shutdown = false;
+        return openChannel();
+    }
+    
+    /**
+     * Opens a connection to the server and negotiates the codec.
+     *
+     * @return A future that completes once the connection is ready for requests
+     */
+    private CompletableFuture<Void> openChannel() {
+        CompletableFuture<Void> connectFuture = new CompletableFuture<>();
+        TransportType transport = this.transport;
+        SslContext sslContext = this.sslContext;
+        String codecName = config.getCodecName();
+        int maxFrameLength = config.getMaxFrameLength();
+        long batchWindowNanos = config.getBatchWindow().toNanos();
+        int batchSize = config.getBatchSize();
+        
+        // Offer the preferred codec first and JSON as a fallback
+        List<String> codecNames = new ArrayList<>();
+        codecNames.add(codecName);
+        if (!JsonPacketCodec.NAME.equals(codecName)) {
+            codecNames.add(JsonPacketCodec.NAME);
+        }
+        ClientHandshakeHandler handshakeHandler = new ClientHandshakeHandler(codecNames);
+        
+        Bootstrap b = new Bootstrap();
+        b.group(group)
+            .channel(transport.channelClass())
+            .option(ChannelOption.TCP_NODELAY, true)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    if (sslContext != null) {
+                        ch.pipeline().addLast("ssl", sslContext.newHandler(ch.alloc(), host, port));
+                    }
+                    ch.pipeline()
+                        .addLast("frameDecoder", new VarIntFrameDecoder(maxFrameLength))
+                        .addLast("frameEncoder", new VarIntFrameEncoder(maxFrameLength))
+                        .addLast("handshake", handshakeHandler)
+                        .addLast("handler", new ClientPacketHandler(NettyClient.this));
+                    if (batchWindowNanos > 0) {
+                        // Last in the pipeline, so it only delays requests and not the handshake or heartbeat replies
+                        ch.pipeline().addLast("batch", new BatchFlushHandler(batchWindowNanos, batchSize));
+                    }
+                }
+            });
+        
+        if (config.isTcpFastOpen() && transport == TransportType.EPOLL) {
+            b.option(ChannelOption.TCP_FASTOPEN_CONNECT, true);
         }
+        
+        // Connect to the server
+        b.connect(host, port).addListener((ChannelFuture f) -> {
+            if (!f.isSuccess()) {
+                connectFuture.completeExceptionally(f.cause());
+                return;
+            }
+            Channel ch = f.channel();
+            
+            // Wait until client and server agreed on a codec
+            CompletableFuture<PacketCodec> handshakeFuture = handshakeHandler.handshakeFuture();
+            ScheduledFuture<?> timeout = ch.eventLoop().schedule(
+                () -> handshakeFuture.completeExceptionally(new TimeoutException("Codec handshake timed out")),
+                HANDSHAKE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            handshakeFuture.whenComplete((negotiated, error) -> {
+                timeout.cancel(false);
+                if (error != null) {
+                    ch.close();
+                    connectFuture.completeExceptionally(error);
+                    return;
+                }
+                if (!connected(ch, negotiated)) {
+                    connectFuture.completeExceptionally(new IllegalStateException("Client shutdown"));
+                    return;
+                }
+                System.out.println("Connected to server at " + host + ":" + port + " using codec '"
+                    + negotiated.getName() + "' and transport " + transport);
+                connectFuture.complete(null);
+            });
+        });
+        return connectFuture;
+    }
+    
+    /**
+     * Makes a connection that completed the handshake the current one and sends the buffered requests over it.
+     *
+     * @param ch The channel of the connection
+     * @param negotiated The negotiated codec
+     * @return true if the connection is now in use, false if the client was shut down in the meantime
+     */
+    boolean connected(Channel ch, PacketCodec negotiated) {
+        synchronized (lock) {
+            if (shutdown) {
+                ch.close();
+                return false;
+            }
+            channel = ch;
+            
+            // Buffered requests go out first; new requests wait for the lock until the codec is set
+            PendingRequest request;
+            while ((request = buffered.poll()) != null) {
+                request.queued = false;
+                if (!request.isDone()) {
+                    write(ch, request, false);
+                }
+            }
+            ch.flush();
+            codec = negotiated;
+            reconnectAttempts = 0;
+        }
+        return true;
+    }
+    
+    /**
+     * Checks if the client is connected and has completed the codec handshake.
+     *
+     * @return true if the client is connected, false otherwise
+     */
+    public boolean isConnected() {
+        Channel ch = channel;
+        return ch != null && ch.isActive() && codec != null;
+    }
+    
+    /**
+     * Checks if the client has lost its connection and is trying to reconnect.
+     * Requests sent while reconnecting are buffered.
+     *
+     * @return true if the client is reconnecting, false otherwise
+     */
+    public boolean isReconnecting() {
+        return canReconnect() && channel != null && !isConnected();
+    }
+    
+    /**
+     * Gets the number of requests that were sent and have not been answered yet.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlightRequests() {
+        return pendingRequests.size();
+    }
+    
+    /**
+     * Creates the SSL context from the trusted certificate in the client configuration.
+     *
+     * @return The SSL context
+     * @throws SSLException If the certificate cannot be loaded
+     */
+    private SslContext createSslContext() throws SSLException {
+        SslContextBuilder builder = SslContextBuilder.forClient();
+        if (config.getSslTrustCertPath() != null) {
+            builder.trustManager(new File(config.getSslTrustCertPath()));
+        }
+        return builder.build();
     }
     
     /**
      * Sends a packet to the server and returns a future for the response.
+     * The future fails with a {@link TimeoutException} if no response arrives within the configured request timeout.
      *
      * @param packet The packet to send
      * @return A future that will be completed with the response
      * @throws Exception If an error occurs during sending
      */
     public CompletableFuture<OutPacket> sendPacket(InPacket packet) throws Exception {
-        if (channel == null || !channel.isActive()) {
+        return sendPacket(packet, config.getRequestTimeout());
+    }
+    
+    /**
+     * Sends a packet to the server and returns a future for the response.
+     * If the maximum number of in-flight requests is reached, this waits up to the timeout for a response
+     * to free a slot. Called on the client's own event loop, it fails right away instead.
+     * While the client is reconnecting, the request is buffered and its timeout already runs.
+     *
+     * @param packet The packet to send
+     * @param timeout The time after which the request fails, or {@link Duration#ZERO} to never time out
+     * @return A future that will be completed with the response
+     * @throws Exception If an error occurs during sending
+     */
+    public CompletableFuture<OutPacket> sendPacket(InPacket packet, Duration timeout) throws Exception {
+        Channel channel = checkOpen();
+        
+        // Validate the packet before it is queued for sending
+        packet.validate();
+        
+        PendingRequest request = register(channel, packet, timeout.toNanos());
+        send(request, true);
+        return request;
+    }
+    
+    /**
+     * Sends several packets to the server, flushing them together, and returns a combined future for the responses.
+     * All packets are validated before any of them is sent.
+     *
+     * @param packets The packets to send
+     * @return A future that completes with the responses in the order of the packets, or fails if any request fails
+     * @throws Exception If a packet is invalid or the client is not connected
+     */
+    public CompletableFuture<List<OutPacket>> sendAll(Collection<? extends InPacket> packets) throws Exception {
+        return sendAll(packets, config.getRequestTimeout());
+    }
+    
+    /**
+     * Sends several packets to the server, flushing them together, and returns a combined future for the responses.
+     * All packets are validated before any of them is sent. The packets are written without a flush in between
+     * and flushed once all of them are written, with two exceptions: if the batch is larger than the number of
+     * free in-flight slots, the packets written so far are flushed whenever the batch has to wait for a slot,
+     * and while the client is reconnecting, the packets are buffered and sent once the connection is back.
+     * If one of them cannot be sent, for example because no in-flight slot became free in time, it and all
+     * packets after it fail without being sent.
+     *
+     * @param packets The packets to send
+     * @param timeout The time after which each request fails, or {@link Duration#ZERO} to never time out
+     * @return A future that completes with the responses in the order of the packets, or fails if any request fails
+     * @throws Exception If a packet is invalid or the client is not connected
+     */
+    public CompletableFuture<List<OutPacket>> sendAll(Collection<? extends InPacket> packets, Duration timeout)
+            throws Exception {
+        Channel channel = checkOpen();
+        for (InPacket packet : packets) {
+            packet.validate();
+        }
+        
+        long timeoutNanos = timeout.toNanos();
+        List<CompletableFuture<OutPacket>> futures = new ArrayList<>(packets.size());
+        Exception failure = null;
+        for (InPacket packet : packets) {
+            if (failure == null) {
+                try {
+                    PendingRequest request = register(channel, packet, timeoutNanos);
+                    send(request, false);
+                    futures.add(request);
+                    continue;
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+            CompletableFuture<OutPacket> failed = new CompletableFuture<>();
+            failed.completeExceptionally(failure);
+            futures.add(failed);
+        }
+        Channel current = this.channel;
+        if (current != null) {
+            current.flush();
+        }
+        
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<OutPacket> responses = new ArrayList<>(futures.size());
+            for (CompletableFuture<OutPacket> future : futures) {
+                responses.add(future.join());
+            }
+            return responses;
+        });
+    }
+    
+    /**
+     * Checks that the client can send requests.
+     *
+     * @return The current or last channel
+     * @throws IllegalStateException If the client is not connected and not reconnecting
+     */
+    private Channel checkOpen() {
+        Channel channel = this.channel;
+        if (shutdown || channel == null) {
             throw new IllegalStateException("Client is not connected");
         }
+        return channel;
+    }
+    
+    /**
+     * Adds a validated packet to the pending requests and starts its deadline.
+     *
+     * @param channel The channel the request is sent on
+     * @param packet The packet
+     * @param timeoutNanos The request timeout in nanoseconds, or 0 to never time out
+     * @return The pending request
+     * @throws Exception If no in-flight slot becomes available or the transaction ID is already pending
+     */
+    private PendingRequest register(Channel channel, InPacket packet, long timeoutNanos) throws Exception {
+        Semaphore permits = acquireInFlightPermit(channel, timeoutNanos);
         
         // Create a future for the response
-        CompletableFuture<OutPacket> responseFuture = new CompletableFuture<>();
-        pendingRequests.put(packet.getTransactionId(), responseFuture);
+        long transactionId = packet.getTransactionId();
+        PendingRequest request = new PendingRequest(packet, permits);
+        if (!pendingRequests.put(transactionId, request)) {
+            if (permits != null) {
+                permits.release();
+            }
+            throw new IllegalStateException("A request with transaction ID " + transactionId + " is already pending");
+        }
+        if (timeoutNanos > 0) {
+            request.timeout = TimerHolder.TIMER.newTimeout(request, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        return request;
+    }
+    
+    /**
+     * Takes a slot for a new in-flight request, waiting for one if necessary.
+     * Before waiting, the current connection is flushed, since the slots can only be freed by responses to
+     * requests that were written without a flush, such as the earlier packets of {@link #sendAll}.
+     *
+     * @param channel The channel the request is sent on
+     * @param timeoutNanos The maximum time to wait in nanoseconds, or 0 to wait indefinitely
+     * @return The semaphore the slot was taken from, or null if the number of requests is not limited
+     * @throws Exception If no slot becomes available in time
+     */
+    private Semaphore acquireInFlightPermit(Channel channel, long timeoutNanos) throws Exception {
+        Semaphore permits = inFlightPermits;
+        if (permits == null || permits.tryAcquire()) {
+            return permits;
+        }
+        if (channel.eventLoop().inEventLoop()) {
+            // Blocking here would also block the responses that free the slots
+            throw new IllegalStateException("Too many requests in flight: " + config.getMaxInFlightRequests());
+        }
+        Channel current = this.channel;
+        if (current != null) {
+            current.flush();
+        }
+        if (timeoutNanos <= 0) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("Timed out waiting for one of " + config.getMaxInFlightRequests()
+                + " in-flight requests to complete");
+        }
+        return permits;
+    }
+    
+    /**
+     * Writes a pending request to the current connection, or buffers it while the client is reconnecting.
+     *
+     * @param request The pending request
+     * @param flush true to flush the channel after the write
+     */
+    private void send(PendingRequest request, boolean flush) {
+        Channel ch = channel;
+        if (ch != null && ch.isActive() && codec != null) {
+            // Send the packet, the pipeline encodes it with the negotiated codec
+            write(ch, request, flush);
+            return;
+        }
         
-        // Serialize and send the packet
-        String json = PacketSerializer.serialize(packet);
-        channel.writeAndFlush(json);
+        String failure;
+        synchronized (lock) {
+            ch = channel;
+            if (ch != null && ch.isActive() && codec != null) {
+                write(ch, request, flush);
+                return;
+            }
+            if (!canReconnect()) {
+                failure = "Client is not connected";
+            } else {
+                buffered.removeIf(CompletableFuture::isDone);
+                if (buffered.size() < config.getReconnectBufferSize()) {
+                    request.queued = true;
+                    buffered.add(request);
+                    return;
+                }
+                failure = "Reconnect buffer is full";
+            }
+        }
+        request.fail(new IllegalStateException(failure));
+    }
+    
+    /**
+     * Writes a pending request to a channel.
+     *
+     * @param ch The channel
+     * @param request The pending request
+     * @param flush true to flush the channel after the write
+     */
+    private void write(Channel ch, PendingRequest request, boolean flush) {
+        ChannelFuture writeFuture = flush ? ch.writeAndFlush(request.packet) : ch.write(request.packet);
+        writeFuture.addListener(f -> {
+            if (f.isSuccess()) {
+                request.sent = true;
+            } else {
+                writeFailed(ch, request, f.cause());
+            }
+        });
+    }
+    
+    /**
+     * Handles a failed write. A request that could not be written because the connection was lost never
+     * reached the server, so it is sent again once the client has reconnected.
+     *
+     * @param ch The channel the write failed on
+     * @param request The pending request
+     * @param cause The cause of the failure
+     */
+    private void writeFailed(Channel ch, PendingRequest request, Throwable cause) {
+        if (!ch.isActive() && canReconnect() && !request.isDone()) {
+            synchronized (lock) {
+                Channel current = channel;
+                if (current != ch && current != null && current.isActive() && codec != null) {
+                    write(current, request, true);
+                    return;
+                }
+                if (!shutdown) {
+                    request.queued = true;
+                    buffered.add(request);
+                    return;
+                }
+            }
+        }
+        request.fail(cause);
+    }
+    
+    /**
+     * Checks if the client reconnects when its connection is lost.
+     *
+     * @return true if the client reconnects, false otherwise
+     */
+    private boolean canReconnect() {
+        return !shutdown && (pooled || config.isAutoReconnect());
+    }
+    
+    /**
+     * Handles the loss of a connection.
+     * Without automatic reconnects, the client is shut down. Otherwise requests that may have reached the
+     * server are sent again if they are idempotent and failed if not, and a reconnect is scheduled.
+     *
+     * @param ch The channel that was closed
+     */
+    void handleDisconnect(Channel ch) {
+        if (ch != channel || shutdown) {
+            // A connection that never completed its handshake, or one that was already replaced
+            return;
+        }
+        if (!canReconnect()) {
+            System.out.println("Disconnected from server");
+            shutdown();
+            return;
+        }
+        synchronized (lock) {
+            if (shutdown) {
+                return;
+            }
+            codec = null;
+        }
+        
+        // Requests that were not completely written are buffered by their write listeners
+        List<PendingRequest> replay = new ArrayList<>();
+        pendingRequests.forEach(request -> {
+            if (!request.sent || request.queued) {
+                return;
+            }
+            if (request.packet.isIdempotent()) {
+                replay.add(request);
+            } else {
+                request.fail(new IOException("Connection to the server was lost before the response arrived"));
+            }
+        });
+        // Replay in the original order, ahead of the requests sent while disconnected
+        replay.sort(Comparator.comparingLong(request -> request.packet.getTransactionId()));
+        synchronized (lock) {
+            for (int i = replay.size() - 1; i >= 0; i--) {
+                PendingRequest request = replay.get(i);
+                request.sent = false;
+                request.queued = true;
+                buffered.addFirst(request);
+            }
+        }
+        
+        System.out.println("Connection to server lost, reconnecting (" + replay.size() + " requests to replay)");
+        scheduleReconnect();
+    }
+    
+    /**
+     * Schedules the next reconnect attempt.
+     * The delay doubles with every failed attempt up to the maximum, and is randomized between half of it
+     * and all of it, so that many clients do not reconnect to a restarted server at the same moment.
+     */
+    private void scheduleReconnect() {
+        EventLoopGroup group = this.group;
+        if (shutdown || group == null) {
+            return;
+        }
+        long delay = config.getReconnectInitialDelay().toNanos();
+        long maxDelay = Math.max(delay, config.getReconnectMaxDelay().toNanos());
+        for (int i = 0; i < reconnectAttempts && delay < maxDelay; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxDelay);
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        reconnectAttempts++;
         
-        return responseFuture;
+        try {
+            group.schedule(this::reconnect, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The event loop group is shutting down
+        }
+    }
+    
+    /**
+     * Tries to reconnect and restores the topic subscriptions once connected.
+     */
+    private void reconnect() {
+        if (shutdown) {
+            return;
+        }
+        openChannel().whenComplete((ignored, error) -> {
+            if (error == null) {
+                resubscribe();
+            } else if (!shutdown) {
+                System.err.println("Reconnect to " + host + ":" + port + " failed: " + error.getMessage());
+                scheduleReconnect();
+            }
+        });
+    }
+    
+    /**
+     * Subscribes again to all topics after a reconnect, since the server dropped them with the old session.
+     */
+    private void resubscribe() {
+        for (String topic : subscriptions) {
+            try {
+                sendPacket(new SubscribePacket(TransactionIdGenerator.generateId(), topic))
+                    .whenComplete((response, error) -> {
+                        if (error != null || !response.isSuccess()) {
+                            System.err.println("Failed to resubscribe to topic '" + topic + "': "
+                                + (error != null ? error.getMessage() : response.getErrorMessage()));
+                        }
+                    });
+            } catch (Exception e) {
+                System.err.println("Failed to resubscribe to topic '" + topic + "': " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Subscribes to a topic.
+     * Messages published to the topic are passed to the {@link TopicListener}.
+     * The subscription is restored automatically after a reconnect.
+     *
+     * @param topic The topic to subscribe to
+     * @return A future that completes with the server's response
+     * @throws Exception If an error occurs while sending the request
+     */
+    public CompletableFuture<OutPacket> subscribe(String topic) throws Exception {
+        CompletableFuture<OutPacket> future = sendPacket(new SubscribePacket(TransactionIdGenerator.generateId(), topic));
+        future.thenAccept(response -> {
+            if (response.isSuccess()) {
+                subscriptions.add(topic);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Unsubscribes from a topic.
+     *
+     * @param topic The topic to unsubscribe from
+     * @return A future that completes with the server's response
+     * @throws Exception If an error occurs while sending the request
+     */
+    public CompletableFuture<OutPacket> unsubscribe(String topic) throws Exception {
+        subscriptions.remove(topic);
+        return sendPacket(new UnsubscribePacket(TransactionIdGenerator.generateId(), topic));
+    }
+    
+    /**
+     * Gets the listener for messages of subscribed topics.
+     *
+     * @return The topic listener, or null if none is set
+     */
+    public TopicListener getTopicListener() {
+        return topicListener;
+    }
+    
+    /**
+     * Sets the listener for messages of subscribed topics.
+     *
+     * @param topicListener The topic listener, or null to ignore topic messages
+     */
+    public void setTopicListener(TopicListener topicListener) {
+        this.topicListener = topicListener;
+    }
+    
+    /**
+     * Gets the listener for packets the server pushes without a request.
+     *
+     * @return The packet listener, or null if none is set
+     */
+    public PacketListener getPacketListener() {
+        return packetListener;
+    }
+    
+    /**
+     * Sets the listener for packets the server pushes without a request, such as broadcasts of
+     * application packet types. Responses, heartbeats, and topic messages are not passed to it.
+     *
+     * @param packetListener The packet listener, or null to ignore such packets
+     */
+    public void setPacketListener(PacketListener packetListener) {
+        this.packetListener = packetListener;
+    }
+    
+    /**
+     * Handles a packet the server pushed without a request.
+     *
+     * @param packet The packet
+     */
+    void handlePushedPacket(Packet packet) {
+        PacketListener listener = packetListener;
+        if (listener != null) {
+            listener.onPacket(packet);
+        } else {
+            System.err.println("Received unexpected packet of type " + packet.getType());
+        }
+    }
+    
+    /**
+     * Handles a message the server pushed for a subscribed topic.
+     *
+     * @param message The topic message
+     */
+    void handleTopicMessage(TopicMessagePacket message) {
+        TopicListener listener = topicListener;
+        if (listener != null) {
+            listener.onMessage(message.getTopic(), message.getPayload());
+        }
     }
     
     /**
@@ -104,11 +824,12 @@ public class NettyClient {
      * @param response The response packet
      */
     void handleResponse(OutPacket response) {
-        String transactionId = response.getTransactionId();
-        CompletableFuture<OutPacket> future = pendingRequests.remove(transactionId);
+        long transactionId = response.getTransactionId();
+        PendingRequest request = pendingRequests.remove(transactionId);
         
-        if (future != null) {
-            future.complete(response);
+        if (request != null) {
+            request.release();
+            request.complete(response);
         } else {
             System.err.println("Received response for unknown transaction ID: " + transactionId);
         }
@@ -118,22 +839,103 @@ public class NettyClient {
      * Shuts down the client.
      */
     public void shutdown() {
+        shutdown = true;
+        Channel channel;
+        EventLoopGroup group;
+        synchronized (lock) {
+            channel = this.channel;
+            this.channel = null;
+            codec = null;
+            buffered.clear();
+            group = this.group;
+            this.group = null;
+        }
         if (channel != null) {
             channel.close();
-            channel = null;
         }
         
         if (group != null) {
-            group.shutdownGracefully();
-            group = null;
+            if (runtime != null) {
+                runtime.release();
+            } else {
+                group.shutdownGracefully();
+            }
         }
+        subscriptions.clear();
         
         // Complete all pending requests with an exception
-        for (CompletableFuture<OutPacket> future : pendingRequests.values()) {
-            future.completeExceptionally(new Exception("Client shutdown"));
-        }
-        pendingRequests.clear();
+        pendingRequests.drain(request -> {
+            request.release();
+            request.completeExceptionally(new Exception("Client shutdown"));
+        });
         
         System.out.println("Client shut down");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Holds the timer for request deadlines, which is shared by all clients and started on first use.
+     */
+    private static final class TimerHolder {
+        static final HashedWheelTimer TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("ocean-request-timeout", true), 10, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * The future of a request waiting for its response, which doubles as the task that expires it.
+     * Whoever removes the request from the pending table cancels its deadline and returns its slot.
+     */
+    private final class PendingRequest extends CompletableFuture<OutPacket> implements TimerTask {
+        private final InPacket packet;
+        private final long transactionId;
+        private final Semaphore permits;
+        private volatile Timeout timeout;
+        private volatile boolean sent;
+        private volatile boolean queued;
+        
+        PendingRequest(InPacket packet, Semaphore permits) {
+            this.packet = packet;
+            this.transactionId = packet.getTransactionId();
+            this.permits = permits;
+        }
+        
+        /**
+         * Cancels the deadline and returns the in-flight slot.
+         * Must be called exactly once, by whoever removed the request from the pending table.
+         */
+        void release() {
+            Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            if (permits != null) {
+                permits.release();
+            }
+        }
+        
+        /**
+         * Fails the request unless it has already been removed from the pending table.
+         *
+         * @param cause The cause of the failure
+         */
+        void fail(Throwable cause) {
+            if (pendingRequests.remove(transactionId, this)) {
+                release();
+                completeExceptionally(cause);
+            }
+        }
+        
+        @Override
+        public void run(Timeout timeout) {
+            fail(new TimeoutException("No response to request " + transactionId + " within the timeout"));
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // Free the slot right away instead of waiting for the response or the deadline
+            if (pendingRequests.remove(transactionId, this)) {
+                release();
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
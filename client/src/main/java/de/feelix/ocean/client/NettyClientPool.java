@@ -0,0 +1,280 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.client.config.ClientConfig;
+import io.netty.util.NettyRuntime;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Client that keeps several connections to one or more servers and spreads requests across them.
+ * Every connection has its own channel, so requests are not blocked behind a slow response on another
+ * connection and the work is spread over the threads of a {@link ClientRuntime}. Unless the pool is
+ * created on a runtime that is shared with other clients, it creates a runtime of its own.
+ * A connection that is lost reconnects in the background; until then, requests go to the others.
+ * Only while no connection is connected are requests buffered in one that is reconnecting.
+ */
+public class NettyClientPool {
+    private final List<InetSocketAddress> servers;
+    private final int connectionsPerServer;
+    private final ClientConfig config;
+    private final AtomicReferenceArray<NettyClient> connections;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile LoadBalancingStrategy strategy = LoadBalancingStrategy.LEAST_IN_FLIGHT;
+    private final ClientRuntime sharedRuntime;
+    private volatile ClientRuntime runtime;
+    
+    /**
+     * Creates a new NettyClientPool with the specified number of connections to a single server.
+     *
+     * @param host The server host
+     * @param port The server port
+     * @param size The number of connections
+     */
+    public NettyClientPool(String host, int port, int size) {
+        this(Collections.singletonList(InetSocketAddress.createUnresolved(host, port)), size, new ClientConfig());
+    }
+    
+    /**
+     * Creates a new NettyClientPool with the specified number of connections to each of the servers.
+     *
+     * @param servers The server addresses
+     * @param connectionsPerServer The number of connections to each server
+     * @param config The configuration used for every connection
+     */
+    public NettyClientPool(List<InetSocketAddress> servers, int connectionsPerServer, ClientConfig config) {
+        this(servers, connectionsPerServer, config, null);
+    }
+    
+    /**
+     * Creates a new NettyClientPool on a shared runtime.
+     *
+     * @param servers The server addresses
+     * @param connectionsPerServer The number of connections to each server
+     * @param config The configuration used for every connection
+     * @param runtime The runtime to run the connections on, or null to create one on connect
+     * @see ClientRuntime#newPool(List, int, ClientConfig)
+     */
+    public NettyClientPool(List<InetSocketAddress> servers, int connectionsPerServer, ClientConfig config,
+                           ClientRuntime runtime) {
+        if (servers.isEmpty()) {
+            throw new IllegalArgumentException("At least one server is required");
+        }
+        if (connectionsPerServer <= 0) {
+            throw new IllegalArgumentException("Connections per server must be positive: " + connectionsPerServer);
+        }
+        this.servers = new ArrayList<>(servers);
+        this.connectionsPerServer = connectionsPerServer;
+        this.config = config;
+        this.connections = new AtomicReferenceArray<>(servers.size() * connectionsPerServer);
+        this.sharedRuntime = runtime;
+    }
+    
+    /**
+     * Gets the load balancing strategy.
+     *
+     * @return The load balancing strategy
+     */
+    public LoadBalancingStrategy getLoadBalancingStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * Sets the load balancing strategy. It can be changed at any time.
+     *
+     * @param strategy The load balancing strategy
+     * @return This pool
+     */
+    public NettyClientPool setLoadBalancingStrategy(LoadBalancingStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
+        this.strategy = strategy;
+        return this;
+    }
+    
+    /**
+     * Opens all connections and waits until each of them has completed the codec handshake.
+     * If any connection fails, the pool is shut down and can be connected again.
+     *
+     * @throws IllegalStateException If the pool is already connected and has not been shut down
+     * @throws Exception If an error occurs during connection
+     */
+    public void connect() throws Exception {
+        synchronized (connections) {
+            if (runtime != null) {
+                // Replacing the connections would leave the current ones and their runtime running
+                throw new IllegalStateException("Pool is already connected");
+            }
+            runtime = sharedRuntime != null ? sharedRuntime
+                : new ClientRuntime(config.getTransportType(), NettyRuntime.availableProcessors());
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < connections.length(); i++) {
+            NettyClient client = newClient(i);
+            connections.set(i, client);
+            futures.add(client.connectAsync());
+        }
+        
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException e) {
+            shutdown();
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+    
+    /**
+     * Sends a packet over one of the connected connections and returns a future for the response.
+     *
+     * @param packet The packet to send
+     * @return A future that will be completed with the response
+     * @throws Exception If an error occurs during sending
+     */
+    public CompletableFuture<OutPacket> sendPacket(InPacket packet) throws Exception {
+        return select().sendPacket(packet);
+    }
+    
+    /**
+     * Sends a packet over one of the connected connections with a specific timeout.
+     *
+     * @param packet The packet to send
+     * @param timeout The time after which the request fails, or {@link Duration#ZERO} to never time out
+     * @return A future that will be completed with the response
+     * @throws Exception If an error occurs during sending
+     * @see NettyClient#sendPacket(InPacket, Duration)
+     */
+    public CompletableFuture<OutPacket> sendPacket(InPacket packet, Duration timeout) throws Exception {
+        return select().sendPacket(packet, timeout);
+    }
+    
+    /**
+     * Sends several packets over one of the connected connections with a single flush.
+     *
+     * @param packets The packets to send
+     * @return A future that completes with the responses in the order of the packets, or fails if any request fails
+     * @throws Exception If a packet is invalid or no connection is available
+     * @see NettyClient#sendAll(Collection)
+     */
+    public CompletableFuture<List<OutPacket>> sendAll(Collection<? extends InPacket> packets) throws Exception {
+        return select().sendAll(packets);
+    }
+    
+    /**
+     * Gets the total number of connections, connected or not.
+     *
+     * @return The pool size
+     */
+    public int getSize() {
+        return connections.length();
+    }
+    
+    /**
+     * Gets the number of connections that are currently connected.
+     *
+     * @return The number of connected connections
+     */
+    public int getConnectedCount() {
+        int count = 0;
+        for (int i = 0; i < connections.length(); i++) {
+            NettyClient client = connections.get(i);
+            if (client != null && client.isConnected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Gets the number of requests on all connections that have not been answered yet.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlightRequests() {
+        int count = 0;
+        for (int i = 0; i < connections.length(); i++) {
+            NettyClient client = connections.get(i);
+            if (client != null) {
+                count += client.getInFlightRequests();
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Shuts down all connections, and the runtime if the pool created it.
+     */
+    public void shutdown() {
+        for (int i = 0; i < connections.length(); i++) {
+            NettyClient client = connections.getAndSet(i, null);
+            if (client != null) {
+                client.shutdown();
+            }
+        }
+        ClientRuntime runtime = this.runtime;
+        if (runtime != null && runtime != sharedRuntime) {
+            runtime.shutdown();
+        }
+        this.runtime = null;
+    }
+    
+    /**
+     * Picks a connected connection according to the load balancing strategy.
+     *
+     * @return The connection
+     * @throws IllegalStateException If no connection is connected or reconnecting
+     */
+    private NettyClient select() {
+        int size = connections.length();
+        // Starting at a rotating offset spreads ties evenly
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        boolean leastInFlight = strategy == LoadBalancingStrategy.LEAST_IN_FLIGHT;
+        NettyClient best = null;
+        NettyClient reconnecting = null;
+        int bestInFlight = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            NettyClient client = connections.get((start + i) % size);
+            if (client == null) {
+                continue;
+            }
+            if (!client.isConnected()) {
+                if (reconnecting == null && client.isReconnecting()) {
+                    reconnecting = client;
+                }
+                continue;
+            }
+            if (!leastInFlight) {
+                return client;
+            }
+            int inFlight = client.getInFlightRequests();
+            if (inFlight < bestInFlight) {
+                best = client;
+                bestInFlight = inFlight;
+            }
+        }
+        if (best == null) {
+            // Let a reconnecting connection buffer the request rather than failing it
+            if (reconnecting == null) {
+                throw new IllegalStateException("No connection in the pool is connected");
+            }
+            return reconnecting;
+        }
+        return best;
+    }
+    
+    private NettyClient newClient(int index) {
+        InetSocketAddress server = servers.get(index / connectionsPerServer);
+        return new NettyClient(server.getHostString(), server.getPort(), config, runtime, true);
+    }
+}
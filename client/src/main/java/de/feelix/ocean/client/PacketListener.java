@@ -0,0 +1,18 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.packet.Packet;
+
+/**
+ * Listener for packets the server pushes without a request, other than heartbeats and topic messages.
+ * This is where clients handle their own packet types sent by broadcasts.
+ */
+@FunctionalInterface
+public interface PacketListener {
+    /**
+     * Called for every pushed packet the client does not handle itself.
+     * This runs on the client's event loop, so it must not block.
+     *
+     * @param packet The packet
+     */
+    void onPacket(Packet packet);
+}
@@ -0,0 +1,198 @@
+package de.feelix.ocean.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free table of in-flight requests keyed by their primitive transaction ID.
+ * Each ID maps directly to a slot by its low bits, so with sequential IDs the common case is a single
+ * compare-and-set without hashing or boxing. Only an ID whose slot is still held by an older in-flight
+ * request goes to a small overflow map.
+ * Transaction IDs must be unique among the requests that are in flight at the same time.
+ *
+ * @param <V> The type of the pending values
+ */
+public class PendingRequestTable<V> {
+    /**
+     * The default number of slots.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<Entry<V>> slots;
+    private final int mask;
+    private final Map<Long, V> overflow = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a new PendingRequestTable with the default capacity.
+     */
+    public PendingRequestTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new PendingRequestTable with the specified number of slots.
+     * The capacity is rounded up to the next power of two; more requests than this can be in flight,
+     * but they are kept in the overflow map.
+     *
+     * @param capacity The number of slots
+     */
+    public PendingRequestTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int slotCount = Integer.highestOneBit(capacity);
+        if (slotCount < capacity) {
+            slotCount <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Adds a pending value.
+     *
+     * @param id The transaction ID
+     * @param value The value
+     * @return true if the value was added, false if the ID is already pending
+     */
+    public boolean put(long id, V value) {
+        int index = (int) id & mask;
+        Entry<V> entry = new Entry<>(id, value);
+        while (true) {
+            Entry<V> current = slots.get(index);
+            if (current == null) {
+                if (!overflow.isEmpty() && overflow.containsKey(id)) {
+                    // The ID went to the overflow map while its slot was taken, and is still pending there
+                    return false;
+                }
+                if (slots.compareAndSet(index, null, entry)) {
+                    size.incrementAndGet();
+                    return true;
+                }
+            } else if (current.id == id) {
+                return false;
+            } else {
+                if (overflow.putIfAbsent(id, value) != null) {
+                    return false;
+                }
+                size.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the value pending for an ID.
+     *
+     * @param id The transaction ID
+     * @return The value, or null if no value is pending for the ID
+     */
+    public V remove(long id) {
+        int index = (int) id & mask;
+        Entry<V> current = slots.get(index);
+        if (current != null && current.id == id && slots.compareAndSet(index, current, null)) {
+            size.decrementAndGet();
+            return current.value;
+        }
+        if (overflow.isEmpty()) {
+            return null;
+        }
+        V value = overflow.remove(id);
+        if (value != null) {
+            size.decrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value pending for an ID only if it is the specified value.
+     *
+     * @param id The transaction ID
+     * @param value The expected value
+     * @return true if the value was removed
+     */
+    public boolean remove(long id, V value) {
+        int index = (int) id & mask;
+        Entry<V> current = slots.get(index);
+        if (current != null && current.id == id && current.value == value
+            && slots.compareAndSet(index, current, null)) {
+            size.decrementAndGet();
+            return true;
+        }
+        if (!overflow.isEmpty() && overflow.remove(id, value)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of pending values.
+     *
+     * @return The number of pending values
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Passes each pending value to the specified action without removing it.
+     * The action may remove the value it is given. Values added or removed concurrently may or may not be visited.
+     *
+     * @param action The action to perform for each value
+     */
+    public void forEach(Consumer<? super V> action) {
+        for (int i = 0; i < slots.length(); i++) {
+            Entry<V> entry = slots.get(i);
+            if (entry != null) {
+                action.accept(entry.value);
+            }
+        }
+        for (V value : overflow.values()) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Removes all pending values and passes each of them to the specified action.
+     * Values added concurrently may or may not be drained.
+     *
+     * @param action The action to perform for each removed value
+     */
+    public void drain(Consumer<? super V> action) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null) {
+                continue;
+            }
+            Entry<V> entry = slots.getAndSet(i, null);
+            if (entry != null) {
+                size.decrementAndGet();
+                action.accept(entry.value);
+            }
+        }
+        for (Long id : overflow.keySet()) {
+            V value = overflow.remove(id);
+            if (value != null) {
+                size.decrementAndGet();
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * An immutable slot entry.
+     */
+    private static final class Entry<V> {
+        final long id;
+        final V value;
+
+        Entry(long id, V value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
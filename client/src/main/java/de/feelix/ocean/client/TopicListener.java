@@ -0,0 +1,16 @@
+package de.feelix.ocean.client;
+
+/**
+ * Listener for messages the server pushes for subscribed topics.
+ */
+@FunctionalInterface
+public interface TopicListener {
+    /**
+     * Called for every message published to a topic the client is subscribed to.
+     * This runs on the client's event loop, so it must not block.
+     *
+     * @param topic The topic the message was published to
+     * @param payload The message payload
+     */
+    void onMessage(String topic, String payload);
+}
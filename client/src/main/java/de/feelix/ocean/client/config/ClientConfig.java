@@ -0,0 +1,363 @@
+package de.feelix.ocean.client.config;
+
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.api.network.VarIntFrameDecoder;
+import de.feelix.ocean.api.serialization.BinaryPacketCodec;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the client.
+ * This class holds various settings for the client.
+ * Changes only take effect on the next call to {@code connect()}.
+ */
+public class ClientConfig {
+    private String codecName;
+    private int maxFrameLength;
+    private TransportType transportType;
+    private boolean tcpFastOpen;
+    private boolean enableSsl;
+    private String sslTrustCertPath;
+    private Duration requestTimeout;
+    private int maxInFlightRequests;
+    private boolean autoReconnect;
+    private Duration reconnectInitialDelay;
+    private Duration reconnectMaxDelay;
+    private int reconnectBufferSize;
+    private Duration batchWindow;
+    private int batchSize;
+    
+    /**
+     * Creates a new ClientConfig with default values.
+     */
+    public ClientConfig() {
+        this.codecName = BinaryPacketCodec.NAME;
+        this.maxFrameLength = VarIntFrameDecoder.DEFAULT_MAX_FRAME_LENGTH;
+        this.transportType = TransportType.AUTO;
+        this.tcpFastOpen = false;
+        this.enableSsl = false;
+        this.sslTrustCertPath = null;
+        this.requestTimeout = Duration.ofSeconds(30);
+        this.maxInFlightRequests = 1024;
+        this.autoReconnect = true;
+        this.reconnectInitialDelay = Duration.ofMillis(10);
+        this.reconnectMaxDelay = Duration.ofSeconds(2);
+        this.reconnectBufferSize = 1024;
+        this.batchWindow = Duration.ZERO;
+        this.batchSize = 64;
+    }
+    
+    /**
+     * Gets the name of the preferred codec.
+     *
+     * @return The preferred codec name
+     */
+    public String getCodecName() {
+        return codecName;
+    }
+    
+    /**
+     * Sets the name of the preferred codec.
+     * The JSON codec is always offered as a fallback if the server does not support the preferred one.
+     *
+     * @param codecName The preferred codec name
+     * @return This config
+     */
+    public ClientConfig setCodecName(String codecName) {
+        this.codecName = codecName;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum length of a single frame.
+     *
+     * @return The maximum frame length in bytes
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+    
+    /**
+     * Sets the maximum length of a single frame.
+     *
+     * @param maxFrameLength The maximum frame length in bytes
+     * @return This config
+     */
+    public ClientConfig setMaxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        return this;
+    }
+    
+    /**
+     * Gets the transport type.
+     *
+     * @return The transport type
+     */
+    public TransportType getTransportType() {
+        return transportType;
+    }
+    
+    /**
+     * Sets the transport type.
+     * {@link TransportType#AUTO} uses a native transport if one is available and NIO otherwise.
+     *
+     * @param transportType The transport type
+     * @return This config
+     */
+    public ClientConfig setTransportType(TransportType transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+    
+    /**
+     * Checks if TCP Fast Open is enabled for outgoing connections.
+     *
+     * @return true if TCP Fast Open is enabled, false otherwise
+     */
+    public boolean isTcpFastOpen() {
+        return tcpFastOpen;
+    }
+    
+    /**
+     * Sets whether TCP Fast Open is enabled for outgoing connections.
+     * It requires the epoll transport and is ignored otherwise.
+     *
+     * @param tcpFastOpen true to enable TCP Fast Open, false to disable
+     * @return This config
+     */
+    public ClientConfig setTcpFastOpen(boolean tcpFastOpen) {
+        this.tcpFastOpen = tcpFastOpen;
+        return this;
+    }
+    
+    /**
+     * Checks if SSL is enabled.
+     *
+     * @return true if SSL is enabled, false otherwise
+     */
+    public boolean isEnableSsl() {
+        return enableSsl;
+    }
+    
+    /**
+     * Sets whether SSL is enabled.
+     *
+     * @param enableSsl true to enable SSL, false to disable
+     * @return This config
+     */
+    public ClientConfig setEnableSsl(boolean enableSsl) {
+        this.enableSsl = enableSsl;
+        return this;
+    }
+    
+    /**
+     * Gets the path to the certificate used to verify the server.
+     *
+     * @return The path to the trusted certificate, or null to use the default trust store
+     */
+    public String getSslTrustCertPath() {
+        return sslTrustCertPath;
+    }
+    
+    /**
+     * Sets the path to the certificate used to verify the server, for example a self-signed certificate.
+     *
+     * @param sslTrustCertPath The path to the trusted certificate, or null to use the default trust store
+     * @return This config
+     */
+    public ClientConfig setSslTrustCertPath(String sslTrustCertPath) {
+        this.sslTrustCertPath = sslTrustCertPath;
+        return this;
+    }
+    
+    /**
+     * Gets the time after which a request without a response fails.
+     *
+     * @return The request timeout, or {@link Duration#ZERO} if requests never time out
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+    
+    /**
+     * Sets the time after which a request without a response fails with a
+     * {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param requestTimeout The request timeout, or {@link Duration#ZERO} to never time out
+     * @return This config
+     */
+    public ClientConfig setRequestTimeout(Duration requestTimeout) {
+        if (requestTimeout == null || requestTimeout.isNegative()) {
+            throw new IllegalArgumentException("Request timeout cannot be null or negative");
+        }
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum number of requests that can wait for a response at the same time.
+     *
+     * @return The maximum number of in-flight requests, or 0 if unlimited
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+    
+    /**
+     * Sets the maximum number of requests that can wait for a response at the same time.
+     * Once the limit is reached, sending blocks until a response arrives, for at most the request timeout.
+     * The table of pending requests is sized for this limit when the client is created.
+     *
+     * @param maxInFlightRequests The maximum number of in-flight requests, or 0 for no limit
+     * @return This config
+     */
+    public ClientConfig setMaxInFlightRequests(int maxInFlightRequests) {
+        if (maxInFlightRequests < 0) {
+            throw new IllegalArgumentException("Max in-flight requests cannot be negative: " + maxInFlightRequests);
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+    
+    /**
+     * Checks if the client reconnects automatically when the connection is lost.
+     *
+     * @return true if the client reconnects automatically, false otherwise
+     */
+    public boolean isAutoReconnect() {
+        return autoReconnect;
+    }
+    
+    /**
+     * Sets whether the client reconnects automatically when the connection is lost.
+     * Without it, a lost connection shuts the client down and fails all pending requests.
+     *
+     * @param autoReconnect true to reconnect automatically, false to shut down
+     * @return This config
+     */
+    public ClientConfig setAutoReconnect(boolean autoReconnect) {
+        this.autoReconnect = autoReconnect;
+        return this;
+    }
+    
+    /**
+     * Gets the delay before the first reconnect attempt.
+     *
+     * @return The initial reconnect delay
+     */
+    public Duration getReconnectInitialDelay() {
+        return reconnectInitialDelay;
+    }
+    
+    /**
+     * Sets the delay before the first reconnect attempt.
+     * The delay doubles with every failed attempt, up to the maximum delay.
+     *
+     * @param reconnectInitialDelay The initial reconnect delay
+     * @return This config
+     */
+    public ClientConfig setReconnectInitialDelay(Duration reconnectInitialDelay) {
+        if (reconnectInitialDelay == null || reconnectInitialDelay.isNegative()) {
+            throw new IllegalArgumentException("Reconnect delay cannot be null or negative");
+        }
+        this.reconnectInitialDelay = reconnectInitialDelay;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum delay between two reconnect attempts.
+     *
+     * @return The maximum reconnect delay
+     */
+    public Duration getReconnectMaxDelay() {
+        return reconnectMaxDelay;
+    }
+    
+    /**
+     * Sets the maximum delay between two reconnect attempts.
+     *
+     * @param reconnectMaxDelay The maximum reconnect delay
+     * @return This config
+     */
+    public ClientConfig setReconnectMaxDelay(Duration reconnectMaxDelay) {
+        if (reconnectMaxDelay == null || reconnectMaxDelay.isNegative()) {
+            throw new IllegalArgumentException("Reconnect delay cannot be null or negative");
+        }
+        this.reconnectMaxDelay = reconnectMaxDelay;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum number of new requests that are buffered while the client is reconnecting.
+     *
+     * @return The reconnect buffer size
+     */
+    public int getReconnectBufferSize() {
+        return reconnectBufferSize;
+    }
+    
+    /**
+     * Sets the maximum number of new requests that are buffered while the client is reconnecting.
+     * Requests beyond it fail right away. Requests that are replayed after the reconnect are always buffered,
+     * but count towards the limit for new ones.
+     *
+     * @param reconnectBufferSize The reconnect buffer size, or 0 to fail requests while reconnecting
+     * @return This config
+     */
+    public ClientConfig setReconnectBufferSize(int reconnectBufferSize) {
+        if (reconnectBufferSize < 0) {
+            throw new IllegalArgumentException("Reconnect buffer size cannot be negative: " + reconnectBufferSize);
+        }
+        this.reconnectBufferSize = reconnectBufferSize;
+        return this;
+    }
+    
+    /**
+     * Gets the time for which flushes are delayed to batch requests.
+     *
+     * @return The batch window, or {@link Duration#ZERO} if every request is flushed immediately
+     */
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+    
+    /**
+     * Sets the time for which flushes are delayed to batch requests.
+     * Requests sent within the window, up to the batch size, are written to the socket together.
+     * This trades up to one window of latency for fewer system calls and TCP segments under bursts.
+     *
+     * @param batchWindow The batch window, or {@link Duration#ZERO} to flush every request immediately
+     * @return This config
+     */
+    public ClientConfig setBatchWindow(Duration batchWindow) {
+        if (batchWindow == null || batchWindow.isNegative()) {
+            throw new IllegalArgumentException("Batch window cannot be null or negative");
+        }
+        this.batchWindow = batchWindow;
+        return this;
+    }
+    
+    /**
+     * Gets the number of requests after which a batch is flushed without waiting for the window to pass.
+     *
+     * @return The batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Sets the number of requests after which a batch is flushed without waiting for the window to pass.
+     * It only applies if a batch window is set.
+     *
+     * @param batchSize The batch size
+     * @return This config
+     */
+    public ClientConfig setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+}
@@ -0,0 +1,99 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.network.PacketEncoder;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientHandshakeHandlerTest {
+    private static final List<String> OFFERED = Arrays.asList("binary", "json");
+
+    @Test
+    void offersCodecsOnConnect() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ClientHandshakeHandler(OFFERED));
+
+        ByteBuf request = channel.readOutbound();
+        try {
+            assertEquals(OFFERED, CodecHandshake.readRequest(request));
+        } finally {
+            request.release();
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void installsCodecPickedByServer() throws Exception {
+        ClientHandshakeHandler handler = new ClientHandshakeHandler(OFFERED);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        discardRequest(channel);
+
+        channel.writeInbound(CodecHandshake.writeResponse(ByteBufAllocator.DEFAULT, "json"));
+
+        assertSame(PacketCodecs.JSON, handler.handshakeFuture().get());
+        assertSame(PacketCodecs.JSON, channel.attr(CodecHandshake.CODEC_KEY).get());
+        assertSame(PacketCodecs.JSON, channel.pipeline().get(PacketEncoder.class).getCodec());
+        assertNull(channel.pipeline().get(ClientHandshakeHandler.class));
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void failsWhenServerRejectsHandshake() {
+        ClientHandshakeHandler handler = new ClientHandshakeHandler(OFFERED);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        discardRequest(channel);
+
+        channel.writeInbound(CodecHandshake.writeResponse(ByteBufAllocator.DEFAULT, null));
+
+        assertHandshakeFailed(handler.handshakeFuture());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void failsWhenServerPicksUnknownCodec() {
+        ClientHandshakeHandler handler = new ClientHandshakeHandler(OFFERED);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        discardRequest(channel);
+
+        channel.writeInbound(CodecHandshake.writeResponse(ByteBufAllocator.DEFAULT, "unknown"));
+
+        assertHandshakeFailed(handler.handshakeFuture());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void failsWhenConnectionClosesDuringHandshake() {
+        ClientHandshakeHandler handler = new ClientHandshakeHandler(OFFERED);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        discardRequest(channel);
+
+        channel.close();
+
+        assertHandshakeFailed(handler.handshakeFuture());
+    }
+
+    private static void assertHandshakeFailed(CompletableFuture<PacketCodec> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    private static void discardRequest(EmbeddedChannel channel) {
+        ByteBuf request = channel.readOutbound();
+        request.release();
+    }
+}
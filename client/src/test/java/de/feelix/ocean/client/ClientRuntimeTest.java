@@ -0,0 +1,59 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.network.TransportType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRuntimeTest {
+    @Test
+    void shutsDownWithoutClients() {
+        ClientRuntime runtime = new ClientRuntime(TransportType.NIO, 1);
+
+        runtime.shutdown();
+
+        assertTrue(runtime.isShutdown());
+        assertEquals(0, runtime.getReferenceCount());
+        assertTrue(runtime.eventLoopGroup().isShuttingDown());
+    }
+
+    @Test
+    void shutsDownAfterLastRelease() {
+        ClientRuntime runtime = new ClientRuntime(TransportType.NIO, 1);
+        runtime.retain();
+        runtime.retain();
+
+        runtime.shutdown();
+        assertTrue(runtime.isShutdown());
+        assertFalse(runtime.eventLoopGroup().isShuttingDown());
+        assertThrows(IllegalStateException.class, runtime::retain);
+
+        runtime.release();
+        assertFalse(runtime.eventLoopGroup().isShuttingDown());
+        runtime.release();
+        assertEquals(0, runtime.getReferenceCount());
+        assertTrue(runtime.eventLoopGroup().isShuttingDown());
+    }
+
+    @Test
+    void clientHoldsReferenceUntilItShutsDown() throws Exception {
+        ClientRuntime runtime = new ClientRuntime(TransportType.NIO, 1);
+        // Nothing listens on port 1, but the client holds its reference from the connect attempt on
+        NettyClient client = runtime.newClient("127.0.0.1", 1);
+        assertThrows(ExecutionException.class, () -> client.connectAsync().get(10, TimeUnit.SECONDS));
+        assertEquals(2, runtime.getReferenceCount());
+
+        runtime.shutdown();
+        assertFalse(runtime.eventLoopGroup().isShuttingDown());
+
+        client.shutdown();
+        assertEquals(0, runtime.getReferenceCount());
+        assertTrue(runtime.eventLoopGroup().isShuttingDown());
+    }
+}
@@ -0,0 +1,184 @@
+package de.feelix.ocean.client;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.api.network.VarIntFrameDecoder;
+import de.feelix.ocean.api.network.VarIntFrameEncoder;
+import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.SimpleInPacket;
+import de.feelix.ocean.api.packet.SubscribePacket;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.client.config.ClientConfig;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NettyClientTest {
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private NettyClient client;
+
+    @AfterEach
+    void shutdown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+            serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    void timedOutRequestFreesItsSlot() throws Exception {
+        client = new NettyClient("localhost", 0, new ClientConfig().setMaxInFlightRequests(1));
+        EmbeddedChannel channel = new EmbeddedChannel(new ClientPacketHandler(client));
+        client.connected(channel, PacketCodecs.BINARY);
+
+        CompletableFuture<OutPacket> unanswered = client.sendPacket(new SimpleInPacket(1L, "lost"), Duration.ofMillis(50));
+        // The embedded channel counts as the client's event loop, so a full client fails instead of waiting
+        assertThrows(IllegalStateException.class, () -> client.sendPacket(new SimpleInPacket(2L, "too many")));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> unanswered.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(0, client.getInFlightRequests());
+
+        CompletableFuture<OutPacket> next = client.sendPacket(new SimpleInPacket(3L, "after timeout"));
+        assertEquals(1, client.getInFlightRequests());
+        channel.writeInbound(OutPacket.Builder.success(3L, "ok"));
+        assertEquals("ok", next.get(5, TimeUnit.SECONDS).getResponse());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void replaysOnlyIdempotentRequestsAfterReconnect() throws Exception {
+        client = new NettyClient("localhost", 0, new ClientConfig().setAutoReconnect(true));
+        EmbeddedChannel lost = new EmbeddedChannel(new ClientPacketHandler(client));
+        client.connected(lost, PacketCodecs.BINARY);
+
+        CompletableFuture<OutPacket> subscribe = client.sendPacket(new SubscribePacket(1L, "news"));
+        CompletableFuture<OutPacket> simple = client.sendPacket(new SimpleInPacket(2L, "not idempotent"));
+        lost.releaseOutbound();
+        lost.close();
+
+        // The request may have reached the server, so it cannot be sent again
+        ExecutionException e = assertThrows(ExecutionException.class, () -> simple.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+        assertTrue(client.isReconnecting());
+        CompletableFuture<OutPacket> buffered = client.sendPacket(new SimpleInPacket(3L, "sent while disconnected"));
+
+        EmbeddedChannel reconnected = new EmbeddedChannel(new ClientPacketHandler(client));
+        client.connected(reconnected, PacketCodecs.BINARY);
+
+        // The replayed request goes out ahead of the one buffered while disconnected
+        SubscribePacket replayed = reconnected.readOutbound();
+        assertEquals(1L, replayed.getTransactionId());
+        SimpleInPacket next = reconnected.readOutbound();
+        assertEquals(3L, next.getTransactionId());
+        assertNull(reconnected.readOutbound());
+
+        reconnected.writeInbound(OutPacket.Builder.success(1L, "subscribed"));
+        reconnected.writeInbound(OutPacket.Builder.success(3L, "ok"));
+        assertEquals("subscribed", subscribe.get(5, TimeUnit.SECONDS).getResponse());
+        assertEquals("ok", buffered.get(5, TimeUnit.SECONDS).getResponse());
+        reconnected.finishAndReleaseAll();
+    }
+
+    @Test
+    void sendAllWithMoreRequestsThanInFlightSlots() throws Exception {
+        startServer();
+        ClientConfig config = new ClientConfig()
+            .setTransportType(TransportType.NIO)
+            .setMaxInFlightRequests(MAX_IN_FLIGHT)
+            .setRequestTimeout(Duration.ofSeconds(10));
+        client = new NettyClient("127.0.0.1", ((InetSocketAddress) serverChannel.localAddress()).getPort(), config);
+        client.connect();
+
+        List<InPacket> packets = new ArrayList<>();
+        for (int i = 1; i <= MAX_IN_FLIGHT * 5; i++) {
+            packets.add(new SimpleInPacket(i, "request " + i));
+        }
+        // Each packet beyond the free slots has to wait for responses to the unflushed packets before it
+        List<OutPacket> responses = client.sendAll(packets).get(10, TimeUnit.SECONDS);
+
+        assertEquals(packets.size(), responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals(i + 1, responses.get(i).getTransactionId());
+            assertEquals("request " + (i + 1), responses.get(i).getResponse());
+        }
+        assertEquals(0, client.getInFlightRequests());
+    }
+
+    /**
+     * Starts a server on a free local port that answers the codec handshake and echoes every request.
+     */
+    private void startServer() throws InterruptedException {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+            .group(serverGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline()
+                        .addLast("frameDecoder", new VarIntFrameDecoder())
+                        .addLast("frameEncoder", new VarIntFrameEncoder())
+                        .addLast("handshake", new HandshakeHandler())
+                        .addLast("handler", new EchoHandler());
+                }
+            })
+            .bind("127.0.0.1", 0).sync().channel();
+    }
+
+    /**
+     * Answers the codec handshake like the server and installs the negotiated codec.
+     */
+    private static final class HandshakeHandler extends SimpleChannelInboundHandler<ByteBuf> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+            PacketCodec codec = CodecHandshake.select(CodecHandshake.readRequest(msg));
+            ctx.writeAndFlush(CodecHandshake.writeResponse(ctx.alloc(), codec.getName()));
+            CodecHandshake.installCodec(ctx.pipeline(), ctx.name(), codec);
+        }
+    }
+
+    /**
+     * Answers every request with its own message.
+     */
+    private static final class EchoHandler extends SimpleChannelInboundHandler<SimpleInPacket> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, SimpleInPacket packet) {
+            ctx.writeAndFlush(OutPacket.Builder.success(packet.getTransactionId(), packet.getMessage()));
+        }
+    }
+}
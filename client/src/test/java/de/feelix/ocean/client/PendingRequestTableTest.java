@@ -0,0 +1,173 @@
+package de.feelix.ocean.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingRequestTableTest {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 50_000;
+    private static final int WINDOW = 16;
+
+    @Test
+    void putAndRemove() {
+        PendingRequestTable<String> table = new PendingRequestTable<>(4);
+
+        assertTrue(table.put(1, "a"));
+        assertFalse(table.put(1, "b"));
+        assertEquals(1, table.size());
+        assertEquals("a", table.remove(1));
+        assertNull(table.remove(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void collidingIdsGoToOverflow() {
+        PendingRequestTable<String> table = new PendingRequestTable<>(4);
+
+        // 1 and 5 share a slot
+        assertTrue(table.put(5, "b"));
+        assertTrue(table.put(1, "a"));
+        assertEquals(2, table.size());
+        assertEquals("a", table.remove(1));
+        assertEquals("b", table.remove(5));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void overflowedIdIsNotAddedAgainOnceItsSlotIsFree() {
+        PendingRequestTable<String> table = new PendingRequestTable<>(4);
+        assertTrue(table.put(5, "b"));
+        assertTrue(table.put(1, "a"));
+        assertEquals("b", table.remove(5));
+
+        // 1 is still pending in the overflow map, so it must not also claim the now empty slot
+        assertFalse(table.put(1, "duplicate"));
+        assertEquals(1, table.size());
+        assertEquals("a", table.remove(1));
+        assertNull(table.remove(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void removeOnlyMatchingValue() {
+        PendingRequestTable<String> table = new PendingRequestTable<>(4);
+        String value = "a";
+        table.put(1, value);
+
+        assertFalse(table.remove(1, "other"));
+        assertTrue(table.remove(1, value));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void concurrentPutAndRemoveWithCollidingIds() throws Exception {
+        // Far fewer slots than requests in flight, so most IDs collide and go through the overflow map
+        PendingRequestTable<Object> table = new PendingRequestTable<>(8);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    Deque<Long> ids = new ArrayDeque<>();
+                    Deque<Object> values = new ArrayDeque<>();
+                    for (long i = 0; i < REQUESTS; i++) {
+                        long id = i * THREADS + thread;
+                        Object value = new Object();
+                        if (!table.put(id, value)) {
+                            throw new AssertionError("ID " + id + " reported as pending");
+                        }
+                        ids.add(id);
+                        values.add(value);
+                        if (ids.size() == WINDOW) {
+                            removeOldest(table, ids, values);
+                        }
+                    }
+                    while (!ids.isEmpty()) {
+                        removeOldest(table, ids, values);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void drainRacingRemoveHandsOutEachValueOnce() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            PendingRequestTable<Integer> table = new PendingRequestTable<>(16);
+            int count = 1000;
+            for (int i = 0; i < count; i++) {
+                table.put(i, i);
+            }
+            AtomicInteger handedOut = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread remover = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = count - 1; i >= 0; i--) {
+                    if (table.remove(i) != null) {
+                        handedOut.incrementAndGet();
+                    }
+                }
+            });
+            Thread drainer = new Thread(() -> {
+                awaitQuietly(start);
+                table.drain(value -> handedOut.incrementAndGet());
+            });
+            remover.start();
+            drainer.start();
+            start.countDown();
+            remover.join();
+            drainer.join();
+
+            assertEquals(count, handedOut.get(), "round " + round);
+            assertEquals(0, table.size(), "round " + round);
+        }
+    }
+
+    private static void removeOldest(PendingRequestTable<Object> table, Deque<Long> ids, Deque<Object> values) {
+        long id = ids.poll();
+        Object value = values.poll();
+        Object removed = table.remove(id);
+        if (removed != value) {
+            throw new AssertionError("ID " + id + " removed " + removed + " instead of its own value");
+        }
+        if (table.remove(id) != null) {
+            throw new AssertionError("ID " + id + " was pending twice");
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
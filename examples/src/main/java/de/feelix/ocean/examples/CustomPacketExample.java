@@ -3,7 +3,10 @@ package de.feelix.ocean.examples;
 import de.feelix.ocean.api.packet.InPacket;
 import de.feelix.ocean.api.packet.OutPacket;
 import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.serialization.GenerateCodec;
 import de.feelix.ocean.api.serialization.PacketRegistry;
+import de.feelix.ocean.api.serialization.PacketTypeRegistry;
+import de.feelix.ocean.api.serialization.VarEncoded;
 import de.feelix.ocean.api.validation.ValidationException;
 import de.feelix.ocean.server.PacketHandler;
 import de.feelix.ocean.server.SimplePacketHandler;
@@ -15,46 +18,34 @@ import de.feelix.ocean.server.handler.PacketTypeHandler;
 public class CustomPacketExample {
 
     /**
-     * Custom packet type for the example.
+     * Custom packet types for the example.
+     * IDs below 16 are left free for built-in packet types.
      */
-    public enum CustomPacketType {
-        ECHO_PACKET("ECHO_PACKET"),
-        MATH_PACKET("MATH_PACKET");
+    public static final class CustomPacketType {
+        public static final PacketType ECHO_PACKET = PacketTypeRegistry.register(16, "ECHO_PACKET");
+        public static final PacketType MATH_PACKET = PacketTypeRegistry.register(17, "MATH_PACKET");
         
-        private final String identifier;
-        
-        CustomPacketType(String identifier) {
-            this.identifier = identifier;
-        }
-        
-        public String getIdentifier() {
-            return identifier;
-        }
-        
-        public static CustomPacketType fromIdentifier(String identifier) {
-            for (CustomPacketType type : values()) {
-                if (type.getIdentifier().equals(identifier)) {
-                    return type;
-                }
-            }
-            return null;
+        private CustomPacketType() {
         }
     }
     
     /**
      * Custom packet for echoing text.
+     * Its codec is generated at compile time.
      */
+    @GenerateCodec
     public static class EchoPacket implements InPacket {
-        private final String transactionId;
+        @VarEncoded
+        private final long transactionId;
         private final String text;
         
-        public EchoPacket(String transactionId, String text) {
+        public EchoPacket(long transactionId, String text) {
             this.transactionId = transactionId;
             this.text = text;
         }
         
         @Override
-        public String getTransactionId() {
+        public long getTransactionId() {
             return transactionId;
         }
         
@@ -64,13 +55,13 @@ public class CustomPacketExample {
         
         @Override
         public PacketType getType() {
-            return PacketType.valueOf(CustomPacketType.ECHO_PACKET.name());
+            return CustomPacketType.ECHO_PACKET;
         }
         
         @Override
         public void validate() throws ValidationException {
-            if (transactionId == null || transactionId.isEmpty()) {
-                throw new ValidationException("Transaction ID cannot be null or empty");
+            if (transactionId <= 0) {
+                throw new ValidationException("Transaction ID must be positive");
             }
             if (text == null) {
                 throw new ValidationException("Text cannot be null");
@@ -80,14 +71,17 @@ public class CustomPacketExample {
     
     /**
      * Custom packet for performing math operations.
+     * Its codec is generated at compile time.
      */
+    @GenerateCodec
     public static class MathPacket implements InPacket {
-        private final String transactionId;
+        @VarEncoded
+        private final long transactionId;
         private final double a;
         private final double b;
         private final String operation;
         
-        public MathPacket(String transactionId, double a, double b, String operation) {
+        public MathPacket(long transactionId, double a, double b, String operation) {
             this.transactionId = transactionId;
             this.a = a;
             this.b = b;
@@ -95,7 +89,7 @@ public class CustomPacketExample {
         }
         
         @Override
-        public String getTransactionId() {
+        public long getTransactionId() {
             return transactionId;
         }
         
@@ -113,13 +107,13 @@ public class CustomPacketExample {
         
         @Override
         public PacketType getType() {
-            return PacketType.valueOf(CustomPacketType.MATH_PACKET.name());
+            return CustomPacketType.MATH_PACKET;
         }
         
         @Override
         public void validate() throws ValidationException {
-            if (transactionId == null || transactionId.isEmpty()) {
-                throw new ValidationException("Transaction ID cannot be null or empty");
+            if (transactionId <= 0) {
+                throw new ValidationException("Transaction ID must be positive");
             }
             if (operation == null || operation.isEmpty()) {
                 throw new ValidationException("Operation cannot be null or empty");
@@ -199,13 +193,11 @@ public class CustomPacketExample {
      * Example of how to register custom packet types and handlers.
      */
     public static void registerCustomPackets() {
-        // Add custom packet types to the PacketType enum
-        // This would normally be done by extending the PacketType enum
-        // For this example, we'll assume the PacketType enum has been extended
+        // The custom packet types are registered with PacketTypeRegistry when CustomPacketType is initialized
         
         // Register custom packet classes
-        PacketRegistry.register(PacketType.valueOf(CustomPacketType.ECHO_PACKET.name()), EchoPacket.class);
-        PacketRegistry.register(PacketType.valueOf(CustomPacketType.MATH_PACKET.name()), MathPacket.class);
+        PacketRegistry.register(CustomPacketType.ECHO_PACKET, EchoPacket.class);
+        PacketRegistry.register(CustomPacketType.MATH_PACKET, MathPacket.class);
     }
     
     /**
@@ -213,8 +205,8 @@ public class CustomPacketExample {
      */
     public static void registerCustomHandlers(PacketHandler packetHandler) {
         // Register custom packet handlers
-        packetHandler.registerHandler(PacketType.valueOf(CustomPacketType.ECHO_PACKET.name()), new EchoPacketHandler());
-        packetHandler.registerHandler(PacketType.valueOf(CustomPacketType.MATH_PACKET.name()), new MathPacketHandler());
+        packetHandler.registerHandler(CustomPacketType.ECHO_PACKET, new EchoPacketHandler());
+        packetHandler.registerHandler(CustomPacketType.MATH_PACKET, new MathPacketHandler());
     }
     
     /**
@@ -46,7 +46,7 @@ public class SimpleClientExample {
             String input;
             while (!(input = scanner.nextLine()).equalsIgnoreCase("exit")) {
                 // Generate a transaction ID
-                String transactionId = TransactionIdGenerator.generateId();
+                long transactionId = TransactionIdGenerator.generateId();
                 
                 // Create a packet
                 SimpleInPacket packet = new SimpleInPacket(transactionId, input);
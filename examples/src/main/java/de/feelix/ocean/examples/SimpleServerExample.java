@@ -35,7 +35,7 @@ public class SimpleServerExample {
             SessionManager sessionManager = new SessionManager(config);
             
             // Create the server
-            NettyServer server = new NettyServer(config.getPort(), packetHandler, sessionManager);
+            NettyServer server = new NettyServer(config, packetHandler, sessionManager);
             
             System.out.println("Starting server on port " + config.getPort());
             
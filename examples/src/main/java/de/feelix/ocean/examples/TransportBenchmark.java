@@ -0,0 +1,129 @@
+package de.feelix.ocean.examples;
+
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.SimpleInPacket;
+import de.feelix.ocean.api.util.TransactionIdGenerator;
+import de.feelix.ocean.client.NettyClient;
+import de.feelix.ocean.client.config.ClientConfig;
+import de.feelix.ocean.server.NettyServer;
+import de.feelix.ocean.server.SimplePacketHandler;
+import de.feelix.ocean.server.config.ServerConfig;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A benchmark comparing the latency and throughput of the available transports over loopback.
+ * For every transport available on this platform, a server and a client are started with that transport.
+ * Latency is measured with one request in flight at a time, throughput with a window of pipelined requests.
+ */
+public class TransportBenchmark {
+    private static final int PORT = 8899;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int LATENCY_REQUESTS = 20_000;
+    private static final int THROUGHPUT_REQUESTS = 200_000;
+    private static final int WINDOW = 256;
+
+    public static void main(String[] args) throws Exception {
+        // Keep per-connection logging out of the measurements
+        Logger.getLogger("de.feelix.ocean").setLevel(Level.WARNING);
+
+        System.out.printf("%-9s %10s %10s %10s %10s %14s%n", "Transport", "avg (us)", "p50 (us)", "p99 (us)", "p99.9 (us)", "throughput/s");
+        for (TransportType transport : new TransportType[] {TransportType.NIO, TransportType.EPOLL, TransportType.KQUEUE}) {
+            if (!transport.isAvailable()) {
+                System.out.printf("%-9s not available on this platform%n", transport);
+                continue;
+            }
+            run(transport);
+        }
+        System.exit(0);
+    }
+
+    private static void run(TransportType transport) throws Exception {
+        ServerConfig serverConfig = new ServerConfig()
+            .setPort(PORT)
+            .setTransportType(transport);
+        NettyServer server = new NettyServer(serverConfig, new SimplePacketHandler());
+        Thread serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                System.err.println("Server error: " + e.getMessage());
+            }
+        }, "benchmark-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        NettyClient client = new NettyClient("localhost", PORT, new ClientConfig().setTransportType(transport));
+        connect(client);
+        try {
+            // Warm up the JIT and the buffer pools
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                send(client, i).get();
+            }
+
+            // Latency: one request in flight at a time
+            long[] latencies = new long[LATENCY_REQUESTS];
+            for (int i = 0; i < LATENCY_REQUESTS; i++) {
+                long start = System.nanoTime();
+                send(client, i).get();
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            long total = 0;
+            for (long latency : latencies) {
+                total += latency;
+            }
+
+            // Throughput: a window of pipelined requests
+            Semaphore window = new Semaphore(WINDOW);
+            long start = System.nanoTime();
+            for (int i = 0; i < THROUGHPUT_REQUESTS; i++) {
+                window.acquire();
+                send(client, i).whenComplete((response, cause) -> window.release());
+            }
+            window.acquire(WINDOW);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-9s %10.1f %10.1f %10.1f %10.1f %14.0f%n", transport,
+                total / (double) latencies.length / 1000.0,
+                percentile(latencies, 0.50) / 1000.0,
+                percentile(latencies, 0.99) / 1000.0,
+                percentile(latencies, 0.999) / 1000.0,
+                THROUGHPUT_REQUESTS / seconds);
+        } finally {
+            client.shutdown();
+            server.shutdown();
+            serverThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static void connect(NettyClient client) throws Exception {
+        // The server binds asynchronously, so retry until it accepts connections
+        for (int attempt = 1; ; attempt++) {
+            try {
+                client.connect();
+                return;
+            } catch (Exception e) {
+                if (attempt == 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static CompletableFuture<OutPacket> send(NettyClient client, int i) throws Exception {
+        return client.sendPacket(new SimpleInPacket(TransactionIdGenerator.generateId(), "ping " + i));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
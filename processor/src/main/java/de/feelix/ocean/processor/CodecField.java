@@ -0,0 +1,26 @@
+package de.feelix.ocean.processor;
+
+/**
+ * A packet field handled by a generated codec.
+ */
+class CodecField {
+    final String name;
+    final String typeName;
+    final FieldKind kind;
+    final String accessor;
+
+    /**
+     * Creates a new CodecField.
+     *
+     * @param name The field name, also used as the JSON property name
+     * @param typeName The source representation of the field type
+     * @param kind The kind of encoding used for the field
+     * @param accessor The expression that reads the field from a packet, without the receiver
+     */
+    CodecField(String name, String typeName, FieldKind kind, String accessor) {
+        this.name = name;
+        this.typeName = typeName;
+        this.kind = kind;
+        this.accessor = accessor;
+    }
+}
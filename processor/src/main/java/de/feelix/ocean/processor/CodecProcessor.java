@@ -0,0 +1,297 @@
+package de.feelix.ocean.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a codec for every class annotated with {@code @GenerateCodec}.
+ * Each generated codec extends {@code GeneratedCodec} and is listed in
+ * {@code META-INF/services} so that {@code PacketRegistry} can pick it up at runtime.
+ */
+public class CodecProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "de.feelix.ocean.api.serialization.GenerateCodec";
+    static final String GENERATED_CODEC = "de.feelix.ocean.api.serialization.GeneratedCodec";
+    static final String VAR_ENCODED = "de.feelix.ocean.api.serialization.VarEncoded";
+    static final String PACKET = "de.feelix.ocean.api.packet.Packet";
+
+    private final Set<String> generatedCodecs = new LinkedHashSet<>();
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        TypeElement annotation = elements.getTypeElement(ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateCodec can only be applied to classes", element);
+                continue;
+            }
+            try {
+                generateCodec((TypeElement) element);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write codec: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void generateCodec(TypeElement packetType) throws IOException {
+        TypeElement packetInterface = elements.getTypeElement(PACKET);
+        if (packetInterface == null || !types.isAssignable(packetType.asType(), packetInterface.asType())) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateCodec classes must implement " + PACKET, packetType);
+            return;
+        }
+        if (packetType.getModifiers().contains(Modifier.ABSTRACT)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateCodec classes must not be abstract", packetType);
+            return;
+        }
+        if (packetType.getNestingKind().isNested() && !packetType.getModifiers().contains(Modifier.STATIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Nested @GenerateCodec classes must be static", packetType);
+            return;
+        }
+
+        List<CodecField> fields = collectFields(packetType);
+        if (fields == null) {
+            return;
+        }
+
+        ExecutableElement constructor = findConstructor(packetType, fields);
+        if (constructor == null) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                "No non-private constructor whose parameters match the fields " + fieldNames(fields), packetType);
+            return;
+        }
+
+        String packageName = elements.getPackageOf(packetType).getQualifiedName().toString();
+        String codecName = codecSimpleName(packetType);
+        String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+
+        String source = new CodecWriter(packageName, codecName, packetType.getQualifiedName().toString(), fields,
+            constructorArguments(constructor, fields)).write();
+
+        JavaFileObject file = filer.createSourceFile(qualifiedCodecName, packetType);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+        generatedCodecs.add(qualifiedCodecName);
+    }
+
+    private List<CodecField> collectFields(TypeElement packetType) {
+        List<CodecField> fields = new ArrayList<>();
+        boolean valid = true;
+
+        for (TypeElement type = packetType; type != null; type = superclassOf(type)) {
+            if (type.getQualifiedName().toString().startsWith("java.")) {
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+
+                FieldKind kind = FieldKind.of(field.asType(), elements, types);
+                if (kind == null) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Unsupported field type for generated codecs: " + field.asType(), field);
+                    valid = false;
+                    continue;
+                }
+                if (isVarEncoded(field)) {
+                    kind = kind.varEncoded();
+                    if (kind == null) {
+                        messager.printMessage(Diagnostic.Kind.ERROR,
+                            "@VarEncoded can only be applied to int and long fields", field);
+                        valid = false;
+                        continue;
+                    }
+                }
+
+                String accessor = accessorFor(type, field);
+                if (accessor == null) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Field must be non-private or have a non-private getter", field);
+                    valid = false;
+                    continue;
+                }
+
+                fields.add(new CodecField(field.getSimpleName().toString(), field.asType().toString(), kind, accessor));
+            }
+        }
+        return valid ? fields : null;
+    }
+
+    private boolean isVarEncoded(VariableElement field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(VAR_ENCODED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String accessorFor(TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        List<String> candidates = new ArrayList<>();
+        if (field.asType().getKind() == TypeKind.BOOLEAN) {
+            candidates.add("is" + capitalized);
+        }
+        candidates.add("get" + capitalized);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (candidates.contains(method.getSimpleName().toString())
+                && method.getParameters().isEmpty()
+                && !method.getModifiers().contains(Modifier.PRIVATE)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && types.isSameType(method.getReturnType(), field.asType())) {
+                return method.getSimpleName() + "()";
+            }
+        }
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return name;
+        }
+        return null;
+    }
+
+    private ExecutableElement findConstructor(TypeElement packetType, List<CodecField> fields) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(packetType.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)
+                || constructor.getParameters().size() != fields.size()) {
+                continue;
+            }
+            if (constructorArguments(constructor, fields) != null) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps each constructor parameter to the index of the field with the same name and type.
+     */
+    private int[] constructorArguments(ExecutableElement constructor, List<CodecField> fields) {
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        int[] arguments = new int[parameters.size()];
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            arguments[i] = -1;
+            for (int j = 0; j < fields.size(); j++) {
+                CodecField field = fields.get(j);
+                if (field.name.equals(parameter.getSimpleName().toString())
+                    && field.typeName.equals(parameter.asType().toString())) {
+                    arguments[i] = j;
+                    break;
+                }
+            }
+            if (arguments[i] < 0) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private String codecSimpleName(TypeElement packetType) {
+        StringBuilder name = new StringBuilder(packetType.getSimpleName());
+        for (Element enclosing = packetType.getEnclosingElement();
+             enclosing != null && !(enclosing instanceof PackageElement);
+             enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return name.append("Codec").toString();
+    }
+
+    private String fieldNames(List<CodecField> fields) {
+        List<String> names = new ArrayList<>();
+        for (CodecField field : fields) {
+            names.add(field.name);
+        }
+        return names.toString();
+    }
+
+    private void writeServiceFile() {
+        if (generatedCodecs.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + GENERATED_CODEC);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : generatedCodecs) {
+                    writer.write(codec);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write codec service file: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package de.feelix.ocean.processor;
+
+import java.util.List;
+
+/**
+ * Renders the source code of a generated codec.
+ */
+class CodecWriter {
+    private final String packageName;
+    private final String codecName;
+    private final String packetName;
+    private final List<CodecField> fields;
+    private final int[] constructorArguments;
+    private final StringBuilder out = new StringBuilder();
+
+    /**
+     * Creates a new CodecWriter.
+     *
+     * @param packageName The package of the packet and the codec
+     * @param codecName The simple name of the codec class
+     * @param packetName The canonical name of the packet class
+     * @param fields The fields in declaration order
+     * @param constructorArguments For each constructor parameter, the index of the matching field
+     */
+    CodecWriter(String packageName, String codecName, String packetName, List<CodecField> fields,
+                int[] constructorArguments) {
+        this.packageName = packageName;
+        this.codecName = codecName;
+        this.packetName = packetName;
+        this.fields = fields;
+        this.constructorArguments = constructorArguments;
+    }
+
+    /**
+     * Renders the codec source.
+     *
+     * @return The Java source code
+     */
+    String write() {
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+            line(0, "");
+        }
+        line(0, "import com.google.gson.stream.JsonReader;");
+        line(0, "import com.google.gson.stream.JsonToken;");
+        line(0, "import com.google.gson.stream.JsonWriter;");
+        line(0, "import de.feelix.ocean.api.serialization.GeneratedCodec;");
+        line(0, "import de.feelix.ocean.api.util.BufferUtil;");
+        line(0, "import de.feelix.ocean.api.util.VarInt;");
+        line(0, "import io.netty.buffer.ByteBuf;");
+        line(0, "");
+        line(0, "import java.io.IOException;");
+        line(0, "");
+        line(0, "/**");
+        line(0, " * Codec for {@link " + packetName + "}, generated by " + CodecProcessor.class.getName() + ".");
+        line(0, " */");
+        line(0, "@javax.annotation.processing.Generated(\"" + CodecProcessor.class.getName() + "\")");
+        line(0, "public final class " + codecName + " extends GeneratedCodec<" + packetName + "> {");
+
+        line(1, "@Override");
+        line(1, "public Class<" + packetName + "> getPacketClass() {");
+        line(2, "return " + packetName + ".class;");
+        line(1, "}");
+        line(0, "");
+
+        writeBinaryWrite();
+        writeBinaryRead();
+        writeJsonWrite();
+        writeJsonRead();
+
+        line(0, "}");
+        return out.toString();
+    }
+
+    private void writeBinaryWrite() {
+        line(1, "@Override");
+        line(1, "public void write(" + packetName + " packet, ByteBuf out) {");
+        for (CodecField field : fields) {
+            line(2, String.format(field.kind.binaryWrite, "packet." + field.accessor) + ";");
+        }
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeBinaryRead() {
+        line(1, "@Override");
+        line(1, "public " + packetName + " read(ByteBuf in) {");
+        for (int i = 0; i < fields.size(); i++) {
+            CodecField field = fields.get(i);
+            line(2, field.typeName + " v" + i + " = " + field.kind.binaryRead + ";");
+        }
+        line(2, "return " + constructorCall() + ";");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeJsonWrite() {
+        line(1, "@Override");
+        line(1, "public void write(JsonWriter out, " + packetName + " packet) throws IOException {");
+        line(2, "if (packet == null) {");
+        line(3, "out.nullValue();");
+        line(3, "return;");
+        line(2, "}");
+        line(2, "out.beginObject();");
+        for (CodecField field : fields) {
+            line(2, "out.name(\"" + field.name + "\");");
+            line(2, String.format(field.kind.jsonWrite, "packet." + field.accessor) + ";");
+        }
+        line(2, "out.endObject();");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeJsonRead() {
+        line(1, "@Override");
+        line(1, "public " + packetName + " read(JsonReader in) throws IOException {");
+        line(2, "if (in.peek() == JsonToken.NULL) {");
+        line(3, "in.nextNull();");
+        line(3, "return null;");
+        line(2, "}");
+        for (int i = 0; i < fields.size(); i++) {
+            CodecField field = fields.get(i);
+            line(2, field.typeName + " v" + i + " = " + field.kind.defaultValue + ";");
+        }
+        line(2, "in.beginObject();");
+        line(2, "while (in.hasNext()) {");
+        line(3, "switch (in.nextName()) {");
+        for (int i = 0; i < fields.size(); i++) {
+            CodecField field = fields.get(i);
+            line(4, "case \"" + field.name + "\":");
+            line(5, "v" + i + " = " + field.kind.jsonRead + ";");
+            line(5, "break;");
+        }
+        line(4, "default:");
+        line(5, "in.skipValue();");
+        line(3, "}");
+        line(2, "}");
+        line(2, "in.endObject();");
+        line(2, "return " + constructorCall() + ";");
+        line(1, "}");
+    }
+
+    private String constructorCall() {
+        StringBuilder call = new StringBuilder("new ").append(packetName).append("(");
+        for (int i = 0; i < constructorArguments.length; i++) {
+            if (i > 0) {
+                call.append(", ");
+            }
+            call.append("v").append(constructorArguments[i]);
+        }
+        return call.append(")").toString();
+    }
+
+    private void line(int indent, String text) {
+        for (int i = 0; i < indent; i++) {
+            out.append("    ");
+        }
+        out.append(text).append('\n');
+    }
+}
@@ -0,0 +1,90 @@
+package de.feelix.ocean.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Supported field types and the code generated to read and write them.
+ * Binary templates use {@code out}/{@code in} for the buffer and JSON templates use them for the
+ * JsonWriter/JsonReader; {@code %s} is replaced with the value expression.
+ */
+enum FieldKind {
+    BOOLEAN("false", "out.writeBoolean(%s)", "in.readBoolean()", "out.value(%s)", "in.nextBoolean()"),
+    BYTE("0", "out.writeByte(%s)", "in.readByte()", "out.value(%s)", "nextByte(in)"),
+    SHORT("0", "out.writeShort(%s)", "in.readShort()", "out.value(%s)", "nextShort(in)"),
+    CHAR("0", "out.writeChar(%s)", "in.readChar()", "out.value(String.valueOf(%s))", "nextChar(in)"),
+    INT("0", "out.writeInt(%s)", "in.readInt()", "out.value(%s)", "in.nextInt()"),
+    LONG("0L", "out.writeLong(%s)", "in.readLong()", "out.value(%s)", "in.nextLong()"),
+    VAR_INT("0", "VarInt.writeVarInt(out, %s)", "VarInt.readVarInt(in)", "out.value(%s)", "in.nextInt()"),
+    VAR_LONG("0L", "VarInt.writeVarLong(out, %s)", "VarInt.readVarLong(in)", "out.value(%s)", "in.nextLong()"),
+    FLOAT("0F", "out.writeFloat(%s)", "in.readFloat()", "out.value(%s)", "(float) in.nextDouble()"),
+    DOUBLE("0D", "out.writeDouble(%s)", "in.readDouble()", "out.value(%s)", "in.nextDouble()"),
+    STRING("null", "BufferUtil.writeString(out, %s)", "BufferUtil.readString(in)", "out.value(%s)",
+        "nextNullableString(in)");
+
+    final String defaultValue;
+    final String binaryWrite;
+    final String binaryRead;
+    final String jsonWrite;
+    final String jsonRead;
+
+    FieldKind(String defaultValue, String binaryWrite, String binaryRead, String jsonWrite, String jsonRead) {
+        this.defaultValue = defaultValue;
+        this.binaryWrite = binaryWrite;
+        this.binaryRead = binaryRead;
+        this.jsonWrite = jsonWrite;
+        this.jsonRead = jsonRead;
+    }
+
+    /**
+     * Gets the field kind for a type.
+     *
+     * @param type The field type
+     * @param elements The element utilities
+     * @param types The type utilities
+     * @return The field kind, or null if the type is not supported
+     */
+    static FieldKind of(TypeMirror type, Elements elements, Types types) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return BOOLEAN;
+            case BYTE:
+                return BYTE;
+            case SHORT:
+                return SHORT;
+            case CHAR:
+                return CHAR;
+            case INT:
+                return INT;
+            case LONG:
+                return LONG;
+            case FLOAT:
+                return FLOAT;
+            case DOUBLE:
+                return DOUBLE;
+            case DECLARED:
+                TypeElement string = elements.getTypeElement("java.lang.String");
+                return types.isSameType(type, string.asType()) ? STRING : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the varint counterpart of a fixed-width kind.
+     *
+     * @return The varint kind, or null if this kind has no varint encoding
+     */
+    FieldKind varEncoded() {
+        switch (this) {
+            case INT:
+                return VAR_INT;
+            case LONG:
+                return VAR_LONG;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package de.feelix.ocean.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecProcessorTest {
+    // The processor only knows the API by name, so stand-ins for the annotations and Packet are enough
+    private static final String[][] API_STUBS = {
+        {"de.feelix.ocean.api.serialization.GenerateCodec",
+            "package de.feelix.ocean.api.serialization; public @interface GenerateCodec {}"},
+        {"de.feelix.ocean.api.serialization.VarEncoded",
+            "package de.feelix.ocean.api.serialization; public @interface VarEncoded {}"},
+        {"de.feelix.ocean.api.packet.Packet", "package de.feelix.ocean.api.packet; public interface Packet {}"}
+    };
+
+    @TempDir
+    Path output;
+
+    @Test
+    void generatesCodecForEveryFieldKind() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = process("test.AllKinds",
+            "package test;\n"
+            + "import de.feelix.ocean.api.packet.Packet;\n"
+            + "import de.feelix.ocean.api.serialization.*;\n"
+            + "@GenerateCodec public class AllKinds implements Packet {\n"
+            + "  final boolean a; final byte b; final short c; final char d; final int e; final long f;\n"
+            + "  @VarEncoded final int g; @VarEncoded final long h; final float i; final double j;\n"
+            + "  private final String k;\n"
+            + "  AllKinds(boolean a, byte b, short c, char d, int e, long f, int g, long h, float i, double j,\n"
+            + "           String k) {\n"
+            + "    this.a = a; this.b = b; this.c = c; this.d = d; this.e = e; this.f = f; this.g = g; this.h = h;\n"
+            + "    this.i = i; this.j = j; this.k = k;\n"
+            + "  }\n"
+            + "  public String getK() { return k; }\n"
+            + "}\n");
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        String codec = Files.readString(output.resolve("test/AllKindsCodec.java"));
+        for (String call : new String[]{"out.writeBoolean(packet.a)", "out.writeByte(packet.b)",
+            "out.writeShort(packet.c)", "out.writeChar(packet.d)", "out.writeInt(packet.e)", "out.writeLong(packet.f)",
+            "VarInt.writeVarInt(out, packet.g)", "VarInt.writeVarLong(out, packet.h)", "out.writeFloat(packet.i)",
+            "out.writeDouble(packet.j)", "BufferUtil.writeString(out, packet.getK())",
+            "v1 = nextByte(in)", "v2 = nextShort(in)", "v3 = nextChar(in)", "v10 = nextNullableString(in)",
+            "new test.AllKinds(v0, v1, v2, v3, v4, v5, v6, v7, v8, v9, v10)"}) {
+            assertTrue(codec.contains(call), "missing " + call + " in\n" + codec);
+        }
+        String services = Files.readString(output.resolve("META-INF/services/" + CodecProcessor.GENERATED_CODEC));
+        assertEquals("test.AllKindsCodec", services.trim());
+    }
+
+    @Test
+    void namesCodecsOfNestedClassesAfterTheirOuterClass() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = process("test.Outer",
+            "package test;\n"
+            + "public class Outer {\n"
+            + "  @de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "  public static class Inner implements de.feelix.ocean.api.packet.Packet {\n"
+            + "    final int value;\n"
+            + "    public Inner(int value) { this.value = value; }\n"
+            + "  }\n"
+            + "}\n");
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertTrue(Files.exists(output.resolve("test/Outer_InnerCodec.java")));
+    }
+
+    @Test
+    void rejectsVarEncodedOnOtherTypes() {
+        assertError("@VarEncoded can only be applied to int and long fields", "test.Bad",
+            "package test;\n"
+            + "@de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "public class Bad implements de.feelix.ocean.api.packet.Packet {\n"
+            + "  @de.feelix.ocean.api.serialization.VarEncoded final short value;\n"
+            + "  Bad(short value) { this.value = value; }\n"
+            + "}\n");
+    }
+
+    @Test
+    void rejectsUnsupportedFieldTypes() {
+        assertError("Unsupported field type for generated codecs: java.util.List<java.lang.String>", "test.Bad",
+            "package test;\n"
+            + "@de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "public class Bad implements de.feelix.ocean.api.packet.Packet {\n"
+            + "  final java.util.List<String> values;\n"
+            + "  Bad(java.util.List<String> values) { this.values = values; }\n"
+            + "}\n");
+    }
+
+    @Test
+    void rejectsPrivateFieldsWithoutGetter() {
+        assertError("Field must be non-private or have a non-private getter", "test.Bad",
+            "package test;\n"
+            + "@de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "public class Bad implements de.feelix.ocean.api.packet.Packet {\n"
+            + "  private final int value;\n"
+            + "  Bad(int value) { this.value = value; }\n"
+            + "}\n");
+    }
+
+    @Test
+    void rejectsClassesWithoutMatchingConstructor() {
+        assertError("No non-private constructor whose parameters match the fields", "test.Bad",
+            "package test;\n"
+            + "@de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "public class Bad implements de.feelix.ocean.api.packet.Packet {\n"
+            + "  final int value;\n"
+            + "  Bad(long value) { this.value = (int) value; }\n"
+            + "}\n");
+    }
+
+    @Test
+    void rejectsClassesThatAreNotPackets() {
+        assertError("@GenerateCodec classes must implement de.feelix.ocean.api.packet.Packet", "test.Bad",
+            "package test;\n"
+            + "@de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "public class Bad {\n"
+            + "}\n");
+    }
+
+    @Test
+    void rejectsInnerClasses() {
+        assertError("Nested @GenerateCodec classes must be static", "test.Outer",
+            "package test;\n"
+            + "public class Outer {\n"
+            + "  @de.feelix.ocean.api.serialization.GenerateCodec\n"
+            + "  public class Inner implements de.feelix.ocean.api.packet.Packet {\n"
+            + "  }\n"
+            + "}\n");
+    }
+
+    private void assertError(String message, String className, String source) {
+        List<Diagnostic<? extends JavaFileObject>> errors = process(className, source);
+
+        assertFalse(errors.isEmpty(), "expected an error");
+        String messages = errors.stream().map(error -> error.getMessage(null)).collect(Collectors.joining("\n"));
+        assertTrue(messages.contains(message), messages);
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> process(String className, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (String[] stub : API_STUBS) {
+            sources.add(new StringSource(stub[0], stub[1]));
+        }
+        sources.add(new StringSource(className, source));
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+            StandardCharsets.UTF_8)) {
+            // Only run the processor; the generated code is not compiled here
+            List<String> options = Arrays.asList("-proc:only", "-s", output.toString(), "-d", output.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                sources);
+            task.setProcessors(List.of(new CodecProcessor()));
+            task.call();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Generated code refers to API classes the stubs do not provide, so only errors in the inputs count
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .filter(diagnostic -> diagnostic.getSource() == null || diagnostic.getSource() instanceof StringSource)
+            .collect(Collectors.toList());
+    }
+
+    private static final class StringSource extends SimpleJavaFileObject {
+        private final String source;
+
+        StringSource(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
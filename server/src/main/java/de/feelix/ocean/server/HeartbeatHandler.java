@@ -0,0 +1,83 @@
+package de.feelix.ocean.server;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.packet.PingPacket;
+import de.feelix.ocean.api.packet.PongPacket;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Netty channel handler that reacts to the events of an {@link io.netty.handler.timeout.IdleStateHandler}.
+ * When nothing has been read for the reader idle time, a ping is sent; once more than the allowed number
+ * of consecutive reader idle periods have passed without anything being read, the connection is considered
+ * dead and closed. Anything read, not just a pong, counts as a sign of life.
+ * Pongs are consumed here and pings from the client are answered with a pong.
+ * One instance is created per channel.
+ */
+public class HeartbeatHandler extends ChannelInboundHandlerAdapter {
+    private static final Logger LOGGER = Logger.getLogger(HeartbeatHandler.class.getName());
+
+    private final int maxMissedHeartbeats;
+    private final ServerMetrics metrics;
+
+    // Only accessed on the event loop
+    private int missedHeartbeats;
+
+    /**
+     * Creates a new HeartbeatHandler.
+     *
+     * @param maxMissedHeartbeats The number of unanswered heartbeats after which the connection is closed
+     * @param metrics The metrics to update
+     */
+    public HeartbeatHandler(int maxMissedHeartbeats, ServerMetrics metrics) {
+        this.maxMissedHeartbeats = maxMissedHeartbeats;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        missedHeartbeats = 0;
+        if (msg instanceof PongPacket) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                long rttNanos = System.nanoTime() - ((PongPacket) msg).getPayload();
+                LOGGER.fine("Heartbeat from " + ctx.channel().remoteAddress() + ", round trip " + rttNanos / 1000 + "us");
+            }
+        } else if (msg instanceof PingPacket) {
+            ctx.writeAndFlush(new PongPacket(((PingPacket) msg).getPayload()));
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (!(evt instanceof IdleStateEvent)) {
+            ctx.fireUserEventTriggered(evt);
+            return;
+        }
+
+        IdleState state = ((IdleStateEvent) evt).state();
+        if (state == IdleState.READER_IDLE && !ctx.channel().config().isAutoRead()) {
+            // Reading is suspended by backpressure, so the silence is not the client's fault
+            return;
+        }
+        if (state == IdleState.READER_IDLE && ++missedHeartbeats > maxMissedHeartbeats) {
+            LOGGER.info("Closing connection to " + ctx.channel().remoteAddress() + " after "
+                + maxMissedHeartbeats + " missed heartbeats");
+            metrics.heartbeatTimeout();
+            ctx.close();
+            return;
+        }
+
+        // Pings can only be encoded once the codec handshake has completed
+        if (ctx.channel().attr(CodecHandshake.CODEC_KEY).get() != null) {
+            ctx.writeAndFlush(new PingPacket(System.nanoTime()));
+        }
+    }
+}
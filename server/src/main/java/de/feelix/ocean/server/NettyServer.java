@@ -1,18 +1,40 @@
 package de.feelix.ocean.server;
 
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.api.network.VarIntFrameDecoder;
+import de.feelix.ocean.api.network.VarIntFrameEncoder;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.server.config.ServerConfig;
+import de.feelix.ocean.server.dispatch.HandlerDispatcher;
+import de.feelix.ocean.server.limit.RateLimiter;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import de.feelix.ocean.server.pubsub.PubSubBroker;
+import de.feelix.ocean.server.pubsub.PubSubHandler;
+import de.feelix.ocean.server.session.ClientSession;
 import de.feelix.ocean.server.session.SessionManager;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
+import io.netty.channel.unix.UnixChannelOption;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.timeout.IdleStateHandler;
 
+import javax.net.ssl.SSLException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 /**
@@ -21,9 +43,12 @@ import java.util.logging.Logger;
 public class NettyServer {
     private static final Logger LOGGER = Logger.getLogger(NettyServer.class.getName());
 
-    private final int port;
+    private final ServerConfig config;
     private final PacketHandler packetHandler;
     private final SessionManager sessionManager;
+    private final HandlerDispatcher dispatcher = new HandlerDispatcher();
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final PubSubBroker pubSub;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
 
@@ -34,9 +59,7 @@ public class NettyServer {
      * @param packetHandler The handler for processing packets
      */
     public NettyServer(int port, PacketHandler packetHandler) {
-        this.port = port;
-        this.packetHandler = packetHandler;
-        this.sessionManager = new SessionManager();
+        this(new ServerConfig().setPort(port), packetHandler);
     }
 
     /**
@@ -47,9 +70,41 @@ public class NettyServer {
      * @param sessionManager The manager for client sessions
      */
     public NettyServer(int port, PacketHandler packetHandler, SessionManager sessionManager) {
-        this.port = port;
+        this(new ServerConfig().setPort(port), packetHandler, sessionManager);
+    }
+
+    /**
+     * Creates a new NettyServer with the specified configuration and packet handler.
+     *
+     * @param config The server configuration
+     * @param packetHandler The handler for processing packets
+     */
+    public NettyServer(ServerConfig config, PacketHandler packetHandler) {
+        this(config, packetHandler, new SessionManager(config));
+    }
+
+    /**
+     * Creates a new NettyServer with the specified configuration, packet handler, and session manager.
+     *
+     * @param config The server configuration
+     * @param packetHandler The handler for processing packets
+     * @param sessionManager The manager for client sessions
+     */
+    public NettyServer(ServerConfig config, PacketHandler packetHandler, SessionManager sessionManager) {
+        this.config = config;
         this.packetHandler = packetHandler;
         this.sessionManager = sessionManager;
+        sessionManager.setMetrics(metrics);
+        this.pubSub = new PubSubBroker(sessionManager);
+    }
+
+    /**
+     * Gets the server configuration.
+     *
+     * @return The server configuration
+     */
+    public ServerConfig getConfig() {
+        return config;
     }
 
     /**
@@ -61,43 +116,177 @@ public class NettyServer {
         return sessionManager;
     }
 
+    /**
+     * Gets the publish/subscribe broker.
+     * Clients subscribe with a {@code SubscribePacket}; the server publishes with
+     * {@code server.getPubSub().publish(topic, payload)}.
+     *
+     * @return The publish/subscribe broker
+     */
+    public PubSubBroker getPubSub() {
+        return pubSub;
+    }
+
+    /**
+     * Gets the dispatcher that decides on which executor packets are handled.
+     * Use it to move slow handlers off the event loop, for example:
+     * {@code server.getDispatcher().setMode(type, DispatchMode.WORKER_POOL)}.
+     *
+     * @return The handler dispatcher
+     */
+    public HandlerDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Gets the server metrics.
+     *
+     * @return The server metrics
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Starts the server.
      *
      * @throws Exception If an error occurs during startup
      */
     public void start() throws Exception {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        TransportType transport = config.getTransportType().resolve();
+        SslContext sslContext = config.isEnableSsl() ? createSslContext() : null;
+        int maxFrameLength = config.getMaxFrameLength();
+        VarIntFrameEncoder frameEncoder = new VarIntFrameEncoder(maxFrameLength);
+        int flushConsolidationLimit = config.getFlushConsolidationLimit();
+        RateLimiter rateLimiter = new RateLimiter(config);
+        long readerIdleNanos = config.getReaderIdleTime().toNanos();
+        long writerIdleNanos = config.getWriterIdleTime().toNanos();
+        boolean heartbeats = readerIdleNanos > 0 || writerIdleNanos > 0;
+        bossGroup = transport.newEventLoopGroup(config.getBossThreads());
+        workerGroup = transport.newEventLoopGroup(config.getWorkerThreads());
 
         try {
             ServerBootstrap b = new ServerBootstrap();
             b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.serverChannelClass())
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
-                        ch.pipeline().addLast(
-                            new StringDecoder(CharsetUtil.UTF_8),
-                            new StringEncoder(CharsetUtil.UTF_8),
-                            new ServerPacketHandler(packetHandler, sessionManager)
-                        );
+                        if (sslContext != null) {
+                            ch.pipeline().addLast("ssl", sslContext.newHandler(ch.alloc()));
+                        }
+                        if (flushConsolidationLimit > 0) {
+                            ch.pipeline().addLast("flushConsolidation", new FlushConsolidationHandler(flushConsolidationLimit, true));
+                        }
+                        if (heartbeats) {
+                            ch.pipeline().addLast("idleState", new IdleStateHandler(readerIdleNanos, writerIdleNanos, 0, TimeUnit.NANOSECONDS));
+                        }
+                        ch.pipeline()
+                            .addLast("frameDecoder", new VarIntFrameDecoder(maxFrameLength))
+                            .addLast("frameEncoder", frameEncoder)
+                            .addLast("handshake", new ServerHandshakeHandler());
+                        if (heartbeats) {
+                            ch.pipeline().addLast("heartbeat", new HeartbeatHandler(config.getMaxMissedHeartbeats(), metrics));
+                        }
+                        ch.pipeline()
+                            .addLast("pubsub", new PubSubHandler())
+                            .addLast("handler", new ServerPacketHandler(packetHandler, sessionManager, dispatcher, config, metrics, rateLimiter, pubSub));
                     }
-                })
-                .option(ChannelOption.SO_BACKLOG, 128)
-                .childOption(ChannelOption.SO_KEEPALIVE, true);
+                });
+            applyOptions(b);
+
+            // Native socket options
+            boolean reusePort = config.isReusePort() && transport.isNative();
+            if (reusePort) {
+                b.option(UnixChannelOption.SO_REUSEPORT, true);
+            }
+            if (config.getTcpFastOpen() > 0 && transport == TransportType.EPOLL) {
+                b.option(ChannelOption.TCP_FASTOPEN, config.getTcpFastOpen());
+            }
 
-            // Bind and start to accept incoming connections
-            ChannelFuture f = b.bind(port).sync();
-            LOGGER.info("Server started on port " + port);
+            // Bind and start to accept incoming connections, with SO_REUSEPORT one socket per boss thread
+            int listeners = reusePort ? Math.max(1, config.getBossThreads()) : 1;
+            List<Channel> serverChannels = new ArrayList<>(listeners);
+            for (int i = 0; i < listeners; i++) {
+                serverChannels.add(b.bind(config.getPort()).sync().channel());
+            }
+            LOGGER.info("Server started on port " + config.getPort() + " using transport " + transport
+                + (listeners > 1 ? " with " + listeners + " listening sockets" : ""));
 
-            // Wait until the server socket is closed
-            f.channel().closeFuture().sync();
+            // Wait until the server sockets are closed
+            for (Channel serverChannel : serverChannels) {
+                serverChannel.closeFuture().sync();
+            }
         } finally {
             shutdown();
         }
     }
 
+    /**
+     * Applies the socket, buffer, and allocator settings of the configuration.
+     *
+     * @param b The bootstrap to configure
+     */
+    private void applyOptions(ServerBootstrap b) {
+        ByteBufAllocator allocator = config.isPooledAllocator()
+            ? new PooledByteBufAllocator(config.isPreferDirect())
+            : new UnpooledByteBufAllocator(config.isPreferDirect());
+
+        b.option(ChannelOption.SO_BACKLOG, config.getBacklog())
+            .option(ChannelOption.ALLOCATOR, allocator)
+            .childOption(ChannelOption.ALLOCATOR, allocator)
+            .childOption(ChannelOption.RCVBUF_ALLOCATOR, new AdaptiveRecvByteBufAllocator(
+                config.getReceiveBufferMinSize(), config.getReceiveBufferInitialSize(), config.getReceiveBufferMaxSize()))
+            .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                config.getWriteBufferLowWaterMark(), config.getWriteBufferHighWaterMark()))
+            .childOption(ChannelOption.TCP_NODELAY, config.isTcpNoDelay())
+            .childOption(ChannelOption.SO_KEEPALIVE, config.isKeepAlive());
+
+        if (config.getSocketReceiveBufferSize() > 0) {
+            // Set on the listening socket so that accepted sockets inherit it before the TCP window is negotiated
+            b.option(ChannelOption.SO_RCVBUF, config.getSocketReceiveBufferSize());
+            b.childOption(ChannelOption.SO_RCVBUF, config.getSocketReceiveBufferSize());
+        }
+        if (config.getSocketSendBufferSize() > 0) {
+            b.childOption(ChannelOption.SO_SNDBUF, config.getSocketSendBufferSize());
+        }
+    }
+
+    /**
+     * Creates the SSL context from the certificate and key configured in the server configuration.
+     *
+     * @return The SSL context
+     * @throws SSLException If the certificate or key cannot be loaded
+     */
+    private SslContext createSslContext() throws SSLException {
+        if (config.getSslCertPath() == null || config.getSslKeyPath() == null) {
+            throw new IllegalStateException("SSL is enabled but the certificate or key path is not set");
+        }
+        return SslContextBuilder.forServer(new File(config.getSslCertPath()), new File(config.getSslKeyPath())).build();
+    }
+
+    /**
+     * Sends a packet to all connected clients.
+     * The packet is encoded once per codec in use, not once per client.
+     *
+     * @param packet The packet to send
+     * @return The number of clients the packet was sent to
+     */
+    public int broadcast(Packet packet) {
+        return sessionManager.broadcast(packet);
+    }
+
+    /**
+     * Sends a packet to all connected clients whose session matches a filter.
+     *
+     * @param packet The packet to send
+     * @param filter The filter selecting the sessions
+     * @return The number of clients the packet was sent to
+     */
+    public int broadcast(Packet packet, Predicate<ClientSession> filter) {
+        return sessionManager.broadcast(packet, filter);
+    }
+
     /**
      * Shuts down the server.
      */
@@ -115,6 +304,9 @@ public class NettyServer {
             workerGroup.shutdownGracefully();
         }
 
+        // Shutdown the handler executors
+        dispatcher.shutdown();
+
         LOGGER.info("Server shut down");
     }
 }
@@ -5,6 +5,9 @@ import de.feelix.ocean.api.packet.OutPacket;
 import de.feelix.ocean.api.packet.PacketType;
 import de.feelix.ocean.server.handler.PacketTypeHandler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Interface for handling packets received by the server.
  */
@@ -17,6 +20,18 @@ public interface PacketHandler {
      */
     OutPacket handlePacket(InPacket packet);
 
+    /**
+     * Handles an incoming packet and returns a stage that completes with the response.
+     * This is what the server calls. By default, it calls {@link #handlePacket(InPacket)}
+     * and returns an already completed stage.
+     *
+     * @param packet The incoming packet
+     * @return A stage that completes with the response packet
+     */
+    default CompletionStage<OutPacket> handlePacketAsync(InPacket packet) {
+        return CompletableFuture.completedFuture(handlePacket(packet));
+    }
+
     /**
      * Registers a handler for a specific packet type.
      *
@@ -0,0 +1,37 @@
+package de.feelix.ocean.server;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Netty channel handler for the server side of the codec handshake.
+ * It answers the first frame of a connection and then replaces itself with the packet codec stages.
+ */
+public class ServerHandshakeHandler extends SimpleChannelInboundHandler<ByteBuf> {
+    private static final Logger LOGGER = Logger.getLogger(ServerHandshakeHandler.class.getName());
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+        List<String> codecNames = CodecHandshake.readRequest(msg);
+        PacketCodec codec = CodecHandshake.select(codecNames);
+
+        if (codec == null) {
+            LOGGER.warning("No common codec with client " + ctx.channel().remoteAddress() + " (offered: " + codecNames + ")");
+            ctx.writeAndFlush(CodecHandshake.writeResponse(ctx.alloc(), null))
+                .addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+
+        ctx.writeAndFlush(CodecHandshake.writeResponse(ctx.alloc(), codec.getName()));
+        CodecHandshake.installCodec(ctx.pipeline(), ctx.name(), codec);
+
+        LOGGER.fine("Negotiated codec '" + codec.getName() + "' with client " + ctx.channel().remoteAddress());
+    }
+}
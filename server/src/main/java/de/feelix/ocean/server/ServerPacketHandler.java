@@ -1,40 +1,145 @@
 package de.feelix.ocean.server;
 
+import de.feelix.ocean.api.packet.ErrorCode;
 import de.feelix.ocean.api.packet.InPacket;
 import de.feelix.ocean.api.packet.OutPacket;
-import de.feelix.ocean.api.serialization.PacketSerializer;
+import de.feelix.ocean.server.config.ServerConfig;
+import de.feelix.ocean.server.dispatch.DispatchMode;
+import de.feelix.ocean.server.dispatch.HandlerDispatcher;
+import de.feelix.ocean.server.dispatch.SerialExecutor;
+import de.feelix.ocean.server.limit.RateLimitAction;
+import de.feelix.ocean.server.limit.RateLimitBuckets;
+import de.feelix.ocean.server.limit.RateLimiter;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import de.feelix.ocean.server.pubsub.PubSubBroker;
 import de.feelix.ocean.server.session.ClientSession;
 import de.feelix.ocean.server.session.SessionManager;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Netty channel handler for processing packets.
+ * Packets are handled on the executor chosen by the {@link HandlerDispatcher} for their type,
+ * in the order they were received, and responses are always written on the channel's event loop
+ * when the handler's stage completes.
+ * Reading from the channel is suspended while it is unwritable or while too many of its requests are
+ * in flight, so a slow or greedy client cannot make the server buffer without bound.
+ * Packets exceeding a rate limit are rejected or make the handler pause reading until the limit allows more.
+ * Subscribe and unsubscribe requests are answered by the {@link PubSubBroker}, if there is one.
+ * One instance is created per channel.
  */
-public class ServerPacketHandler extends SimpleChannelInboundHandler<String> {
+public class ServerPacketHandler extends SimpleChannelInboundHandler<InPacket> {
     private static final Logger LOGGER = Logger.getLogger(ServerPacketHandler.class.getName());
 
     private final PacketHandler packetHandler;
     private final SessionManager sessionManager;
+    private final HandlerDispatcher dispatcher;
+    private final ServerMetrics metrics;
+    private final int maxInFlightRequests;
+    private final boolean pauseReadsWhenUnwritable;
+    private final RateLimiter rateLimiter;
+    private final RateLimitAction rateLimitAction;
+    private final PubSubBroker pubSub;
+    private final SerialExecutor serialExecutor = new SerialExecutor();
+
+    // Only accessed on the event loop
+    private boolean reading;
+    private boolean flushPending;
+    private boolean readSuspended;
+    private boolean throttled;
 
     /**
      * Creates a new ServerPacketHandler with the specified packet handler and session manager.
+     * All packets are handled on the event loop.
      *
      * @param packetHandler The handler for processing packets
      * @param sessionManager The manager for client sessions
      */
     public ServerPacketHandler(PacketHandler packetHandler, SessionManager sessionManager) {
+        this(packetHandler, sessionManager, new HandlerDispatcher());
+    }
+
+    /**
+     * Creates a new ServerPacketHandler with the specified packet handler, session manager, and dispatcher.
+     *
+     * @param packetHandler The handler for processing packets
+     * @param sessionManager The manager for client sessions
+     * @param dispatcher The dispatcher that decides where packets are handled
+     */
+    public ServerPacketHandler(PacketHandler packetHandler, SessionManager sessionManager, HandlerDispatcher dispatcher) {
+        this(packetHandler, sessionManager, dispatcher, new ServerConfig(), new ServerMetrics());
+    }
+
+    /**
+     * Creates a new ServerPacketHandler with the specified packet handler, session manager, dispatcher,
+     * backpressure limits, and metrics.
+     *
+     * @param packetHandler The handler for processing packets
+     * @param sessionManager The manager for client sessions
+     * @param dispatcher The dispatcher that decides where packets are handled
+     * @param config The server configuration providing the backpressure limits
+     * @param metrics The metrics to update
+     */
+    public ServerPacketHandler(PacketHandler packetHandler, SessionManager sessionManager, HandlerDispatcher dispatcher,
+                               ServerConfig config, ServerMetrics metrics) {
+        this(packetHandler, sessionManager, dispatcher, config, metrics, new RateLimiter(config));
+    }
+
+    /**
+     * Creates a new ServerPacketHandler with the specified packet handler, session manager, dispatcher,
+     * backpressure limits, metrics, and rate limiter.
+     *
+     * @param packetHandler The handler for processing packets
+     * @param sessionManager The manager for client sessions
+     * @param dispatcher The dispatcher that decides where packets are handled
+     * @param config The server configuration providing the backpressure limits and the rate limit action
+     * @param metrics The metrics to update
+     * @param rateLimiter The rate limiter shared by all channels
+     */
+    public ServerPacketHandler(PacketHandler packetHandler, SessionManager sessionManager, HandlerDispatcher dispatcher,
+                               ServerConfig config, ServerMetrics metrics, RateLimiter rateLimiter) {
+        this(packetHandler, sessionManager, dispatcher, config, metrics, rateLimiter, null);
+    }
+
+    /**
+     * Creates a new ServerPacketHandler with the specified packet handler, session manager, dispatcher,
+     * backpressure limits, metrics, rate limiter, and publish/subscribe broker.
+     *
+     * @param packetHandler The handler for processing packets
+     * @param sessionManager The manager for client sessions
+     * @param dispatcher The dispatcher that decides where packets are handled
+     * @param config The server configuration providing the backpressure limits and the rate limit action
+     * @param metrics The metrics to update
+     * @param rateLimiter The rate limiter shared by all channels
+     * @param pubSub The broker answering subscribe and unsubscribe requests, or null to pass them to the packet handler
+     */
+    public ServerPacketHandler(PacketHandler packetHandler, SessionManager sessionManager, HandlerDispatcher dispatcher,
+                               ServerConfig config, ServerMetrics metrics, RateLimiter rateLimiter, PubSubBroker pubSub) {
         this.packetHandler = packetHandler;
         this.sessionManager = sessionManager;
+        this.dispatcher = dispatcher;
+        this.metrics = metrics;
+        this.maxInFlightRequests = config.getMaxInFlightRequests();
+        this.pauseReadsWhenUnwritable = config.isPauseReadsWhenUnwritable();
+        this.rateLimiter = rateLimiter.isEnabled() ? rateLimiter : null;
+        this.rateLimitAction = config.getRateLimitAction();
+        this.pubSub = pubSub;
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
         // Create a new session for the client
         ClientSession session = sessionManager.createSession(ctx.channel());
+        if (rateLimiter != null) {
+            session.setRateLimitBuckets(rateLimiter.newBuckets());
+        }
         LOGGER.info("Client connected: " + ctx.channel().remoteAddress() + " (Session ID: " + session.getSessionId() + ")");
     }
 
@@ -45,10 +150,24 @@ public class ServerPacketHandler extends SimpleChannelInboundHandler<String> {
         if (session != null) {
             LOGGER.info("Client disconnected: " + ctx.channel().remoteAddress() + " (Session ID: " + session.getSessionId() + ")");
         }
+        if (readSuspended) {
+            readSuspended = false;
+            metrics.readResumed();
+        }
     }
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, String msg) {
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            metrics.channelUnwritable();
+        }
+        updateAutoRead(ctx, sessionManager.getSession(ctx.channel()));
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, InPacket inPacket) {
+        reading = true;
         try {
             // Get the client session
             ClientSession session = sessionManager.getSession(ctx.channel());
@@ -60,23 +179,183 @@ public class ServerPacketHandler extends SimpleChannelInboundHandler<String> {
             // Update the last activity time
             session.updateLastActivityTime();
 
-            // Deserialize the incoming packet
-            InPacket inPacket = (InPacket) PacketSerializer.deserialize(msg);
-
-            // Process the packet and get the response
-            OutPacket outPacket = packetHandler.handlePacket(inPacket);
+            RateLimitBuckets buckets = session.getRateLimitBuckets();
+            if (buckets != null && !checkRateLimit(ctx, session, buckets, inPacket)) {
+                return;
+            }
 
-            // Serialize and send the response
-            String response = PacketSerializer.serialize(outPacket);
-            ctx.writeAndFlush(response);
+            // Count the request until its response is written, pausing reads if there are too many
+            session.incrementInFlightRequests();
+            metrics.requestReceived();
+            updateAutoRead(ctx, session);
 
-            LOGGER.fine("Processed packet from client: " + ctx.channel().remoteAddress() + 
-                " (Session ID: " + session.getSessionId() + ", Transaction ID: " + inPacket.getTransactionId() + ")");
+            DispatchMode mode = dispatcher.getMode(inPacket.getType());
+            if (mode == DispatchMode.EVENT_LOOP && serialExecutor.isIdle()) {
+                // Nothing is queued for this session, so the packet can be handled right away
+                processPacket(ctx, session, inPacket);
+            } else {
+                // Queue behind earlier packets of this session to keep them in order. If the executor
+                // rejects the packet, answer it anyway so that its in-flight slot is released
+                serialExecutor.execute(dispatcher.getExecutor(mode, ctx.channel()),
+                    () -> processPacket(ctx, session, inPacket),
+                    () -> completeRequest(ctx, session, inPacket, OutPacket.Builder.overloaded(
+                        inPacket.getTransactionId(), "Server overloaded, retry later")));
+            }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error processing packet: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        // Flush all responses written while the last batch of packets was read in one go
+        reading = false;
+        if (flushPending) {
+            flushPending = false;
+            ctx.flush();
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    /**
+     * Takes a permit for a packet and applies the rate limit action if the packet exceeds a limit.
+     *
+     * @param ctx The channel handler context
+     * @param session The client session
+     * @param buckets The rate limit state of the session
+     * @param inPacket The packet
+     * @return true if the packet should be handled, false if it was rejected
+     */
+    private boolean checkRateLimit(ChannelHandlerContext ctx, ClientSession session, RateLimitBuckets buckets, InPacket inPacket) {
+        long now = System.nanoTime();
+        if (rateLimitAction == RateLimitAction.REJECT) {
+            if (rateLimiter.tryAcquire(buckets, inPacket.getType(), now) == 0) {
+                return true;
+            }
+            metrics.requestRateLimited();
+            ctx.write(OutPacket.Builder.error(inPacket.getTransactionId(), ErrorCode.RATE_LIMITED, "Rate limit exceeded"));
+            flushPending = true;
+            return false;
+        }
+
+        // Packets already read are handled anyway, but their permits are taken so that the pause lasts
+        // until the session is back within its limits
+        long delay = rateLimiter.acquire(buckets, inPacket.getType(), now);
+        if (delay > 0) {
+            metrics.requestRateLimited();
+            if (!throttled) {
+                throttled = true;
+                updateAutoRead(ctx, session);
+                ctx.executor().schedule(() -> {
+                    throttled = false;
+                    updateAutoRead(ctx, session);
+                }, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Handles a packet and writes the response once it is available.
+     * This runs on the executor chosen by the dispatcher; asynchronous handlers return before their
+     * response is ready, so no thread is held while they wait.
+     *
+     * @param ctx The channel handler context
+     * @param session The client session
+     * @param inPacket The packet to handle
+     */
+    private void processPacket(ChannelHandlerContext ctx, ClientSession session, InPacket inPacket) {
+        CompletionStage<OutPacket> stage;
+        try {
+            if (pubSub != null && PubSubBroker.isRequest(inPacket)) {
+                stage = CompletableFuture.completedFuture(pubSub.handleRequest(session, inPacket));
+            } else {
+                // Process the packet and get the response
+                stage = packetHandler.handlePacketAsync(inPacket);
+            }
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        stage.whenComplete((outPacket, cause) -> {
+            if (cause != null) {
+                LOGGER.log(Level.SEVERE, "Error processing packet: " + cause.getMessage(), cause);
+                outPacket = OutPacket.Builder.error(inPacket.getTransactionId(), "Error processing packet: " + cause.getMessage());
+            }
+            completeRequest(ctx, session, inPacket, outPacket);
+        });
+    }
+
+    /**
+     * Finishes a request on the channel's event loop: writes its response and releases its in-flight slot.
+     * Responses produced while packets are being read are only flushed once the read completes,
+     * so a batch of pipelined requests costs a single flush. Responses completed at any other time
+     * are flushed right away and coalesced by the flush consolidation handler, if there is one.
+     *
+     * @param ctx The channel handler context
+     * @param session The client session
+     * @param inPacket The request packet
+     * @param outPacket The response packet, or null if the handler did not produce one
+     */
+    private void completeRequest(ChannelHandlerContext ctx, ClientSession session, InPacket inPacket, OutPacket outPacket) {
+        EventLoop eventLoop = ctx.channel().eventLoop();
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> completeRequest(ctx, session, inPacket, outPacket));
+            return;
+        }
+
+        session.decrementInFlightRequests();
+        metrics.requestCompleted(outPacket != null);
+
+        if (outPacket == null) {
+            LOGGER.warning("Packet handler returned no response (Transaction ID: " + inPacket.getTransactionId() + ")");
+        } else if (reading) {
+            // The pipeline encodes the response with the negotiated codec
+            ctx.write(outPacket);
+            flushPending = true;
+        } else {
+            ctx.writeAndFlush(outPacket);
+        }
+        updateAutoRead(ctx, session);
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Processed packet from client: " + ctx.channel().remoteAddress() +
+                " (Session ID: " + session.getSessionId() + ", Transaction ID: " + inPacket.getTransactionId() + ")");
+        }
+    }
+
+    /**
+     * Suspends or resumes reading from the channel depending on its writability, the number of
+     * in-flight requests, and whether it is throttled by a rate limit. Reading is suspended once the
+     * in-flight limit is reached and only resumed when at most half of it is left, so the channel does
+     * not flap around the limit.
+     * This must only be called on the channel's event loop.
+     *
+     * @param ctx The channel handler context
+     * @param session The client session, or null if there is none
+     */
+    private void updateAutoRead(ChannelHandlerContext ctx, ClientSession session) {
+        boolean tooManyRequests = false;
+        if (maxInFlightRequests > 0 && session != null) {
+            int inFlight = session.getInFlightRequests();
+            tooManyRequests = readSuspended ? inFlight > maxInFlightRequests / 2 : inFlight >= maxInFlightRequests;
+        }
+        boolean overloaded = tooManyRequests || throttled || (pauseReadsWhenUnwritable && !ctx.channel().isWritable());
+        if (overloaded == readSuspended) {
+            return;
+        }
+
+        readSuspended = overloaded;
+        ctx.channel().config().setAutoRead(!overloaded);
+        if (overloaded) {
+            metrics.readSuspended();
+            LOGGER.fine("Suspended reading from client: " + ctx.channel().remoteAddress());
+        } else {
+            metrics.readResumed();
+            LOGGER.fine("Resumed reading from client: " + ctx.channel().remoteAddress());
+        }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         LOGGER.log(Level.SEVERE, "Channel exception: " + cause.getMessage(), cause);
@@ -4,15 +4,25 @@ import de.feelix.ocean.api.packet.InPacket;
 import de.feelix.ocean.api.packet.OutPacket;
 import de.feelix.ocean.api.packet.PacketType;
 import de.feelix.ocean.api.packet.SimpleInPacket;
+import de.feelix.ocean.api.serialization.PacketTypeMap;
 import de.feelix.ocean.server.handler.PacketHandlerRegistry;
 import de.feelix.ocean.server.handler.PacketTypeHandler;
 import de.feelix.ocean.server.handler.SimpleInPacketHandler;
+import de.feelix.ocean.server.limit.AdaptiveConcurrencyLimiter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * A simple implementation of the PacketHandler interface.
  * This handler uses a registry of type-specific handlers to process packets.
+ * Packet types can be guarded by an {@link AdaptiveConcurrencyLimiter} that sheds load once the
+ * latency of their handler starts to rise.
  */
 public class SimplePacketHandler implements PacketHandler {
+    private final PacketTypeMap<AdaptiveConcurrencyLimiter> limiters = new PacketTypeMap<>();
+    private volatile boolean concurrencyLimiting;
 
     /**
      * Creates a new SimplePacketHandler and registers the default handlers.
@@ -22,8 +32,69 @@ public class SimplePacketHandler implements PacketHandler {
         registerHandler(PacketType.SIMPLE_IN_PACKET, new SimpleInPacketHandler());
     }
 
+    /**
+     * Checks if every packet type without an explicit limiter gets its own adaptive concurrency limiter.
+     *
+     * @return true if concurrency limiting is enabled for all packet types, false otherwise
+     */
+    public boolean isConcurrencyLimiting() {
+        return concurrencyLimiting;
+    }
+
+    /**
+     * Sets whether every packet type without an explicit limiter gets its own adaptive concurrency limiter.
+     * Requests beyond the limit of their type are rejected right away with a retryable
+     * {@link de.feelix.ocean.api.packet.ErrorCode#OVERLOADED} error.
+     *
+     * @param concurrencyLimiting true to limit all packet types, false to only limit those with an explicit limiter
+     */
+    public void setConcurrencyLimiting(boolean concurrencyLimiting) {
+        this.concurrencyLimiting = concurrencyLimiting;
+    }
+
+    /**
+     * Sets the concurrency limiter for a packet type.
+     * A type with a limiter is limited even if concurrency limiting is not enabled for all types.
+     *
+     * @param type The packet type
+     * @param limiter The limiter, or null to remove it
+     */
+    public void setConcurrencyLimiter(PacketType type, AdaptiveConcurrencyLimiter limiter) {
+        if (limiter == null) {
+            limiters.remove(type);
+        } else {
+            limiters.put(type, limiter);
+        }
+    }
+
+    /**
+     * Gets the concurrency limiter for a packet type.
+     *
+     * @param type The packet type
+     * @return The limiter, or null if the packet type is not limited
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(PacketType type) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(type);
+        if (limiter == null && concurrencyLimiting) {
+            synchronized (limiters) {
+                limiter = limiters.get(type);
+                if (limiter == null) {
+                    limiter = new AdaptiveConcurrencyLimiter();
+                    limiters.put(type, limiter);
+                }
+            }
+        }
+        return limiter;
+    }
+
     @Override
     public OutPacket handlePacket(InPacket packet) {
+        // The async path never completes exceptionally, failures become error responses
+        return handlePacketAsync(packet).toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<OutPacket> handlePacketAsync(InPacket packet) {
         try {
             // Validate the packet
             packet.validate();
@@ -31,23 +102,77 @@ public class SimplePacketHandler implements PacketHandler {
             // Get the handler for the packet type
             PacketTypeHandler<InPacket> handler = PacketHandlerRegistry.getHandler(packet);
 
-            if (handler != null) {
-                // Handle the packet using the appropriate handler
-                return handler.handle(packet);
-            } else {
+            if (handler == null) {
                 // No handler found for this packet type
-                return OutPacket.Builder.error(
+                return CompletableFuture.completedFuture(OutPacket.Builder.error(
                     packet.getTransactionId(),
                     "No handler found for packet type: " + packet.getType()
-                );
+                ));
+            }
+
+            AdaptiveConcurrencyLimiter limiter = getConcurrencyLimiter(packet.getType());
+            if (limiter == null) {
+                // Handle the packet, turning a failed stage into an error response
+                return handleAsync(handler, packet).exceptionally(e -> errorResponse(packet, e));
             }
+
+            // Shed the request right away if its type is at its limit
+            if (!limiter.tryAcquire()) {
+                return CompletableFuture.completedFuture(OutPacket.Builder.overloaded(
+                    packet.getTransactionId(),
+                    "Server overloaded, retry later"
+                ));
+            }
+            long start = System.nanoTime();
+            CompletionStage<OutPacket> stage = null;
+            try {
+                stage = handleAsync(handler, packet);
+            } finally {
+                if (stage == null) {
+                    // The handler failed before it returned a stage, so no completion will release the permit
+                    limiter.release(System.nanoTime() - start);
+                }
+            }
+            return stage
+                .whenComplete((response, cause) -> limiter.release(System.nanoTime() - start))
+                .exceptionally(e -> errorResponse(packet, e));
         } catch (Exception e) {
-            // Handle any exceptions
-            return OutPacket.Builder.error(
-                packet.getTransactionId(),
-                "Error processing packet: " + e.getMessage()
-            );
+            // Handle any exceptions thrown before the stage was created
+            return CompletableFuture.completedFuture(errorResponse(packet, e));
+        }
+    }
+
+    /**
+     * Passes a packet to its handler.
+     *
+     * @param handler The handler
+     * @param packet The packet
+     * @return The stage returned by the handler
+     * @throws IllegalStateException if the handler returned no stage
+     */
+    private static CompletionStage<OutPacket> handleAsync(PacketTypeHandler<InPacket> handler, InPacket packet) {
+        CompletionStage<OutPacket> stage = handler.handleAsync(packet);
+        if (stage == null) {
+            throw new IllegalStateException("Handler for " + packet.getType() + " returned no response stage");
+        }
+        return stage;
+    }
+
+    /**
+     * Creates the error response for a packet whose handler failed.
+     *
+     * @param packet The packet
+     * @param cause The failure
+     * @return The error response
+     */
+    private static OutPacket errorResponse(InPacket packet, Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return OutPacket.Builder.error(
+            packet.getTransactionId(),
+            "Error processing packet: " + cause.getMessage()
+        );
     }
 
     @Override
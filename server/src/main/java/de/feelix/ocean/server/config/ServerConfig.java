@@ -1,6 +1,16 @@
 package de.feelix.ocean.server.config;
 
+import de.feelix.ocean.api.network.TransportType;
+import de.feelix.ocean.api.network.VarIntFrameDecoder;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.server.limit.RateLimit;
+import de.feelix.ocean.server.limit.RateLimitAction;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
 import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Configuration for the server.
@@ -14,6 +24,31 @@ public class ServerConfig {
     private boolean enableSsl;
     private String sslCertPath;
     private String sslKeyPath;
+    private TransportType transportType;
+    private boolean reusePort;
+    private int tcpFastOpen;
+    private int backlog;
+    private boolean pooledAllocator;
+    private boolean preferDirect;
+    private int receiveBufferMinSize;
+    private int receiveBufferInitialSize;
+    private int receiveBufferMaxSize;
+    private int writeBufferLowWaterMark;
+    private int writeBufferHighWaterMark;
+    private boolean tcpNoDelay;
+    private boolean keepAlive;
+    private int socketReceiveBufferSize;
+    private int socketSendBufferSize;
+    private int maxFrameLength;
+    private int flushConsolidationLimit;
+    private int maxInFlightRequests;
+    private boolean pauseReadsWhenUnwritable;
+    private RateLimit sessionRateLimit;
+    private final Map<PacketType, RateLimit> packetRateLimits = new LinkedHashMap<>();
+    private RateLimitAction rateLimitAction;
+    private Duration readerIdleTime;
+    private Duration writerIdleTime;
+    private int maxMissedHeartbeats;
     
     /**
      * Creates a new ServerConfig with default values.
@@ -26,6 +61,30 @@ public class ServerConfig {
         this.enableSsl = false;
         this.sslCertPath = null;
         this.sslKeyPath = null;
+        this.transportType = TransportType.AUTO;
+        this.reusePort = false;
+        this.tcpFastOpen = 0;
+        this.backlog = 128;
+        this.pooledAllocator = true;
+        this.preferDirect = true;
+        this.receiveBufferMinSize = 64;
+        this.receiveBufferInitialSize = 2048;
+        this.receiveBufferMaxSize = 65536;
+        this.writeBufferLowWaterMark = 32 * 1024;
+        this.writeBufferHighWaterMark = 64 * 1024;
+        this.tcpNoDelay = true;
+        this.keepAlive = true;
+        this.socketReceiveBufferSize = 0; // 0 means use the operating system default
+        this.socketSendBufferSize = 0; // 0 means use the operating system default
+        this.maxFrameLength = VarIntFrameDecoder.DEFAULT_MAX_FRAME_LENGTH;
+        this.flushConsolidationLimit = FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES;
+        this.maxInFlightRequests = 1024;
+        this.pauseReadsWhenUnwritable = true;
+        this.sessionRateLimit = null;
+        this.rateLimitAction = RateLimitAction.REJECT;
+        this.readerIdleTime = Duration.ofSeconds(30);
+        this.writerIdleTime = Duration.ZERO; // Zero disables pings on write idleness
+        this.maxMissedHeartbeats = 2;
     }
     
     /**
@@ -167,4 +226,528 @@ public class ServerConfig {
         this.sslKeyPath = sslKeyPath;
         return this;
     }
+    
+    /**
+     * Gets the transport type.
+     *
+     * @return The transport type
+     */
+    public TransportType getTransportType() {
+        return transportType;
+    }
+    
+    /**
+     * Sets the transport type.
+     * {@link TransportType#AUTO} uses a native transport if one is available and NIO otherwise.
+     *
+     * @param transportType The transport type
+     * @return This config
+     */
+    public ServerConfig setTransportType(TransportType transportType) {
+        this.transportType = transportType;
+        return this;
+    }
+    
+    /**
+     * Checks if SO_REUSEPORT is enabled.
+     *
+     * @return true if SO_REUSEPORT is enabled, false otherwise
+     */
+    public boolean isReusePort() {
+        return reusePort;
+    }
+    
+    /**
+     * Sets whether SO_REUSEPORT is enabled.
+     * With a native transport, the server then binds one listening socket per boss thread and lets
+     * the kernel balance incoming connections between them. It is ignored with NIO.
+     *
+     * @param reusePort true to enable SO_REUSEPORT, false to disable
+     * @return This config
+     */
+    public ServerConfig setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+    
+    /**
+     * Gets the TCP Fast Open queue length.
+     *
+     * @return The queue length, or 0 if TCP Fast Open is disabled
+     */
+    public int getTcpFastOpen() {
+        return tcpFastOpen;
+    }
+    
+    /**
+     * Sets the TCP Fast Open queue length.
+     * TCP Fast Open lets clients send data with the SYN packet when they reconnect.
+     * It requires the epoll transport and is ignored otherwise.
+     *
+     * @param tcpFastOpen The queue length, or 0 to disable TCP Fast Open
+     * @return This config
+     */
+    public ServerConfig setTcpFastOpen(int tcpFastOpen) {
+        this.tcpFastOpen = tcpFastOpen;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum length of the queue of pending connections.
+     *
+     * @return The maximum length of the queue of pending connections
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+    
+    /**
+     * Sets the maximum length of the queue of pending connections.
+     *
+     * @param backlog The backlog
+     * @return This config
+     */
+    public ServerConfig setBacklog(int backlog) {
+        this.backlog = backlog;
+        return this;
+    }
+    
+    /**
+     * Checks if pooled buffers are used.
+     *
+     * @return true if pooled buffers are used, false otherwise
+     */
+    public boolean isPooledAllocator() {
+        return pooledAllocator;
+    }
+    
+    /**
+     * Sets whether pooled buffers are used.
+     * Pooled buffers greatly reduce allocation and garbage collection under load.
+     *
+     * @param pooledAllocator true to use pooled buffers, false to allocate a new buffer every time
+     * @return This config
+     */
+    public ServerConfig setPooledAllocator(boolean pooledAllocator) {
+        this.pooledAllocator = pooledAllocator;
+        return this;
+    }
+    
+    /**
+     * Checks if direct buffers are preferred.
+     *
+     * @return true if direct buffers are preferred, false otherwise
+     */
+    public boolean isPreferDirect() {
+        return preferDirect;
+    }
+    
+    /**
+     * Sets whether direct buffers are preferred over heap buffers.
+     *
+     * @param preferDirect true to prefer direct buffers, false to prefer heap buffers
+     * @return This config
+     */
+    public ServerConfig setPreferDirect(boolean preferDirect) {
+        this.preferDirect = preferDirect;
+        return this;
+    }
+    
+    /**
+     * Gets the minimum size of the buffer used for a single read.
+     *
+     * @return The minimum size of the buffer used for a single read
+     */
+    public int getReceiveBufferMinSize() {
+        return receiveBufferMinSize;
+    }
+    
+    /**
+     * Sets the minimum size of the buffer used for a single read.
+     * The size adapts between the minimum and the maximum depending on how much data each read returns.
+     *
+     * @param receiveBufferMinSize The minimum size in bytes
+     * @return This config
+     */
+    public ServerConfig setReceiveBufferMinSize(int receiveBufferMinSize) {
+        this.receiveBufferMinSize = receiveBufferMinSize;
+        return this;
+    }
+    
+    /**
+     * Gets the initial size of the buffer used for a single read.
+     *
+     * @return The initial size of the buffer used for a single read
+     */
+    public int getReceiveBufferInitialSize() {
+        return receiveBufferInitialSize;
+    }
+    
+    /**
+     * Sets the initial size of the buffer used for a single read.
+     *
+     * @param receiveBufferInitialSize The initial size in bytes
+     * @return This config
+     */
+    public ServerConfig setReceiveBufferInitialSize(int receiveBufferInitialSize) {
+        this.receiveBufferInitialSize = receiveBufferInitialSize;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum size of the buffer used for a single read.
+     *
+     * @return The maximum size of the buffer used for a single read
+     */
+    public int getReceiveBufferMaxSize() {
+        return receiveBufferMaxSize;
+    }
+    
+    /**
+     * Sets the maximum size of the buffer used for a single read.
+     *
+     * @param receiveBufferMaxSize The maximum size in bytes
+     * @return This config
+     */
+    public ServerConfig setReceiveBufferMaxSize(int receiveBufferMaxSize) {
+        this.receiveBufferMaxSize = receiveBufferMaxSize;
+        return this;
+    }
+    
+    /**
+     * Gets the number of queued outbound bytes below which a channel becomes writable again.
+     *
+     * @return The number of queued outbound bytes below which a channel becomes writable again
+     */
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+    
+    /**
+     * Sets the number of queued outbound bytes below which a channel becomes writable again.
+     *
+     * @param writeBufferLowWaterMark The low water mark in bytes
+     * @return This config
+     */
+    public ServerConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        return this;
+    }
+    
+    /**
+     * Gets the number of queued outbound bytes above which a channel is no longer writable.
+     *
+     * @return The number of queued outbound bytes above which a channel is no longer writable
+     */
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+    
+    /**
+     * Sets the number of queued outbound bytes above which a channel is no longer writable.
+     *
+     * @param writeBufferHighWaterMark The high water mark in bytes
+     * @return This config
+     */
+    public ServerConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        return this;
+    }
+    
+    /**
+     * Checks if TCP_NODELAY is enabled.
+     *
+     * @return true if TCP_NODELAY is enabled, false otherwise
+     */
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+    
+    /**
+     * Sets whether TCP_NODELAY is enabled, which disables Nagle's algorithm.
+     *
+     * @param tcpNoDelay true to enable TCP_NODELAY, false to disable
+     * @return This config
+     */
+    public ServerConfig setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+    
+    /**
+     * Checks if SO_KEEPALIVE is enabled.
+     *
+     * @return true if SO_KEEPALIVE is enabled, false otherwise
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+    
+    /**
+     * Sets whether SO_KEEPALIVE is enabled.
+     *
+     * @param keepAlive true to enable SO_KEEPALIVE, false to disable
+     * @return This config
+     */
+    public ServerConfig setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+    
+    /**
+     * Gets the socket receive buffer size (SO_RCVBUF).
+     *
+     * @return The socket receive buffer size (SO_RCVBUF)
+     */
+    public int getSocketReceiveBufferSize() {
+        return socketReceiveBufferSize;
+    }
+    
+    /**
+     * Sets the socket receive buffer size (SO_RCVBUF).
+     *
+     * @param socketReceiveBufferSize The size in bytes, or 0 to use the operating system default
+     * @return This config
+     */
+    public ServerConfig setSocketReceiveBufferSize(int socketReceiveBufferSize) {
+        this.socketReceiveBufferSize = socketReceiveBufferSize;
+        return this;
+    }
+    
+    /**
+     * Gets the socket send buffer size (SO_SNDBUF).
+     *
+     * @return The socket send buffer size (SO_SNDBUF)
+     */
+    public int getSocketSendBufferSize() {
+        return socketSendBufferSize;
+    }
+    
+    /**
+     * Sets the socket send buffer size (SO_SNDBUF).
+     *
+     * @param socketSendBufferSize The size in bytes, or 0 to use the operating system default
+     * @return This config
+     */
+    public ServerConfig setSocketSendBufferSize(int socketSendBufferSize) {
+        this.socketSendBufferSize = socketSendBufferSize;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum length of a single frame.
+     *
+     * @return The maximum length of a single frame
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+    
+    /**
+     * Sets the maximum length of a single frame.
+     * Frames exceeding this length cause the connection to be closed.
+     *
+     * @param maxFrameLength The maximum frame length in bytes
+     * @return This config
+     */
+    public ServerConfig setMaxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        return this;
+    }
+    
+    /**
+     * Gets the number of flushes after which a consolidated flush is forced.
+     *
+     * @return The flush consolidation limit, or 0 if flush consolidation is disabled
+     */
+    public int getFlushConsolidationLimit() {
+        return flushConsolidationLimit;
+    }
+    
+    /**
+     * Sets the number of flushes after which a consolidated flush is forced.
+     * Responses that complete outside of a read, for example from asynchronous handlers, are flushed
+     * together at the end of the current event loop iteration, or after this many flushes.
+     *
+     * @param flushConsolidationLimit The flush consolidation limit, or 0 to disable flush consolidation
+     * @return This config
+     */
+    public ServerConfig setFlushConsolidationLimit(int flushConsolidationLimit) {
+        this.flushConsolidationLimit = flushConsolidationLimit;
+        return this;
+    }
+    
+    /**
+     * Gets the maximum number of in-flight requests per client.
+     *
+     * @return The maximum number of in-flight requests, or 0 if there is no limit
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+    
+    /**
+     * Sets the maximum number of in-flight requests per client.
+     * Once a client has this many requests whose responses have not been written yet, the server stops
+     * reading from its connection until some of them complete. Requests that were already received in the
+     * same read are still handled, so the limit may be exceeded slightly.
+     *
+     * @param maxInFlightRequests The maximum number of in-flight requests, or 0 for no limit
+     * @return This config
+     */
+    public ServerConfig setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+    
+    /**
+     * Checks if reading is suspended while a connection is unwritable.
+     *
+     * @return true if reading is suspended while a connection is unwritable, false otherwise
+     */
+    public boolean isPauseReadsWhenUnwritable() {
+        return pauseReadsWhenUnwritable;
+    }
+    
+    /**
+     * Sets whether reading is suspended while a connection is unwritable.
+     * A connection becomes unwritable when more than the write buffer high water mark is queued for it,
+     * and writable again once the queue drops below the low water mark.
+     *
+     * @param pauseReadsWhenUnwritable true to suspend reading while unwritable, false to keep reading
+     * @return This config
+     */
+    public ServerConfig setPauseReadsWhenUnwritable(boolean pauseReadsWhenUnwritable) {
+        this.pauseReadsWhenUnwritable = pauseReadsWhenUnwritable;
+        return this;
+    }
+    
+    /**
+     * Gets the rate limit for all packets of a client.
+     *
+     * @return The session rate limit, or null if there is none
+     */
+    public RateLimit getSessionRateLimit() {
+        return sessionRateLimit;
+    }
+    
+    /**
+     * Sets the rate limit for all packets of a client.
+     *
+     * @param sessionRateLimit The session rate limit, or null for no limit
+     * @return This config
+     */
+    public ServerConfig setSessionRateLimit(RateLimit sessionRateLimit) {
+        this.sessionRateLimit = sessionRateLimit;
+        return this;
+    }
+    
+    /**
+     * Gets the rate limits for individual packet types.
+     *
+     * @return An unmodifiable view of the packet type rate limits
+     */
+    public Map<PacketType, RateLimit> getPacketRateLimits() {
+        return Collections.unmodifiableMap(packetRateLimits);
+    }
+    
+    /**
+     * Sets the rate limit for the packets of a type sent by a client.
+     * Packet type limits apply in addition to the session rate limit.
+     *
+     * @param type The packet type
+     * @param rateLimit The rate limit, or null to remove it
+     * @return This config
+     */
+    public ServerConfig setPacketRateLimit(PacketType type, RateLimit rateLimit) {
+        if (rateLimit == null) {
+            packetRateLimits.remove(type);
+        } else {
+            packetRateLimits.put(type, rateLimit);
+        }
+        return this;
+    }
+    
+    /**
+     * Gets what the server does with packets that exceed a rate limit.
+     *
+     * @return The rate limit action
+     */
+    public RateLimitAction getRateLimitAction() {
+        return rateLimitAction;
+    }
+    
+    /**
+     * Sets what the server does with packets that exceed a rate limit.
+     *
+     * @param rateLimitAction The rate limit action
+     * @return This config
+     */
+    public ServerConfig setRateLimitAction(RateLimitAction rateLimitAction) {
+        this.rateLimitAction = rateLimitAction;
+        return this;
+    }
+    
+    /**
+     * Gets the time without reading from a connection after which the server sends a heartbeat ping.
+     *
+     * @return The reader idle time, or zero if heartbeats are disabled
+     */
+    public Duration getReaderIdleTime() {
+        return readerIdleTime;
+    }
+    
+    /**
+     * Sets the time without reading from a connection after which the server sends a heartbeat ping.
+     * Clients answer pings automatically, so a connection that stays silent for
+     * {@code maxMissedHeartbeats + 1} times this period is considered dead and closed.
+     *
+     * @param readerIdleTime The reader idle time, or zero to disable heartbeats
+     * @return This config
+     */
+    public ServerConfig setReaderIdleTime(Duration readerIdleTime) {
+        this.readerIdleTime = readerIdleTime;
+        return this;
+    }
+    
+    /**
+     * Gets the time without writing to a connection after which the server sends a heartbeat ping.
+     *
+     * @return The writer idle time, or zero if idle writes do not trigger pings
+     */
+    public Duration getWriterIdleTime() {
+        return writerIdleTime;
+    }
+    
+    /**
+     * Sets the time without writing to a connection after which the server sends a heartbeat ping.
+     * This keeps idle connections alive through NATs and firewalls that drop silent flows.
+     *
+     * @param writerIdleTime The writer idle time, or zero to only ping on reader idleness
+     * @return This config
+     */
+    public ServerConfig setWriterIdleTime(Duration writerIdleTime) {
+        this.writerIdleTime = writerIdleTime;
+        return this;
+    }
+    
+    /**
+     * Gets the number of unanswered heartbeats after which a connection is closed.
+     *
+     * @return The maximum number of missed heartbeats
+     */
+    public int getMaxMissedHeartbeats() {
+        return maxMissedHeartbeats;
+    }
+    
+    /**
+     * Sets the number of unanswered heartbeats after which a connection is closed.
+     *
+     * @param maxMissedHeartbeats The maximum number of missed heartbeats
+     * @return This config
+     */
+    public ServerConfig setMaxMissedHeartbeats(int maxMissedHeartbeats) {
+        this.maxMissedHeartbeats = maxMissedHeartbeats;
+        return this;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package de.feelix.ocean.server.dispatch;
+
+/**
+ * Determines on which thread the handler for a packet runs.
+ */
+public enum DispatchMode {
+    /**
+     * Runs the handler directly on the channel's event loop.
+     * This has the lowest latency, but a slow handler stalls every connection on that event loop.
+     */
+    EVENT_LOOP,
+
+    /**
+     * Runs the handler on the dispatcher's dedicated worker pool.
+     */
+    WORKER_POOL,
+
+    /**
+     * Runs the handler on a virtual thread.
+     * Falls back to {@link #WORKER_POOL} if the JDK does not support virtual threads.
+     */
+    VIRTUAL_THREAD
+}
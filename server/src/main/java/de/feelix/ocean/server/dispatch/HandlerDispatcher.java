@@ -0,0 +1,197 @@
+package de.feelix.ocean.server.dispatch;
+
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.serialization.PacketTypeMap;
+import io.netty.channel.Channel;
+import io.netty.util.NettyRuntime;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decides on which executor the handler for a packet runs.
+ * The {@link DispatchMode} can be configured per packet type, with a default for all other types.
+ * The worker pool and the virtual thread executor are created on first use.
+ */
+public class HandlerDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(HandlerDispatcher.class.getName());
+
+    private final PacketTypeMap<DispatchMode> modes = new PacketTypeMap<>();
+    private final int workerThreads;
+    private volatile DispatchMode defaultMode;
+    private volatile ExecutorService workerPool;
+    private volatile ExecutorService virtualThreadExecutor;
+    private boolean shutdown;
+
+    /**
+     * Creates a new HandlerDispatcher that runs all handlers on the event loop by default.
+     * The worker pool uses twice as many threads as there are available processors.
+     */
+    public HandlerDispatcher() {
+        this(DispatchMode.EVENT_LOOP, NettyRuntime.availableProcessors() * 2);
+    }
+
+    /**
+     * Creates a new HandlerDispatcher with the specified default mode and worker pool size.
+     *
+     * @param defaultMode The mode for packet types without an explicit mode
+     * @param workerThreads The number of threads in the worker pool
+     */
+    public HandlerDispatcher(DispatchMode defaultMode, int workerThreads) {
+        if (defaultMode == null) {
+            throw new IllegalArgumentException("Default mode cannot be null");
+        }
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Worker threads must be positive: " + workerThreads);
+        }
+        this.defaultMode = defaultMode;
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Checks if the running JDK supports virtual threads.
+     *
+     * @return true if virtual threads are supported, false otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the mode used for packet types without an explicit mode.
+     *
+     * @return The default mode
+     */
+    public DispatchMode getDefaultMode() {
+        return defaultMode;
+    }
+
+    /**
+     * Sets the mode used for packet types without an explicit mode.
+     *
+     * @param defaultMode The default mode
+     * @return This dispatcher
+     */
+    public HandlerDispatcher setDefaultMode(DispatchMode defaultMode) {
+        if (defaultMode == null) {
+            throw new IllegalArgumentException("Default mode cannot be null");
+        }
+        this.defaultMode = defaultMode;
+        return this;
+    }
+
+    /**
+     * Sets the mode for a packet type.
+     *
+     * @param type The packet type
+     * @param mode The mode, or null to use the default mode
+     * @return This dispatcher
+     */
+    public HandlerDispatcher setMode(PacketType type, DispatchMode mode) {
+        if (mode == null) {
+            modes.remove(type);
+        } else {
+            modes.put(type, mode);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the mode for a packet type.
+     *
+     * @param type The packet type
+     * @return The mode for the packet type, or the default mode if none is set
+     */
+    public DispatchMode getMode(PacketType type) {
+        DispatchMode mode = modes.get(type);
+        return mode != null ? mode : defaultMode;
+    }
+
+    /**
+     * Gets the executor for a mode.
+     *
+     * @param mode The mode
+     * @param channel The channel the packet was received on
+     * @return The executor to run the handler on
+     */
+    public Executor getExecutor(DispatchMode mode, Channel channel) {
+        switch (mode) {
+            case WORKER_POOL:
+                return workerPool();
+            case VIRTUAL_THREAD:
+                return virtualThreadExecutor();
+            default:
+                return channel.eventLoop();
+        }
+    }
+
+    /**
+     * Shuts down the executors created by this dispatcher.
+     * Handlers that are already running are allowed to finish.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    private ExecutorService workerPool() {
+        ExecutorService pool = workerPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = workerPool;
+                if (pool == null) {
+                    checkNotShutdown();
+                    pool = Executors.newFixedThreadPool(workerThreads, new DefaultThreadFactory("ocean-handler", true));
+                    workerPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = virtualThreadExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = virtualThreadExecutor;
+                if (executor == null) {
+                    checkNotShutdown();
+                    executor = createVirtualThreadExecutor();
+                    virtualThreadExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so that the server still runs on JDKs without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.WARNING, "Virtual threads are not supported, falling back to the worker pool");
+            return workerPool();
+        }
+    }
+
+    private void checkNotShutdown() {
+        if (shutdown) {
+            throw new RejectedExecutionException("Dispatcher has been shut down");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package de.feelix.ocean.server.dispatch;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks one at a time and in submission order, each on the executor it was submitted with.
+ * Consecutive tasks for the same executor are run in a single pass; a task for another executor
+ * is handed over only once all earlier tasks have finished.
+ * One instance is used per session so that its packets are handled in order, whichever
+ * {@link DispatchMode} each of them uses. Tasks an executor rejects are dropped, and their rejection
+ * callbacks run in their place.
+ */
+public final class SerialExecutor {
+    private static final Logger LOGGER = Logger.getLogger(SerialExecutor.class.getName());
+
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Checks if no task is queued or running.
+     * If only one thread submits tasks, a task may be run directly on that thread while this returns true
+     * without breaking the order.
+     *
+     * @return true if the executor is idle, false otherwise
+     */
+    public boolean isIdle() {
+        return !running.get() && tasks.isEmpty();
+    }
+
+    /**
+     * Queues a task to run on the specified executor after all previously queued tasks.
+     *
+     * @param executor The executor to run the task on
+     * @param command The task
+     */
+    public void execute(Executor executor, Runnable command) {
+        execute(executor, command, null);
+    }
+
+    /**
+     * Queues a task to run on the specified executor after all previously queued tasks.
+     * If the executor rejects the task, it is dropped and the rejection callback runs instead, so that
+     * whatever the task would have released can be released anyway. The callback may run on any thread.
+     *
+     * @param executor The executor to run the task on
+     * @param command The task
+     * @param onRejected The task to run if the executor rejects the task, or null for none
+     */
+    public void execute(Executor executor, Runnable command, Runnable onRejected) {
+        tasks.offer(new Task(executor, command, onRejected));
+        if (running.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    /**
+     * Hands the queue over to the executor of the next task.
+     * Must only be called by the thread that set the running flag.
+     */
+    private void schedule() {
+        while (true) {
+            Task next = tasks.peek();
+            if (next != null) {
+                try {
+                    next.executor.execute(() -> drain(next.executor));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Dropping queued packets, executor rejected them: " + e.getMessage(), e);
+                    reject(next.executor);
+                    // Tasks for other executors may still run
+                    continue;
+                }
+            }
+            running.set(false);
+            if (tasks.isEmpty() || !running.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops the tasks at the head of the queue that run on the specified executor and runs their
+     * rejection callbacks.
+     *
+     * @param executor The executor that rejected the tasks
+     */
+    private void reject(Executor executor) {
+        Task task;
+        while ((task = tasks.peek()) != null && task.executor == executor) {
+            tasks.poll();
+            if (task.onRejected != null) {
+                try {
+                    task.onRejected.run();
+                } catch (Throwable t) {
+                    LOGGER.log(Level.SEVERE, "Error in rejection callback: " + t.getMessage(), t);
+                }
+            }
+        }
+    }
+
+    private void drain(Executor current) {
+        while (true) {
+            Task task = tasks.peek();
+            if (task == null) {
+                running.set(false);
+                // Re-check, a task may have been queued after the peek
+                if (tasks.isEmpty() || !running.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (task.executor != current) {
+                schedule();
+                return;
+            }
+
+            tasks.poll();
+            try {
+                task.command.run();
+            } catch (Throwable t) {
+                LOGGER.log(Level.SEVERE, "Error in dispatched task: " + t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * A queued task and the executor it runs on.
+     */
+    private static final class Task {
+        final Executor executor;
+        final Runnable command;
+        final Runnable onRejected;
+
+        Task(Executor executor, Runnable command, Runnable onRejected) {
+            this.executor = executor;
+            this.command = command;
+            this.onRejected = onRejected;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.feelix.ocean.server.handler;
+
+import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.packet.OutPacket;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Interface for handlers that produce their response asynchronously.
+ * The server writes the response when the returned stage completes, so no thread is held
+ * while the handler waits, for example for a downstream service.
+ *
+ * @param <T> The type of packet this handler can process
+ */
+public interface AsyncPacketTypeHandler<T extends InPacket> extends PacketTypeHandler<T> {
+    /**
+     * Handles a packet and returns a stage that completes with the response.
+     *
+     * @param packet The packet to handle
+     * @return A stage that completes with the response packet
+     */
+    @Override
+    CompletionStage<OutPacket> handleAsync(T packet);
+
+    /**
+     * Handles a packet and blocks until the response is available.
+     * This exists for synchronous callers; the server itself always uses {@link #handleAsync(InPacket)}.
+     *
+     * @param packet The packet to handle
+     * @return The response packet
+     */
+    @Override
+    default OutPacket handle(T packet) {
+        return handleAsync(packet).toCompletableFuture().join();
+    }
+}
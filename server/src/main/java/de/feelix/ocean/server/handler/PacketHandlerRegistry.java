@@ -2,16 +2,15 @@ package de.feelix.ocean.server.handler;
 
 import de.feelix.ocean.api.packet.InPacket;
 import de.feelix.ocean.api.packet.PacketType;
-
-import java.util.EnumMap;
-import java.util.Map;
+import de.feelix.ocean.api.serialization.PacketTypeMap;
 
 /**
  * Registry for packet handlers.
  * This class maps packet types to their respective handlers.
+ * Lookups are array-indexed by the numeric packet type ID and never lock.
  */
 public class PacketHandlerRegistry {
-    private static final Map<PacketType, PacketTypeHandler<?>> HANDLERS = new EnumMap<>(PacketType.class);
+    private static final PacketTypeMap<PacketTypeHandler<?>> HANDLERS = new PacketTypeMap<>();
     
     /**
      * Registers a handler for a packet type.
@@ -3,8 +3,12 @@ package de.feelix.ocean.server.handler;
 import de.feelix.ocean.api.packet.InPacket;
 import de.feelix.ocean.api.packet.OutPacket;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Interface for handling specific types of packets.
+ * Handlers that wait for other services should implement {@link AsyncPacketTypeHandler} instead.
  *
  * @param <T> The type of packet this handler can process
  */
@@ -16,4 +20,15 @@ public interface PacketTypeHandler<T extends InPacket> {
      * @return The response packet
      */
     OutPacket handle(T packet);
-}
\ No newline at end of file
+
+    /**
+     * Handles a packet and returns a stage that completes with the response.
+     * By default, this calls {@link #handle(InPacket)} and returns an already completed stage.
+     *
+     * @param packet The packet to handle
+     * @return A stage that completes with the response packet
+     */
+    default CompletionStage<OutPacket> handleAsync(T packet) {
+        return CompletableFuture.completedFuture(handle(packet));
+    }
+}
@@ -15,7 +15,7 @@ public class SimpleInPacketHandler implements PacketTypeHandler<SimpleInPacket>
             packet.validate();
             
             // Get the transaction ID and message
-            String transactionId = packet.getTransactionId();
+            long transactionId = packet.getTransactionId();
             String message = packet.getMessage();
             
             // Process the message
@@ -0,0 +1,134 @@
+package de.feelix.ocean.server.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limiter that adapts its limit to the measured handler latency (AIMD).
+ * While the latency of completed requests stays within a tolerance of the long-term average, the limit
+ * grows by one for every request completed while at least half of the limit was in use. A request that
+ * is slower than that cuts the limit multiplicatively, at most once per window of as many completions as
+ * the limit allows, so that a burst of slow requests counts as one signal. Requests beyond the limit are
+ * rejected right away instead of queueing, which keeps the latency of the accepted ones low when the server
+ * is overloaded.
+ * The limit and the average are updated without locks; an update lost to a concurrent one only slows
+ * down the adaptation.
+ */
+public class AdaptiveConcurrencyLimiter {
+    /**
+     * The default initial limit.
+     */
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * The default minimum limit.
+     */
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * The default maximum limit.
+     */
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completions = new AtomicLong();
+    private final AtomicLong nextBackoff = new AtomicLong();
+    private volatile double limit;
+    private volatile double averageLatencyNanos;
+
+    /**
+     * Creates a new AdaptiveConcurrencyLimiter with the default limits.
+     */
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * Creates a new AdaptiveConcurrencyLimiter with the specified limits.
+     *
+     * @param initialLimit The initial limit
+     * @param minLimit The lowest the limit can drop to
+     * @param maxLimit The highest the limit can grow to
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= max: " + minLimit + ", " + maxLimit);
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be between " + minLimit + " and " + maxLimit + ": " + initialLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Tries to start a request.
+     * If this returns true, {@link #release(long)} must be called once the request has completed.
+     *
+     * @return true if the request may proceed, false if it must be rejected
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finishes a request started with {@link #tryAcquire()} and adapts the limit to its latency.
+     *
+     * @param latencyNanos The time the request took in nanoseconds
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long completed = completions.incrementAndGet();
+
+        double average = averageLatencyNanos;
+        if (average == 0) {
+            averageLatencyNanos = latencyNanos;
+            return;
+        }
+
+        double currentLimit = limit;
+        if (latencyNanos > average * LATENCY_TOLERANCE) {
+            // Latency is rising, so back off, but only once for all requests that were in flight together
+            long backoffAt = nextBackoff.get();
+            double reducedLimit = Math.max(minLimit, currentLimit * BACKOFF_RATIO);
+            if (completed >= backoffAt && nextBackoff.compareAndSet(backoffAt, completed + (int) reducedLimit)) {
+                limit = reducedLimit;
+            }
+        } else if (inFlightBefore * 2 >= currentLimit) {
+            // The limit is actually in use, so probe for more
+            limit = Math.min(maxLimit, currentLimit + 1);
+        }
+
+        // Slow samples count as well, so that a lasting change in latency becomes the new normal
+        averageLatencyNanos = average + (latencyNanos - average) * SMOOTHING;
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return The current limit
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of requests currently in flight.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,80 @@
+package de.feelix.ocean.server.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limit with a sustained rate and a burst size.
+ * Limits are enforced with the generic cell rate algorithm (GCRA), which behaves like a token bucket
+ * but keeps its whole state in a single long: the theoretical arrival time of the next packet.
+ * A packet conforms as long as that time is at most {@code burst - 1} emission intervals in the future.
+ */
+public final class RateLimit {
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * Creates a new RateLimit.
+     *
+     * @param permitsPerSecond The sustained number of packets per second
+     * @param burst The number of packets that may be sent back to back
+     */
+    public RateLimit(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Permits per second must be positive: " + permitsPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Gets the sustained number of packets per second.
+     *
+     * @return The permits per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Gets the number of packets that may be sent back to back.
+     *
+     * @return The burst size
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Computes the theoretical arrival time after a packet arriving now.
+     *
+     * @param tat The current theoretical arrival time
+     * @param now The current time in nanoseconds
+     * @return The new theoretical arrival time
+     */
+    long next(long tat, long now) {
+        return Math.max(tat, now) + emissionIntervalNanos;
+    }
+
+    /**
+     * Computes how long a packet arriving now has to wait until it conforms.
+     *
+     * @param tat The current theoretical arrival time
+     * @param now The current time in nanoseconds
+     * @return 0 if the packet conforms, otherwise the time to wait in nanoseconds
+     */
+    long delay(long tat, long now) {
+        return Math.max(0, Math.max(tat, now) - now - toleranceNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + "}";
+    }
+}
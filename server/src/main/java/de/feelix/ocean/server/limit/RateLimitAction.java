@@ -0,0 +1,18 @@
+package de.feelix.ocean.server.limit;
+
+/**
+ * What the server does with a packet that exceeds a rate limit.
+ */
+public enum RateLimitAction {
+    /**
+     * Answers the packet with a retryable {@link de.feelix.ocean.api.packet.ErrorCode#RATE_LIMITED} error
+     * without handling it.
+     */
+    REJECT,
+
+    /**
+     * Handles the packet, but stops reading from the connection until the limit allows the next packet.
+     * The client is slowed down by TCP flow control instead of receiving errors.
+     */
+    PAUSE_READS
+}
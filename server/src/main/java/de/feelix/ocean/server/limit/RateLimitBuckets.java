@@ -0,0 +1,55 @@
+package de.feelix.ocean.server.limit;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The rate limit state of one session: a theoretical arrival time for the session limit and one
+ * for every packet type with its own limit.
+ * Created once per session, so checking a packet allocates nothing; every check is a compare-and-set
+ * on a single long.
+ * A forced acquire always takes the permit and reports how long the session is in debt afterwards.
+ */
+public final class RateLimitBuckets {
+    private static final AtomicLongFieldUpdater<RateLimitBuckets> SESSION_TAT =
+        AtomicLongFieldUpdater.newUpdater(RateLimitBuckets.class, "sessionTat");
+
+    // Long.MIN_VALUE means no packet has arrived yet, System.nanoTime() may be negative
+    private volatile long sessionTat = Long.MIN_VALUE;
+    private final AtomicLongArray typeTats;
+
+    RateLimitBuckets(int typeSlots) {
+        long[] initial = new long[typeSlots];
+        Arrays.fill(initial, Long.MIN_VALUE);
+        this.typeTats = new AtomicLongArray(initial);
+    }
+
+    long acquireSession(RateLimit limit, long now, boolean force) {
+        while (true) {
+            long tat = sessionTat;
+            long delay = limit.delay(tat, now);
+            if (delay > 0 && !force) {
+                return delay;
+            }
+            long next = limit.next(tat, now);
+            if (SESSION_TAT.compareAndSet(this, tat, next)) {
+                return force ? limit.delay(next, now) : 0;
+            }
+        }
+    }
+
+    long acquireType(int slot, RateLimit limit, long now, boolean force) {
+        while (true) {
+            long tat = typeTats.get(slot);
+            long delay = limit.delay(tat, now);
+            if (delay > 0 && !force) {
+                return delay;
+            }
+            long next = limit.next(tat, now);
+            if (typeTats.compareAndSet(slot, tat, next)) {
+                return force ? limit.delay(next, now) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package de.feelix.ocean.server.limit;
+
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.serialization.PacketTypeMap;
+import de.feelix.ocean.server.config.ServerConfig;
+
+import java.util.Map;
+
+/**
+ * Enforces the per-session and per-packet-type rate limits of a {@link ServerConfig}.
+ * The limiter itself is shared and immutable; the state lives in the {@link RateLimitBuckets} of each session.
+ * The session limit is checked first, so a packet rejected by its type limit still counts against the
+ * session limit.
+ */
+public class RateLimiter {
+    private final RateLimit sessionLimit;
+    private final PacketTypeMap<TypeLimit> typeLimits = new PacketTypeMap<>();
+    private final int typeSlots;
+
+    /**
+     * Creates a new RateLimiter with the limits of the specified configuration.
+     *
+     * @param config The server configuration
+     */
+    public RateLimiter(ServerConfig config) {
+        this.sessionLimit = config.getSessionRateLimit();
+        int slot = 0;
+        for (Map.Entry<PacketType, RateLimit> entry : config.getPacketRateLimits().entrySet()) {
+            typeLimits.put(entry.getKey(), new TypeLimit(slot++, entry.getValue()));
+        }
+        this.typeSlots = slot;
+    }
+
+    /**
+     * Checks if any rate limit is configured.
+     *
+     * @return true if packets are rate limited, false otherwise
+     */
+    public boolean isEnabled() {
+        return sessionLimit != null || typeSlots > 0;
+    }
+
+    /**
+     * Creates the rate limit state for a new session.
+     *
+     * @return The new buckets
+     */
+    public RateLimitBuckets newBuckets() {
+        return new RateLimitBuckets(typeSlots);
+    }
+
+    /**
+     * Takes a permit for a packet from the buckets of its session, unless the packet exceeds a limit.
+     *
+     * @param buckets The buckets of the session
+     * @param type The type of the packet
+     * @param now The current time as returned by {@link System#nanoTime()}
+     * @return 0 if the packet conforms, otherwise the time until it would in nanoseconds
+     */
+    public long tryAcquire(RateLimitBuckets buckets, PacketType type, long now) {
+        return acquire(buckets, type, now, false);
+    }
+
+    /**
+     * Takes a permit for a packet from the buckets of its session even if the packet exceeds a limit,
+     * so that a packet handled anyway delays the following ones.
+     *
+     * @param buckets The buckets of the session
+     * @param type The type of the packet
+     * @param now The current time as returned by {@link System#nanoTime()}
+     * @return 0 if the next packet conforms right away, otherwise the time until it would in nanoseconds
+     */
+    public long acquire(RateLimitBuckets buckets, PacketType type, long now) {
+        return acquire(buckets, type, now, true);
+    }
+
+    private long acquire(RateLimitBuckets buckets, PacketType type, long now, boolean force) {
+        long delay = 0;
+        if (sessionLimit != null) {
+            delay = buckets.acquireSession(sessionLimit, now, force);
+            if (delay > 0 && !force) {
+                return delay;
+            }
+        }
+        TypeLimit typeLimit = typeLimits.get(type);
+        return typeLimit != null ? Math.max(delay, buckets.acquireType(typeLimit.slot, typeLimit.limit, now, force)) : delay;
+    }
+
+    /**
+     * A packet type limit and the index of its state in the buckets.
+     */
+    private static final class TypeLimit {
+        final int slot;
+        final RateLimit limit;
+
+        TypeLimit(int slot, RateLimit limit) {
+            this.slot = slot;
+            this.limit = limit;
+        }
+    }
+}
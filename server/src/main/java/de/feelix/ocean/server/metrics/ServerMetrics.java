@@ -0,0 +1,177 @@
+package de.feelix.ocean.server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the load on the server.
+ * All counters are {@link LongAdder}s, so event loops can update them without contending with each other.
+ */
+public class ServerMetrics {
+    private final LongAdder requestsReceived = new LongAdder();
+    private final LongAdder responsesSent = new LongAdder();
+    private final LongAdder inFlightRequests = new LongAdder();
+    private final LongAdder readSuspensions = new LongAdder();
+    private final LongAdder suspendedChannels = new LongAdder();
+    private final LongAdder unwritableEvents = new LongAdder();
+    private final LongAdder rateLimitedRequests = new LongAdder();
+    private final LongAdder heartbeatTimeouts = new LongAdder();
+    private final LongAdder droppedBroadcasts = new LongAdder();
+
+    /**
+     * Records a request that was received.
+     */
+    public void requestReceived() {
+        requestsReceived.increment();
+        inFlightRequests.increment();
+    }
+
+    /**
+     * Records a request whose handling has finished.
+     *
+     * @param responded true if a response was written, false otherwise
+     */
+    public void requestCompleted(boolean responded) {
+        inFlightRequests.decrement();
+        if (responded) {
+            responsesSent.increment();
+        }
+    }
+
+    /**
+     * Records that reading from a channel was suspended.
+     */
+    public void readSuspended() {
+        readSuspensions.increment();
+        suspendedChannels.increment();
+    }
+
+    /**
+     * Records that reading from a channel was resumed, or that a suspended channel was closed.
+     */
+    public void readResumed() {
+        suspendedChannels.decrement();
+    }
+
+    /**
+     * Records that a channel became unwritable because its outbound buffer exceeded the high water mark.
+     */
+    public void channelUnwritable() {
+        unwritableEvents.increment();
+    }
+
+    /**
+     * Records a request that exceeded a rate limit.
+     */
+    public void requestRateLimited() {
+        rateLimitedRequests.increment();
+    }
+
+    /**
+     * Records a connection that was closed because it did not answer heartbeats.
+     */
+    public void heartbeatTimeout() {
+        heartbeatTimeouts.increment();
+    }
+
+    /**
+     * Records a broadcast packet that was not written to a channel because the channel was unwritable.
+     */
+    public void broadcastDropped() {
+        droppedBroadcasts.increment();
+    }
+
+    /**
+     * Gets the total number of requests received.
+     *
+     * @return The number of requests received
+     */
+    public long getRequestsReceived() {
+        return requestsReceived.sum();
+    }
+
+    /**
+     * Gets the total number of responses written.
+     *
+     * @return The number of responses sent
+     */
+    public long getResponsesSent() {
+        return responsesSent.sum();
+    }
+
+    /**
+     * Gets the number of requests currently being handled.
+     *
+     * @return The number of in-flight requests
+     */
+    public long getInFlightRequests() {
+        return inFlightRequests.sum();
+    }
+
+    /**
+     * Gets how often reading from a channel was suspended because of backpressure.
+     *
+     * @return The number of read suspensions
+     */
+    public long getReadSuspensions() {
+        return readSuspensions.sum();
+    }
+
+    /**
+     * Gets the number of channels from which reading is currently suspended.
+     *
+     * @return The number of suspended channels
+     */
+    public long getSuspendedChannels() {
+        return suspendedChannels.sum();
+    }
+
+    /**
+     * Gets how often a channel became unwritable.
+     *
+     * @return The number of unwritable events
+     */
+    public long getUnwritableEvents() {
+        return unwritableEvents.sum();
+    }
+
+    /**
+     * Gets how many requests exceeded a rate limit.
+     *
+     * @return The number of rate limited requests
+     */
+    public long getRateLimitedRequests() {
+        return rateLimitedRequests.sum();
+    }
+
+    /**
+     * Gets how many connections were closed because they did not answer heartbeats.
+     *
+     * @return The number of heartbeat timeouts
+     */
+    public long getHeartbeatTimeouts() {
+        return heartbeatTimeouts.sum();
+    }
+
+    /**
+     * Gets how many broadcast packets were dropped for channels that were unwritable.
+     *
+     * @return The number of dropped broadcasts
+     */
+    public long getDroppedBroadcasts() {
+        return droppedBroadcasts.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ServerMetrics{requestsReceived=" + getRequestsReceived()
+            + ", responsesSent=" + getResponsesSent()
+            + ", inFlightRequests=" + getInFlightRequests()
+            + ", readSuspensions=" + getReadSuspensions()
+            + ", suspendedChannels=" + getSuspendedChannels()
+            + ", unwritableEvents=" + getUnwritableEvents()
+            + ", rateLimitedRequests=" + getRateLimitedRequests()
+            + ", heartbeatTimeouts=" + getHeartbeatTimeouts()
+            + ", droppedBroadcasts=" + getDroppedBroadcasts()
+            + "}";
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.ocean.server.pubsub;
+
+/**
+ * What happens to a message published to a topic while a subscriber's connection is unwritable,
+ * that is, while more than the write buffer high water mark is already queued for it.
+ * Either way the publisher never waits for slow subscribers.
+ */
+public enum OverflowPolicy {
+    /**
+     * The message is dropped for that subscriber.
+     * Suits topics of independent events where a late event is worthless.
+     */
+    DROP,
+
+    /**
+     * Only the latest message of the topic is kept for that subscriber and written once the connection
+     * is writable again; older pending messages of the topic are replaced.
+     * Suits topics that publish the current state of something.
+     */
+    CONFLATE
+}
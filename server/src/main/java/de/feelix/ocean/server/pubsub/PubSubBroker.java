@@ -0,0 +1,334 @@
+package de.feelix.ocean.server.pubsub;
+
+import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.SubscribePacket;
+import de.feelix.ocean.api.packet.TopicMessagePacket;
+import de.feelix.ocean.api.packet.UnsubscribePacket;
+import de.feelix.ocean.server.session.ClientSession;
+import de.feelix.ocean.server.session.PacketMulticaster;
+import de.feelix.ocean.server.session.SessionKey;
+import de.feelix.ocean.server.session.SessionListener;
+import de.feelix.ocean.server.session.SessionManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Topic-based publish/subscribe on top of the sessions of a {@link SessionManager}.
+ * Every topic keeps a concurrent set of its subscribers and every session keeps the set of its topics,
+ * so subscribing, unsubscribing, and removing all subscriptions of a disconnected session never scan
+ * other sessions or topics.
+ * Published messages are encoded once and fanned out per event loop by {@link PacketMulticaster};
+ * subscribers that cannot keep up are handled according to the {@link OverflowPolicy} of the topic.
+ */
+public class PubSubBroker implements SessionListener {
+    /**
+     * The default maximum number of topics a session may subscribe to.
+     */
+    public static final int DEFAULT_MAX_SUBSCRIPTIONS = 1024;
+
+    private static final SessionKey<Set<String>> SUBSCRIPTIONS = SessionKey.valueOf("ocean.pubsub.subscriptions");
+    private static final SessionKey<PubSubHandler> HANDLER = SessionKey.valueOf("ocean.pubsub.handler");
+
+    private final SessionManager sessionManager;
+    private final int maxFrameLength;
+    private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final LongAdder conflatedMessages = new LongAdder();
+    private volatile OverflowPolicy defaultPolicy = OverflowPolicy.DROP;
+    private volatile int maxSubscriptions = DEFAULT_MAX_SUBSCRIPTIONS;
+
+    /**
+     * Creates a new PubSubBroker and registers it with the session manager, so that the subscriptions
+     * of a session are removed together with the session.
+     *
+     * @param sessionManager The session manager
+     */
+    public PubSubBroker(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+        this.maxFrameLength = sessionManager.getMaxFrameLength();
+        sessionManager.addListener(this);
+    }
+
+    /**
+     * Gets the overflow policy of topics created by a subscription.
+     *
+     * @return The default overflow policy
+     */
+    public OverflowPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Sets the overflow policy of topics created by a subscription.
+     *
+     * @param defaultPolicy The default overflow policy
+     * @return This broker
+     */
+    public PubSubBroker setDefaultPolicy(OverflowPolicy defaultPolicy) {
+        if (defaultPolicy == null) {
+            throw new IllegalArgumentException("Default policy cannot be null");
+        }
+        this.defaultPolicy = defaultPolicy;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of topics a session may subscribe to.
+     *
+     * @return The maximum number of subscriptions per session
+     */
+    public int getMaxSubscriptions() {
+        return maxSubscriptions;
+    }
+
+    /**
+     * Sets the maximum number of topics a session may subscribe to.
+     *
+     * @param maxSubscriptions The maximum number of subscriptions per session
+     * @return This broker
+     */
+    public PubSubBroker setMaxSubscriptions(int maxSubscriptions) {
+        this.maxSubscriptions = maxSubscriptions;
+        return this;
+    }
+
+    /**
+     * Creates a topic that is kept even while it has no subscribers.
+     *
+     * @param name The topic name
+     * @param policy The overflow policy of the topic
+     * @return The topic
+     * @throws IllegalStateException if the topic already exists
+     */
+    public Topic createTopic(String name, OverflowPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        Topic topic = new Topic(name, policy, true);
+        if (topics.putIfAbsent(name, topic) != null) {
+            throw new IllegalStateException("Topic already exists: " + name);
+        }
+        return topic;
+    }
+
+    /**
+     * Gets a topic.
+     *
+     * @param name The topic name
+     * @return The topic, or null if it does not exist
+     */
+    public Topic getTopic(String name) {
+        return topics.get(name);
+    }
+
+    /**
+     * Gets the number of topics.
+     *
+     * @return The number of topics
+     */
+    public int getTopicCount() {
+        return topics.size();
+    }
+
+    /**
+     * Subscribes a session to a topic, creating the topic with the default policy if necessary.
+     *
+     * @param session The session
+     * @param name The topic name
+     * @return true if the session was subscribed, false if it already was
+     * @throws IllegalStateException if the session has reached the maximum number of subscriptions
+     */
+    public boolean subscribe(ClientSession session, String name) {
+        Set<String> subscriptions = subscriptions(session);
+        if (subscriptions.contains(name)) {
+            return false;
+        }
+        if (subscriptions.size() >= maxSubscriptions) {
+            throw new IllegalStateException("Too many subscriptions, the maximum is " + maxSubscriptions);
+        }
+        subscriptions.add(name);
+
+        // Subscribe inside compute, so that the topic cannot be removed as empty in between
+        boolean[] added = new boolean[1];
+        topics.compute(name, (n, topic) -> {
+            if (topic == null) {
+                topic = new Topic(n, defaultPolicy, false);
+            }
+            added[0] = topic.subscribers.add(session);
+            return topic;
+        });
+        return added[0];
+    }
+
+    /**
+     * Unsubscribes a session from a topic.
+     * A topic created by a subscription is removed once its last subscriber leaves.
+     *
+     * @param session The session
+     * @param name The topic name
+     * @return true if the session was unsubscribed, false if it was not subscribed
+     */
+    public boolean unsubscribe(ClientSession session, String name) {
+        Set<String> subscriptions = session.get(SUBSCRIPTIONS);
+        if (subscriptions != null) {
+            subscriptions.remove(name);
+        }
+
+        boolean[] removed = new boolean[1];
+        topics.computeIfPresent(name, (n, topic) -> {
+            removed[0] = topic.subscribers.remove(session);
+            return topic.subscribers.isEmpty() && !topic.isPersistent() ? null : topic;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Checks if a packet is a subscribe or unsubscribe request, which {@link #handleRequest} answers.
+     *
+     * @param packet The packet
+     * @return true if the packet is a subscription request, false otherwise
+     */
+    public static boolean isRequest(InPacket packet) {
+        return packet instanceof SubscribePacket || packet instanceof UnsubscribePacket;
+    }
+
+    /**
+     * Answers a subscribe or unsubscribe request of a session.
+     *
+     * @param session The session that sent the request
+     * @param packet The subscribe or unsubscribe packet
+     * @return The response, an error response if the request failed
+     */
+    public OutPacket handleRequest(ClientSession session, InPacket packet) {
+        try {
+            packet.validate();
+            if (packet instanceof SubscribePacket) {
+                String topic = ((SubscribePacket) packet).getTopic();
+                subscribe(session, topic);
+                if (sessionManager.getSession(session.getChannel()) != session) {
+                    // The session was removed concurrently, do not leave a subscription behind
+                    unsubscribe(session, topic);
+                }
+                return OutPacket.Builder.success(packet.getTransactionId(), "Subscribed to " + topic);
+            } else if (packet instanceof UnsubscribePacket) {
+                String topic = ((UnsubscribePacket) packet).getTopic();
+                unsubscribe(session, topic);
+                return OutPacket.Builder.success(packet.getTransactionId(), "Unsubscribed from " + topic);
+            }
+            return OutPacket.Builder.error(packet.getTransactionId(), "Not a subscription request: " + packet.getType());
+        } catch (Exception e) {
+            return OutPacket.Builder.error(packet.getTransactionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Unsubscribes a session from all topics.
+     *
+     * @param session The session
+     */
+    public void unsubscribeAll(ClientSession session) {
+        Set<String> subscriptions = session.get(SUBSCRIPTIONS);
+        if (subscriptions != null) {
+            for (String name : subscriptions) {
+                unsubscribe(session, name);
+            }
+        }
+    }
+
+    /**
+     * Publishes a message to all subscribers of a topic.
+     * This never blocks on slow subscribers; see {@link OverflowPolicy}.
+     *
+     * @param name The topic name
+     * @param payload The message payload
+     * @return The number of subscribers the message was handed to
+     * @throws TooLongFrameException if the encoded message exceeds the maximum frame length
+     */
+    public int publish(String name, String payload) {
+        Topic topic = topics.get(name);
+        if (topic == null || topic.subscribers.isEmpty()) {
+            return 0;
+        }
+        TopicMessagePacket packet = new TopicMessagePacket(name, payload);
+        return PacketMulticaster.send(packet, topic.subscribers, null, maxFrameLength,
+            (session, buf) -> write(topic, session, buf));
+    }
+
+    /**
+     * Gets how many messages were dropped for subscribers that could not keep up.
+     *
+     * @return The number of dropped messages
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    /**
+     * Gets how many pending messages were replaced by newer ones for subscribers that could not keep up.
+     *
+     * @return The number of conflated messages
+     */
+    public long getConflatedMessages() {
+        return conflatedMessages.sum();
+    }
+
+    @Override
+    public void sessionRemoved(ClientSession session) {
+        unsubscribeAll(session);
+    }
+
+    /**
+     * Writes a published message to a subscriber, applying the overflow policy of the topic.
+     * This runs on the event loop of the subscriber's channel.
+     */
+    private void write(Topic topic, ClientSession session, ByteBuf buf) {
+        Channel channel = session.getChannel();
+        PubSubHandler handler = handler(session);
+        if (channel.isWritable()) {
+            if (handler != null) {
+                // A newer message supersedes one still pending for the topic
+                handler.discardPending(topic.getName());
+            }
+            channel.write(buf, channel.voidPromise());
+        } else if (topic.getPolicy() == OverflowPolicy.CONFLATE && handler != null) {
+            if (handler.conflate(topic.getName(), buf)) {
+                conflatedMessages.increment();
+            }
+        } else {
+            buf.release();
+            droppedMessages.increment();
+        }
+    }
+
+    private Set<String> subscriptions(ClientSession session) {
+        Set<String> subscriptions = session.get(SUBSCRIPTIONS);
+        if (subscriptions == null) {
+            synchronized (session) {
+                subscriptions = session.get(SUBSCRIPTIONS);
+                if (subscriptions == null) {
+                    subscriptions = ConcurrentHashMap.newKeySet();
+                    session.set(SUBSCRIPTIONS, subscriptions);
+                }
+            }
+        }
+        return subscriptions;
+    }
+
+    private PubSubHandler handler(ClientSession session) {
+        PubSubHandler handler = session.get(HANDLER);
+        if (handler == null) {
+            handler = session.getChannel().pipeline().get(PubSubHandler.class);
+            if (handler != null) {
+                session.set(HANDLER, handler);
+            }
+        }
+        return handler;
+    }
+}
@@ -0,0 +1,86 @@
+package de.feelix.ocean.server.pubsub;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Netty channel handler that holds the conflated messages of its channel until the channel is writable again.
+ * Subscribe and unsubscribe requests are answered by the {@link de.feelix.ocean.server.ServerPacketHandler},
+ * so they are subject to the same rate limits, in-flight limits, and metrics as any other request.
+ * One instance is created per channel; all methods must be called on the channel's event loop.
+ */
+public class PubSubHandler extends ChannelInboundHandlerAdapter {
+    // Only accessed on the event loop
+    private Map<String, ByteBuf> pending;
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && pending != null && !pending.isEmpty()) {
+            for (ByteBuf buf : pending.values()) {
+                ctx.channel().write(buf, ctx.channel().voidPromise());
+            }
+            pending.clear();
+            ctx.channel().flush();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        releasePending();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        releasePending();
+    }
+
+    /**
+     * Keeps a message as the pending one of its topic, replacing and releasing the previous one.
+     *
+     * @param topic The topic name
+     * @param buf The encoded message
+     * @return true if a pending message was replaced, false otherwise
+     */
+    boolean conflate(String topic, ByteBuf buf) {
+        if (pending == null) {
+            pending = new LinkedHashMap<>();
+        }
+        ByteBuf previous = pending.put(topic, buf);
+        if (previous != null) {
+            previous.release();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Releases the pending message of a topic, if there is one.
+     *
+     * @param topic The topic name
+     */
+    void discardPending(String topic) {
+        if (pending != null) {
+            ByteBuf previous = pending.remove(topic);
+            if (previous != null) {
+                previous.release();
+            }
+        }
+    }
+
+    private void releasePending() {
+        if (pending != null) {
+            Iterator<ByteBuf> it = pending.values().iterator();
+            while (it.hasNext()) {
+                it.next().release();
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.feelix.ocean.server.pubsub;
+
+import de.feelix.ocean.server.session.ClientSession;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named topic and its subscribers.
+ * Topics are created on first subscription, or up front with {@link PubSubBroker#createTopic(String, OverflowPolicy)}.
+ */
+public final class Topic {
+    private final String name;
+    private final OverflowPolicy policy;
+    private final boolean persistent;
+    final Set<ClientSession> subscribers = ConcurrentHashMap.newKeySet();
+
+    Topic(String name, OverflowPolicy policy, boolean persistent) {
+        this.name = name;
+        this.policy = policy;
+        this.persistent = persistent;
+    }
+
+    /**
+     * Gets the name of this topic.
+     *
+     * @return The topic name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets what happens to messages for subscribers that cannot keep up.
+     *
+     * @return The overflow policy
+     */
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Checks if this topic was created explicitly.
+     * Topics created by a subscription are removed again once their last subscriber leaves.
+     *
+     * @return true if the topic is kept without subscribers, false otherwise
+     */
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Gets the number of sessions subscribed to this topic.
+     *
+     * @return The number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Topic{" + name + ", policy=" + policy + ", subscribers=" + subscribers.size() + "}";
+    }
+}
@@ -1,33 +1,60 @@
 package de.feelix.ocean.server.session;
 
+import de.feelix.ocean.server.limit.RateLimitBuckets;
 import io.netty.channel.Channel;
+import io.netty.util.Timeout;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Represents a client session.
  * This class tracks information about a connected client.
+ * A server may hold a very large number of sessions, so the state is kept in primitive fields
+ * and the attribute map is only created once the first attribute is set.
+ * State read on every packet should use {@link SessionKey}s, which are stored in a slot array indexed by the key.
+ * With compressed oops, a session without attributes takes 72 bytes, and the {@link SessionManager} adds
+ * about 128 bytes for its expiry timeout and its registry entry, which is keyed by the boxed session ID.
+ * That is 200 bytes per session in total; the channel and its pipeline, which are far larger, are not counted.
  */
 public class ClientSession {
-    private final String sessionId;
+    private static final AtomicLong NEXT_SESSION_ID = new AtomicLong();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ClientSession, ConcurrentMap> ATTRIBUTES =
+        AtomicReferenceFieldUpdater.newUpdater(ClientSession.class, ConcurrentMap.class, "attributes");
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final Object[] NO_SLOTS = new Object[0];
+    // Marks a slot whose value has been copied to a larger array
+    private static final Object MOVED = new Object();
+
+    private final long sessionId;
     private final Channel channel;
-    private final Instant creationTime;
-    private Instant lastActivityTime;
-    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
+    private final long creationTimeMillis;
+    private final long creationNanos;
+    private volatile long lastActivityNanos;
+    private volatile Timeout expiryTimeout;
+    private volatile int inFlightRequests;
+    private volatile RateLimitBuckets rateLimitBuckets;
+    private volatile ConcurrentMap<String, Object> attributes;
+    private volatile Object[] slots = NO_SLOTS;
     
     /**
      * Creates a new ClientSession with the specified channel.
+     * Session IDs are unique within the running server.
      *
      * @param channel The client's channel
      */
     public ClientSession(Channel channel) {
-        this.sessionId = UUID.randomUUID().toString();
+        this.sessionId = NEXT_SESSION_ID.incrementAndGet();
         this.channel = channel;
-        this.creationTime = Instant.now();
-        this.lastActivityTime = Instant.now();
+        this.creationTimeMillis = System.currentTimeMillis();
+        this.creationNanos = System.nanoTime();
+        this.lastActivityNanos = creationNanos;
     }
     
     /**
@@ -35,7 +62,7 @@ public class ClientSession {
      *
      * @return The session ID
      */
-    public String getSessionId() {
+    public long getSessionId() {
         return sessionId;
     }
     
@@ -54,23 +81,188 @@ public class ClientSession {
      * @return The creation time
      */
     public Instant getCreationTime() {
-        return creationTime;
+        return Instant.ofEpochMilli(creationTimeMillis);
     }
     
     /**
      * Gets the last activity time of the session.
+     * The time is derived from {@link #getLastActivityNanos()} and the creation time.
      *
      * @return The last activity time
      */
     public Instant getLastActivityTime() {
-        return lastActivityTime;
+        return getCreationTime().plusNanos(lastActivityNanos - creationNanos);
+    }
+    
+    /**
+     * Gets the last activity time of the session as returned by {@link System#nanoTime()}.
+     *
+     * @return The last activity time in nanoseconds
+     */
+    public long getLastActivityNanos() {
+        return lastActivityNanos;
     }
     
     /**
      * Updates the last activity time to the current time.
+     * This is called for every packet, so it only stores a timestamp; the expiry timer checks it lazily.
      */
     public void updateLastActivityTime() {
-        this.lastActivityTime = Instant.now();
+        this.lastActivityNanos = System.nanoTime();
+    }
+    
+    /**
+     * Gets the pending expiry check of this session.
+     *
+     * @return The expiry timeout, or null if none is scheduled
+     */
+    Timeout getExpiryTimeout() {
+        return expiryTimeout;
+    }
+    
+    /**
+     * Sets the pending expiry check of this session.
+     *
+     * @param expiryTimeout The expiry timeout
+     */
+    void setExpiryTimeout(Timeout expiryTimeout) {
+        this.expiryTimeout = expiryTimeout;
+    }
+    
+    /**
+     * Gets the number of requests from this client that are currently being handled.
+     *
+     * @return The number of in-flight requests
+     */
+    public int getInFlightRequests() {
+        return inFlightRequests;
+    }
+    
+    /**
+     * Increments the number of in-flight requests.
+     * This must only be called on the channel's event loop.
+     *
+     * @return The new number of in-flight requests
+     */
+    public int incrementInFlightRequests() {
+        return ++inFlightRequests;
+    }
+    
+    /**
+     * Decrements the number of in-flight requests.
+     * This must only be called on the channel's event loop.
+     *
+     * @return The new number of in-flight requests
+     */
+    public int decrementInFlightRequests() {
+        return --inFlightRequests;
+    }
+    
+    /**
+     * Gets the rate limit state of this session.
+     *
+     * @return The rate limit buckets, or null if the session is not rate limited
+     */
+    public RateLimitBuckets getRateLimitBuckets() {
+        return rateLimitBuckets;
+    }
+    
+    /**
+     * Sets the rate limit state of this session.
+     *
+     * @param rateLimitBuckets The rate limit buckets, or null if the session is not rate limited
+     */
+    public void setRateLimitBuckets(RateLimitBuckets rateLimitBuckets) {
+        this.rateLimitBuckets = rateLimitBuckets;
+    }
+    
+    /**
+     * Gets the value for a session key.
+     *
+     * @param key The session key
+     * @param <T> The type of the value
+     * @return The value, or null if none is set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(SessionKey<T> key) {
+        int index = key.getIndex();
+        while (true) {
+            Object[] current = slots;
+            if (index >= current.length) {
+                return null;
+            }
+            Object value = SLOT.getAcquire(current, index);
+            if (value != MOVED) {
+                return (T) value;
+            }
+            // The slots are being grown, wait for the larger array to be published
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Sets the value for a session key.
+     *
+     * @param key The session key
+     * @param value The value, or null to remove it
+     * @param <T> The type of the value
+     */
+    public <T> void set(SessionKey<T> key, T value) {
+        exchange(key.getIndex(), value);
+    }
+    
+    /**
+     * Removes the value for a session key.
+     *
+     * @param key The session key
+     * @param <T> The type of the value
+     * @return The previous value, or null if none was set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T remove(SessionKey<T> key) {
+        return (T) exchange(key.getIndex(), null);
+    }
+    
+    /**
+     * Atomically replaces the value in a slot.
+     *
+     * @param index The slot index
+     * @param value The new value
+     * @return The previous value
+     */
+    private Object exchange(int index, Object value) {
+        while (true) {
+            Object[] current = slots;
+            if (index >= current.length) {
+                growSlots(index);
+                continue;
+            }
+            Object previous = SLOT.getAcquire(current, index);
+            if (previous == MOVED) {
+                Thread.onSpinWait();
+            } else if (SLOT.compareAndSet(current, index, previous, value)) {
+                return previous;
+            }
+        }
+    }
+    
+    /**
+     * Replaces the slot array with one that has room for the specified index and for all keys created so far.
+     * Every slot of the old array is swapped for a marker while its value is copied, so a concurrent
+     * {@link #set(SessionKey, Object)} either lands before the copy or retries on the new array.
+     *
+     * @param index The index that must fit
+     */
+    private synchronized void growSlots(int index) {
+        Object[] current = slots;
+        if (index < current.length) {
+            return;
+        }
+        Object[] grown = new Object[Math.max(index + 1, SessionKey.count())];
+        for (int i = 0; i < current.length; i++) {
+            grown[i] = SLOT.getAndSet(current, i, MOVED);
+        }
+        slots = grown;
     }
     
     /**
@@ -80,7 +272,7 @@ public class ClientSession {
      * @param value The attribute value
      */
     public void setAttribute(String key, Object value) {
-        attributes.put(key, value);
+        attributes().put(key, value);
     }
     
     /**
@@ -90,7 +282,8 @@ public class ClientSession {
      * @return The attribute value, or null if not found
      */
     public Object getAttribute(String key) {
-        return attributes.get(key);
+        ConcurrentMap<String, Object> current = attributes;
+        return current != null ? current.get(key) : null;
     }
     
     /**
@@ -100,7 +293,8 @@ public class ClientSession {
      * @return The previous value associated with the key, or null if there was no mapping
      */
     public Object removeAttribute(String key) {
-        return attributes.remove(key);
+        ConcurrentMap<String, Object> current = attributes;
+        return current != null ? current.remove(key) : null;
     }
     
     /**
@@ -110,13 +304,32 @@ public class ClientSession {
      * @return true if the session has the attribute, false otherwise
      */
     public boolean hasAttribute(String key) {
-        return attributes.containsKey(key);
+        ConcurrentMap<String, Object> current = attributes;
+        return current != null && current.containsKey(key);
     }
     
     /**
      * Clears all attributes from the session.
      */
     public void clearAttributes() {
-        attributes.clear();
+        ConcurrentMap<String, Object> current = attributes;
+        if (current != null) {
+            current.clear();
+        }
+    }
+    
+    /**
+     * Gets the attribute map, creating it on first use.
+     *
+     * @return The attribute map
+     */
+    private ConcurrentMap<String, Object> attributes() {
+        ConcurrentMap<String, Object> current = attributes;
+        if (current == null) {
+            // Small initial capacity, sessions that use attributes rarely use many
+            ATTRIBUTES.compareAndSet(this, null, new ConcurrentHashMap<>(4));
+            current = attributes;
+        }
+        return current;
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package de.feelix.ocean.server.session;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.packet.Packet;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Sends one packet to many sessions.
+ * The packet is encoded only once per codec in use, and every session gets a duplicate of the
+ * encoded buffer. Writes are grouped by event loop, so each event loop runs a single task that
+ * writes to and then flushes all of its channels.
+ * Sessions whose codec handshake has not completed yet are skipped.
+ * A packet whose encoding exceeds the maximum frame length is rejected before it is handed to any
+ * session, as the frame encoder would otherwise fail, and close, every single channel.
+ */
+public final class PacketMulticaster {
+    /**
+     * Writes an encoded packet to a session.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        /**
+         * Writes an encoded packet to a session, without flushing.
+         * Called on the event loop of the session's channel. The writer owns the buffer and must
+         * either write or release it.
+         *
+         * @param session The session
+         * @param buf The encoded packet, including nothing but the packet itself
+         */
+        void write(ClientSession session, ByteBuf buf);
+    }
+
+    private PacketMulticaster() {
+    }
+
+    /**
+     * Creates the writer that writes packets to writable channels and drops them for channels that are
+     * above the write buffer high water mark, so that broadcasts respect the backpressure of each connection.
+     *
+     * @param metrics The metrics in which dropped packets are counted, or null to not count them
+     * @return The writer
+     */
+    public static Writer dropWhenUnwritable(ServerMetrics metrics) {
+        return (session, buf) -> {
+            Channel channel = session.getChannel();
+            if (channel.isWritable()) {
+                channel.write(buf, channel.voidPromise());
+            } else {
+                buf.release();
+                if (metrics != null) {
+                    metrics.broadcastDropped();
+                }
+            }
+        };
+    }
+
+    /**
+     * Sends a packet to the sessions matching a filter.
+     *
+     * @param packet The packet to send
+     * @param targets The candidate sessions
+     * @param filter The filter selecting the sessions, or null for all candidates
+     * @param maxFrameLength The maximum frame length in bytes
+     * @param writer The writer that writes the encoded packet to each session
+     * @return The number of sessions the packet was handed to
+     * @throws UncheckedIOException if the packet cannot be encoded
+     * @throws TooLongFrameException if the encoded packet exceeds the maximum frame length
+     */
+    public static int send(Packet packet, Iterable<ClientSession> targets, Predicate<ClientSession> filter,
+                           int maxFrameLength, Writer writer) {
+        packet.validate();
+
+        // Usually there are only one or two codecs and a handful of event loops, so identity maps stay tiny
+        Map<PacketCodec, ByteBuf> encoded = new IdentityHashMap<>();
+        Map<EventLoop, Batch> batches = new IdentityHashMap<>();
+        int count = 0;
+        try {
+            for (ClientSession session : targets) {
+                Channel channel = session.getChannel();
+                PacketCodec codec = channel.attr(CodecHandshake.CODEC_KEY).get();
+                if (codec == null || !channel.isActive() || (filter != null && !filter.test(session))) {
+                    continue;
+                }
+
+                ByteBuf buf = encoded.get(codec);
+                if (buf == null) {
+                    buf = channel.alloc().ioBuffer();
+                    encoded.put(codec, buf);
+                    codec.encode(packet, buf);
+                    if (buf.readableBytes() > maxFrameLength) {
+                        throw new TooLongFrameException("Frame length " + buf.readableBytes()
+                            + " exceeds maximum of " + maxFrameLength);
+                    }
+                }
+                batches.computeIfAbsent(channel.eventLoop(), loop -> new Batch(writer)).add(session, buf.retainedDuplicate());
+                count++;
+            }
+        } catch (IOException e) {
+            batches.values().forEach(Batch::release);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            batches.values().forEach(Batch::release);
+            throw e;
+        } finally {
+            // Each duplicate holds its own reference
+            encoded.values().forEach(ByteBuf::release);
+        }
+
+        for (Map.Entry<EventLoop, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            try {
+                entry.getKey().execute(batch::writeAndFlush);
+            } catch (RejectedExecutionException e) {
+                // The event loop is shutting down, its channels are closed anyway
+                batch.release();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The sessions of one event loop that a packet is written to, each with its own duplicate
+     * of the encoded packet.
+     */
+    private static final class Batch {
+        private final Writer writer;
+        private final List<ClientSession> sessions = new ArrayList<>();
+        private final List<ByteBuf> buffers = new ArrayList<>();
+
+        Batch(Writer writer) {
+            this.writer = writer;
+        }
+
+        void add(ClientSession session, ByteBuf buf) {
+            sessions.add(session);
+            buffers.add(buf);
+        }
+
+        void writeAndFlush() {
+            // Write everything first, so that all channels are flushed in one pass
+            for (int i = 0; i < sessions.size(); i++) {
+                ClientSession session = sessions.get(i);
+                if (session.getChannel().isActive()) {
+                    writer.write(session, buffers.get(i));
+                } else {
+                    buffers.get(i).release();
+                }
+            }
+            for (ClientSession session : sessions) {
+                session.getChannel().flush();
+            }
+        }
+
+        void release() {
+            buffers.forEach(ByteBuf::release);
+        }
+    }
+}
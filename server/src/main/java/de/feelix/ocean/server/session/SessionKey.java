@@ -0,0 +1,76 @@
+package de.feelix.ocean.server.session;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A typed key for session state.
+ * Every key gets a fixed slot index when it is created, so {@link ClientSession#get(SessionKey)} and
+ * {@link ClientSession#set(SessionKey, Object)} are array accesses without hashing or casts.
+ * Keys are meant to be created once and kept in constants:
+ * <pre>{@code
+ * static final SessionKey<User> USER = SessionKey.valueOf("user");
+ * }</pre>
+ *
+ * @param <T> The type of the value
+ */
+public final class SessionKey<T> {
+    private static final ConcurrentMap<String, SessionKey<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final String name;
+    private final int index;
+
+    private SessionKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Gets the key with the specified name, creating it if it does not exist yet.
+     *
+     * @param name The name of the key
+     * @param <T> The type of the value
+     * @return The key
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SessionKey<T> valueOf(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Session key name cannot be null or empty");
+        }
+        return (SessionKey<T>) KEYS.computeIfAbsent(name, n -> new SessionKey<>(n, NEXT_INDEX.getAndIncrement()));
+    }
+
+    /**
+     * Gets the number of keys created so far.
+     *
+     * @return The number of keys
+     */
+    static int count() {
+        return NEXT_INDEX.get();
+    }
+
+    /**
+     * Gets the name of this key.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the slot index of this key.
+     *
+     * @return The slot index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionKey{" + name + "}";
+    }
+}
@@ -0,0 +1,25 @@
+package de.feelix.ocean.server.session;
+
+/**
+ * Listener for sessions being created and removed by a {@link SessionManager}.
+ * Listeners are called on the thread that creates or removes the session, which may be an event loop,
+ * so they must not block.
+ */
+public interface SessionListener {
+    /**
+     * Called after a session has been created.
+     *
+     * @param session The new session
+     */
+    default void sessionCreated(ClientSession session) {
+    }
+
+    /**
+     * Called after a session has been removed, because its client disconnected, it expired,
+     * or the session manager shut down.
+     *
+     * @param session The removed session
+     */
+    default void sessionRemoved(ClientSession session) {
+    }
+}
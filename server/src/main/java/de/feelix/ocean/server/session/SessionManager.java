@@ -1,49 +1,66 @@
 package de.feelix.ocean.server.session;
 
+import de.feelix.ocean.api.packet.Packet;
 import de.feelix.ocean.server.config.ServerConfig;
+import de.feelix.ocean.server.metrics.ServerMetrics;
 import io.netty.channel.Channel;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.util.AttributeKey;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
+import java.io.UncheckedIOException;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manager for client sessions.
  * This class tracks all active client sessions and provides methods for managing them.
+ * Every session has one pending expiry check in a hashed wheel timer, scheduled for when the session
+ * would time out. Activity only updates a timestamp; when the check fires for a session that was active
+ * in the meantime, it is simply rescheduled for the remaining time. Refreshing a session is therefore
+ * O(1) and no periodic scan over all sessions is needed.
  */
 public class SessionManager {
     private static final Logger LOGGER = Logger.getLogger(SessionManager.class.getName());
-    private static final AttributeKey<String> SESSION_ID_KEY = AttributeKey.valueOf("sessionId");
+    private static final AttributeKey<ClientSession> SESSION_KEY = AttributeKey.valueOf("session");
 
-    private final Map<String, ClientSession> sessions = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // Indexed by ID for lookups by session ID; lookups by channel use the channel attribute instead
+    private final ConcurrentHashMap<Long, ClientSession> sessions = new ConcurrentHashMap<>();
+    private final List<SessionListener> listeners = new CopyOnWriteArrayList<>();
+    private final HashedWheelTimer timer;
     private final Duration sessionTimeout;
+    private final long sessionTimeoutNanos;
+    private final int maxFrameLength;
+    private volatile PacketMulticaster.Writer writer = PacketMulticaster.dropWhenUnwritable(null);
 
     /**
-     * Creates a new SessionManager with default settings and starts the session cleanup task.
+     * Creates a new SessionManager with default settings.
      */
     public SessionManager() {
         this(new ServerConfig());
     }
 
     /**
-     * Creates a new SessionManager with the specified configuration and starts the session cleanup task.
+     * Creates a new SessionManager with the specified configuration.
      *
      * @param config The server configuration
      */
     public SessionManager(ServerConfig config) {
         this.sessionTimeout = config.getSessionTimeout();
-
-        // Schedule a task to clean up expired sessions
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredSessions, 1, 1, TimeUnit.MINUTES);
+        this.sessionTimeoutNanos = sessionTimeout.toNanos();
+        this.maxFrameLength = config.getMaxFrameLength();
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("ocean-session-expiry", true),
+            100, TimeUnit.MILLISECONDS);
 
         LOGGER.info("Session manager initialized with timeout: " + sessionTimeout);
     }
@@ -58,19 +75,45 @@ public class SessionManager {
         ClientSession session = new ClientSession(channel);
         sessions.put(session.getSessionId(), session);
 
-        // Store the session ID in the channel's attributes
-        channel.attr(SESSION_ID_KEY).set(session.getSessionId());
+        // Store the session itself in the channel's attributes, so it can be found without a map lookup
+        channel.attr(SESSION_KEY).set(session);
 
+        scheduleExpiry(session, sessionTimeoutNanos);
+        for (SessionListener listener : listeners) {
+            try {
+                listener.sessionCreated(session);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error in session listener: " + e.getMessage(), e);
+            }
+        }
         return session;
     }
 
+    /**
+     * Adds a listener that is notified when sessions are created and removed.
+     *
+     * @param listener The listener
+     */
+    public void addListener(SessionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a session listener.
+     *
+     * @param listener The listener
+     */
+    public void removeListener(SessionListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Gets a session by its ID.
      *
      * @param sessionId The session ID
      * @return The session, or null if not found
      */
-    public ClientSession getSession(String sessionId) {
+    public ClientSession getSession(long sessionId) {
         return sessions.get(sessionId);
     }
 
@@ -81,29 +124,36 @@ public class SessionManager {
      * @return The session, or null if not found
      */
     public ClientSession getSession(Channel channel) {
-        String sessionId = channel.attr(SESSION_ID_KEY).get();
-        return sessionId != null ? sessions.get(sessionId) : null;
+        return channel.attr(SESSION_KEY).get();
     }
 
     /**
-     * Removes a session.
+     * Removes a session for a channel.
      *
-     * @param sessionId The session ID
+     * @param channel The client's channel
      * @return The removed session, or null if not found
      */
-    public ClientSession removeSession(String sessionId) {
-        return sessions.remove(sessionId);
+    public ClientSession removeSession(Channel channel) {
+        ClientSession session = channel.attr(SESSION_KEY).getAndSet(null);
+        if (session != null && sessions.remove(session.getSessionId(), session)) {
+            return sessionRemoved(session);
+        }
+        return null;
     }
 
     /**
-     * Removes a session for a channel.
+     * Removes a session.
      *
-     * @param channel The client's channel
+     * @param sessionId The session ID
      * @return The removed session, or null if not found
      */
-    public ClientSession removeSession(Channel channel) {
-        String sessionId = channel.attr(SESSION_ID_KEY).get();
-        return sessionId != null ? sessions.remove(sessionId) : null;
+    public ClientSession removeSession(long sessionId) {
+        ClientSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return null;
+        }
+        session.getChannel().attr(SESSION_KEY).compareAndSet(session, null);
+        return sessionRemoved(session);
     }
 
     /**
@@ -125,41 +175,142 @@ public class SessionManager {
     }
 
     /**
-     * Cleans up expired sessions.
+     * Sets the metrics in which broadcasts dropped for unwritable channels are counted.
+     * The server passes its own metrics to the session manager it is created with.
+     *
+     * @param metrics The metrics, or null to not count dropped broadcasts
+     */
+    public void setMetrics(ServerMetrics metrics) {
+        this.writer = PacketMulticaster.dropWhenUnwritable(metrics);
+    }
+
+    /**
+     * Gets the maximum frame length that packets sent to the sessions must fit into.
+     *
+     * @return The maximum frame length in bytes
      */
-    private void cleanupExpiredSessions() {
-        Instant now = Instant.now();
-        List<String> expiredSessionIds = new ArrayList<>();
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
 
-        // Find expired sessions
-        for (ClientSession session : sessions.values()) {
-            if (Duration.between(session.getLastActivityTime(), now).compareTo(sessionTimeout) > 0) {
-                expiredSessionIds.add(session.getSessionId());
-            }
+    /**
+     * Sends a packet to all sessions.
+     *
+     * @param packet The packet to send
+     * @return The number of sessions the packet was sent to
+     * @see #broadcast(Packet, Predicate)
+     */
+    public int broadcast(Packet packet) {
+        return PacketMulticaster.send(packet, sessions.values(), null, maxFrameLength, writer);
+    }
+
+    /**
+     * Sends a packet to all sessions matching a filter.
+     * The packet is encoded only once per codec in use, see {@link PacketMulticaster}. Sessions whose
+     * channel is unwritable are skipped and counted in {@link ServerMetrics#getDroppedBroadcasts()}
+     * of the metrics set with {@link #setMetrics(ServerMetrics)}.
+     *
+     * @param packet The packet to send
+     * @param filter The filter selecting the sessions, or null for all sessions
+     * @return The number of sessions the packet was sent to
+     * @throws UncheckedIOException if the packet cannot be encoded
+     * @throws TooLongFrameException if the encoded packet exceeds the maximum frame length
+     */
+    public int broadcast(Packet packet, Predicate<ClientSession> filter) {
+        return PacketMulticaster.send(packet, sessions.values(), filter, maxFrameLength, writer);
+    }
+
+    /**
+     * Sends a packet to the specified sessions.
+     *
+     * @param packet The packet to send
+     * @param targets The sessions to send the packet to
+     * @return The number of sessions the packet was sent to
+     * @throws UncheckedIOException if the packet cannot be encoded
+     * @throws TooLongFrameException if the encoded packet exceeds the maximum frame length
+     * @see #broadcast(Packet, Predicate)
+     */
+    public int multicast(Packet packet, Iterable<ClientSession> targets) {
+        return PacketMulticaster.send(packet, targets, null, maxFrameLength, writer);
+    }
+
+    /**
+     * Schedules the expiry check of a session.
+     *
+     * @param session The session
+     * @param delayNanos The time until the check in nanoseconds
+     */
+    private void scheduleExpiry(ClientSession session, long delayNanos) {
+        try {
+            session.setExpiryTimeout(timer.newTimeout(timeout -> checkExpiry(session), delayNanos, TimeUnit.NANOSECONDS));
+        } catch (IllegalStateException | RejectedExecutionException e) {
+            // The timer has been stopped, the session manager is shutting down
         }
+    }
 
-        // Remove expired sessions
-        for (String sessionId : expiredSessionIds) {
-            ClientSession session = sessions.remove(sessionId);
-            if (session != null && session.getChannel().isActive()) {
-                session.getChannel().close();
+    /**
+     * Expires a session if it has been idle for the session timeout, or reschedules the check for
+     * when it would time out otherwise.
+     *
+     * @param session The session
+     */
+    private void checkExpiry(ClientSession session) {
+        if (sessions.get(session.getSessionId()) != session) {
+            return;
+        }
+
+        long idleNanos = System.nanoTime() - session.getLastActivityNanos();
+        if (idleNanos < sessionTimeoutNanos) {
+            scheduleExpiry(session, sessionTimeoutNanos - idleNanos);
+            return;
+        }
+
+        if (sessions.remove(session.getSessionId(), session)) {
+            session.getChannel().attr(SESSION_KEY).compareAndSet(session, null);
+            LOGGER.fine("Session expired: " + session.getSessionId());
+            sessionRemoved(session);
+            session.getChannel().close();
+        }
+    }
+
+    /**
+     * Cancels the pending expiry check of a removed session and notifies the listeners.
+     *
+     * @param session The removed session, or null
+     * @return The session
+     */
+    private ClientSession sessionRemoved(ClientSession session) {
+        if (session != null) {
+            Timeout timeout = session.getExpiryTimeout();
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            for (SessionListener listener : listeners) {
+                try {
+                    listener.sessionRemoved(session);
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Error in session listener: " + e.getMessage(), e);
+                }
             }
         }
+        return session;
     }
 
     /**
      * Shuts down the session manager.
      */
     public void shutdown() {
-        scheduler.shutdown();
+        timer.stop();
 
-        // Close all active channels
+        // Remove all sessions and close their channels
         for (ClientSession session : sessions.values()) {
+            if (sessions.remove(session.getSessionId(), session)) {
+                session.getChannel().attr(SESSION_KEY).compareAndSet(session, null);
+                sessionRemoved(session);
+            }
             if (session.getChannel().isActive()) {
                 session.getChannel().close();
             }
         }
-
-        sessions.clear();
     }
 }
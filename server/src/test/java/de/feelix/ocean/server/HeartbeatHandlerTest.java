@@ -0,0 +1,100 @@
+package de.feelix.ocean.server;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.packet.PingPacket;
+import de.feelix.ocean.api.packet.PongPacket;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeartbeatHandlerTest {
+    private static final int MAX_MISSED = 2;
+
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    @Test
+    void closesAfterMissedHeartbeats() {
+        EmbeddedChannel channel = newChannel();
+
+        for (int i = 0; i < MAX_MISSED; i++) {
+            readerIdle(channel);
+            assertInstanceOf(PingPacket.class, channel.readOutbound());
+            assertTrue(channel.isOpen());
+        }
+        readerIdle(channel);
+
+        assertFalse(channel.isOpen());
+        assertEquals(1, metrics.getHeartbeatTimeouts());
+    }
+
+    @Test
+    void anyReadResetsMissedHeartbeats() {
+        EmbeddedChannel channel = newChannel();
+
+        for (int i = 0; i < MAX_MISSED; i++) {
+            readerIdle(channel);
+        }
+        channel.writeInbound(new PongPacket(System.nanoTime()));
+        assertNull(channel.readInbound());
+        for (int i = 0; i < MAX_MISSED; i++) {
+            readerIdle(channel);
+        }
+
+        assertTrue(channel.isOpen());
+        assertEquals(0, metrics.getHeartbeatTimeouts());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void idleWhileReadsAreSuspendedIsNotMissed() {
+        EmbeddedChannel channel = newChannel();
+        channel.config().setAutoRead(false);
+
+        for (int i = 0; i <= MAX_MISSED * 2; i++) {
+            readerIdle(channel);
+        }
+        assertTrue(channel.isOpen());
+        assertNull(channel.readOutbound());
+
+        // Once reading resumes, idle periods count again from zero
+        channel.config().setAutoRead(true);
+        for (int i = 0; i < MAX_MISSED; i++) {
+            readerIdle(channel);
+        }
+        assertTrue(channel.isOpen());
+        readerIdle(channel);
+        assertFalse(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void answersPingFromClient() {
+        EmbeddedChannel channel = newChannel();
+
+        channel.writeInbound(new PingPacket(42L));
+
+        PongPacket pong = channel.readOutbound();
+        assertEquals(42L, pong.getPayload());
+        assertNull(channel.readInbound());
+        assertFalse(channel.finish());
+    }
+
+    private EmbeddedChannel newChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel(new HeartbeatHandler(MAX_MISSED, metrics));
+        // Pings are only sent after the codec handshake
+        channel.attr(CodecHandshake.CODEC_KEY).set(PacketCodecs.BINARY);
+        return channel;
+    }
+
+    private static void readerIdle(EmbeddedChannel channel) {
+        channel.pipeline().fireUserEventTriggered(IdleStateEvent.READER_IDLE_STATE_EVENT);
+    }
+}
@@ -0,0 +1,97 @@
+package de.feelix.ocean.server;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.network.PacketDecoder;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.SimpleInPacket;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerHandshakeHandlerTest {
+    private static final ByteBufAllocator ALLOC = ByteBufAllocator.DEFAULT;
+
+    @Test
+    void negotiatesFirstSupportedCodecAndInstallsIt() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ServerHandshakeHandler());
+
+        channel.writeInbound(CodecHandshake.writeRequest(ALLOC, Arrays.asList("unknown", "binary", "json")));
+        assertEquals("binary", readResponse(channel));
+        assertTrue(channel.isActive());
+        assertSame(PacketCodecs.BINARY, channel.attr(CodecHandshake.CODEC_KEY).get());
+        assertSame(PacketCodecs.BINARY, channel.pipeline().get(PacketDecoder.class).getCodec());
+
+        // Later frames are packets in the negotiated codec, both ways
+        ByteBuf request = ALLOC.buffer();
+        PacketCodecs.BINARY.encode(new SimpleInPacket(7L, "hello"), request);
+        channel.writeInbound(request);
+        SimpleInPacket received = channel.readInbound();
+        assertEquals(7L, received.getTransactionId());
+        assertEquals("hello", received.getMessage());
+
+        channel.writeOutbound(OutPacket.Builder.success(7L, "world"));
+        ByteBuf response = channel.readOutbound();
+        try {
+            OutPacket sent = (OutPacket) PacketCodecs.BINARY.decode(response);
+            assertEquals(7L, sent.getTransactionId());
+            assertEquals("world", sent.getResponse());
+        } finally {
+            response.release();
+        }
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void honoursClientPreference() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ServerHandshakeHandler());
+
+        channel.writeInbound(CodecHandshake.writeRequest(ALLOC, Arrays.asList("json", "binary")));
+        assertEquals("json", readResponse(channel));
+        assertSame(PacketCodecs.JSON, channel.attr(CodecHandshake.CODEC_KEY).get());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void rejectsHandshakeWithoutCommonCodec() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ServerHandshakeHandler());
+
+        channel.writeInbound(CodecHandshake.writeRequest(ALLOC, List.of("unknown")));
+        assertNull(readResponse(channel));
+        assertFalse(channel.isOpen());
+        assertNull(channel.attr(CodecHandshake.CODEC_KEY).get());
+        assertNull(channel.pipeline().get(PacketDecoder.class));
+    }
+
+    @Test
+    void rejectsFrameThatIsNotAHandshake() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ServerHandshakeHandler());
+        ByteBuf packet = ALLOC.buffer();
+        PacketCodecs.BINARY.encode(new SimpleInPacket(1L, "too early"), packet);
+
+        assertThrows(CorruptedFrameException.class, () -> channel.writeInbound(packet));
+        assertEquals(0, packet.refCnt());
+        channel.finishAndReleaseAll();
+    }
+
+    private static String readResponse(EmbeddedChannel channel) {
+        ByteBuf response = channel.readOutbound();
+        try {
+            return CodecHandshake.readResponse(response);
+        } finally {
+            response.release();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.feelix.ocean.server;
+
+import de.feelix.ocean.api.packet.InPacket;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.api.serialization.PacketTypeRegistry;
+import de.feelix.ocean.server.handler.AsyncPacketTypeHandler;
+import de.feelix.ocean.server.limit.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimplePacketHandlerTest {
+    private static final PacketType TYPE = PacketTypeRegistry.register(0x7E10, "TEST_LIMITED_PACKET");
+
+    private volatile Function<InPacket, CompletableFuture<OutPacket>> behavior;
+
+    @Test
+    void failingHandlerReleasesItsPermit() {
+        SimplePacketHandler packetHandler = new SimplePacketHandler();
+        packetHandler.registerHandler(TYPE, new AsyncPacketTypeHandler<InPacket>() {
+            @Override
+            public CompletableFuture<OutPacket> handleAsync(InPacket packet) {
+                return behavior.apply(packet);
+            }
+        });
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        packetHandler.setConcurrencyLimiter(TYPE, limiter);
+
+        behavior = packet -> null;
+        OutPacket response = packetHandler.handlePacket(new TestPacket(1L));
+        assertFalse(response.isSuccess());
+        assertEquals(0, limiter.getInFlight());
+
+        behavior = packet -> {
+            throw new IllegalStateException("handler failed");
+        };
+        response = packetHandler.handlePacket(new TestPacket(2L));
+        assertFalse(response.isSuccess());
+        assertEquals(0, limiter.getInFlight());
+
+        behavior = packet -> {
+            throw new Error("handler broke");
+        };
+        assertThrows(Error.class, () -> packetHandler.handlePacketAsync(new TestPacket(3L)));
+        assertEquals(0, limiter.getInFlight());
+
+        // With a limit of one, any leaked permit would shed this request as overloaded
+        behavior = packet -> CompletableFuture.completedFuture(OutPacket.Builder.success(packet.getTransactionId(), "ok"));
+        response = packetHandler.handlePacket(new TestPacket(4L));
+        assertTrue(response.isSuccess());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static final class TestPacket implements InPacket {
+        private final long transactionId;
+
+        TestPacket(long transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        @Override
+        public long getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public PacketType getType() {
+            return TYPE;
+        }
+
+        @Override
+        public void validate() {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.feelix.ocean.server.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialExecutorTest {
+    private static final Executor REJECTING = command -> {
+        throw new RejectedExecutionException("shut down");
+    };
+
+    @Test
+    void runsTasksInOrderAcrossExecutors() {
+        SerialExecutor serial = new SerialExecutor();
+        ManualExecutor first = new ManualExecutor();
+        ManualExecutor second = new ManualExecutor();
+        List<String> ran = new ArrayList<>();
+
+        serial.execute(first, () -> ran.add("a"));
+        serial.execute(second, () -> ran.add("b"));
+        serial.execute(first, () -> ran.add("c"));
+
+        // The second executor only gets the queue once the first task has run
+        assertEquals(0, second.runAll());
+        first.runAll();
+        second.runAll();
+        first.runAll();
+        assertEquals(List.of("a", "b", "c"), ran);
+        assertTrue(serial.isIdle());
+    }
+
+    @Test
+    void rejectedTasksRunTheirRejectionCallback() {
+        SerialExecutor serial = new SerialExecutor();
+        ManualExecutor other = new ManualExecutor();
+        ManualExecutor blocker = new ManualExecutor();
+        List<String> ran = new ArrayList<>();
+
+        // Hold the queue so that the rejected tasks are queued behind it
+        serial.execute(blocker, () -> ran.add("blocker"));
+        serial.execute(REJECTING, () -> ran.add("a"), () -> ran.add("rejected a"));
+        serial.execute(REJECTING, () -> ran.add("b"), () -> ran.add("rejected b"));
+        serial.execute(other, () -> ran.add("c"), () -> ran.add("rejected c"));
+        blocker.runAll();
+        other.runAll();
+
+        assertEquals(List.of("blocker", "rejected a", "rejected b", "c"), ran);
+        assertTrue(serial.isIdle());
+    }
+
+    @Test
+    void acceptsTasksAfterARejection() {
+        SerialExecutor serial = new SerialExecutor();
+        ManualExecutor executor = new ManualExecutor();
+        List<String> ran = new ArrayList<>();
+
+        serial.execute(REJECTING, () -> ran.add("a"), () -> ran.add("rejected a"));
+        assertTrue(serial.isIdle());
+
+        serial.execute(executor, () -> ran.add("b"));
+        executor.runAll();
+        assertEquals(List.of("rejected a", "b"), ran);
+    }
+
+    /**
+     * Executor that queues commands until the test runs them.
+     */
+    private static final class ManualExecutor implements Executor {
+        private final List<Runnable> commands = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        int runAll() {
+            List<Runnable> batch = new ArrayList<>(commands);
+            commands.clear();
+            batch.forEach(Runnable::run);
+            return batch.size();
+        }
+    }
+}
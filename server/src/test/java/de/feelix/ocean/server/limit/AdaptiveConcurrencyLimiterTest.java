@@ -0,0 +1,127 @@
+package de.feelix.ocean.server.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = 1_000;
+    private static final long SLOW = 10_000;
+
+    @Test
+    void rejectsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(3, limiter.getInFlight());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileTheLimitIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        complete(limiter, FAST);
+
+        for (int i = 0; i < 5; i++) {
+            while (limiter.tryAcquire()) {
+                // Fill up to the limit
+            }
+            limiter.release(FAST);
+        }
+        assertEquals(15, limiter.getLimit());
+    }
+
+    @Test
+    void growsOnlyWithHalfOfTheLimitInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        complete(limiter, FAST);
+
+        for (int i = 0; i < 100; i++) {
+            complete(limiter, FAST);
+        }
+        acquire(limiter, 4);
+        limiter.release(FAST);
+        assertEquals(10, limiter.getLimit());
+
+        acquire(limiter, 2);
+        limiter.release(FAST);
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        complete(limiter, FAST);
+
+        complete(limiter, SLOW);
+        assertEquals(9, limiter.getLimit());
+
+        // The rest of the window of nine completions does not cut the limit again
+        for (int i = 0; i < 8; i++) {
+            complete(limiter, SLOW);
+        }
+        assertEquals(9, limiter.getLimit());
+
+        complete(limiter, SLOW);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void burstOfSlowCompletionsBacksOffOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        complete(limiter, FAST);
+
+        acquire(limiter, 20);
+        for (int i = 0; i < 20; i++) {
+            limiter.release(SLOW);
+        }
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void clampsToMinAndMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 3);
+        complete(limiter, FAST);
+
+        for (int i = 0; i < 10; i++) {
+            acquire(limiter, 2);
+            limiter.release(FAST);
+            limiter.release(FAST);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        // Keep each slow sample far above the average, which slow samples raise
+        long latency = SLOW;
+        for (int i = 0; i < 20; i++) {
+            complete(limiter, latency);
+            latency *= 3;
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 6, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(11, 1, 10));
+    }
+
+    private static void acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    private static void complete(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        acquire(limiter, 1);
+        limiter.release(latencyNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package de.feelix.ocean.server.limit;
+
+import de.feelix.ocean.api.packet.PacketType;
+import de.feelix.ocean.server.config.ServerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 10_000;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenRate() {
+        RateLimiter limiter = new RateLimiter(new ServerConfig().setSessionRateLimit(new RateLimit(1, 3)));
+        RateLimitBuckets buckets = limiter.newBuckets();
+        long now = 0;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(buckets, PacketType.SIMPLE_IN_PACKET, now));
+        }
+        assertEquals(SECOND, limiter.tryAcquire(buckets, PacketType.SIMPLE_IN_PACKET, now));
+        assertEquals(0, limiter.tryAcquire(buckets, PacketType.SIMPLE_IN_PACKET, now + SECOND));
+    }
+
+    @Test
+    void concurrentTryAcquireNeverExceedsBurst() throws Exception {
+        int burst = 100;
+        RateLimiter limiter = new RateLimiter(new ServerConfig()
+            .setSessionRateLimit(new RateLimit(1, burst))
+            .setPacketRateLimit(PacketType.SUBSCRIBE_PACKET, new RateLimit(1, burst / 2)));
+        RateLimitBuckets buckets = limiter.newBuckets();
+        AtomicInteger sessionGranted = new AtomicInteger();
+        AtomicInteger typeGranted = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                PacketType type = i % 2 == 0 ? PacketType.SUBSCRIBE_PACKET : PacketType.SIMPLE_IN_PACKET;
+                if (limiter.tryAcquire(buckets, type, 0) == 0) {
+                    (type == PacketType.SUBSCRIBE_PACKET ? typeGranted : sessionGranted).incrementAndGet();
+                }
+            }
+        });
+
+        // Time stands still, so only the bursts can be granted, however the threads interleave
+        assertTrue(typeGranted.get() <= burst / 2, "type permits: " + typeGranted.get());
+        assertTrue(sessionGranted.get() + typeGranted.get() <= burst, "session permits: " + sessionGranted.get());
+        // Exactly the session burst was taken, including by packets that their type limit rejected afterwards
+        assertEquals(SECOND, limiter.tryAcquire(buckets, PacketType.SIMPLE_IN_PACKET, 0));
+    }
+
+    @Test
+    void concurrentAcquireLosesNoPermit() throws Exception {
+        int burst = 10;
+        RateLimiter limiter = new RateLimiter(new ServerConfig().setSessionRateLimit(new RateLimit(1, burst)));
+        RateLimitBuckets buckets = limiter.newBuckets();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                limiter.acquire(buckets, PacketType.SIMPLE_IN_PACKET, 0);
+            }
+        });
+
+        // Every forced permit moved the arrival time by one interval, so the debt covers all of them
+        long permits = (long) THREADS * ATTEMPTS;
+        assertEquals((permits + 1 - burst) * SECOND, limiter.tryAcquire(buckets, PacketType.SIMPLE_IN_PACKET, 0));
+    }
+
+    private static void runConcurrently(Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run();
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.feelix.ocean.server.pubsub;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.packet.TopicMessagePacket;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.server.session.ClientSession;
+import de.feelix.ocean.server.session.SessionManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PubSubBrokerTest {
+    private final SessionManager sessionManager = new SessionManager();
+    private final PubSubBroker broker = new PubSubBroker(sessionManager);
+
+    @AfterEach
+    void shutdown() {
+        sessionManager.shutdown();
+    }
+
+    @Test
+    void dropPolicyDropsMessagesForUnwritableSubscribers() throws Exception {
+        broker.createTopic("events", OverflowPolicy.DROP);
+        EmbeddedChannel writable = subscribe("events");
+        EmbeddedChannel unwritable = subscribe("events");
+        setWritable(unwritable, false);
+
+        assertEquals(2, broker.publish("events", "first"));
+        assertEquals("first", readMessage(writable).getPayload());
+        assertNull(readMessage(unwritable));
+        assertEquals(1, broker.getDroppedMessages());
+
+        // Nothing was kept for the subscriber to catch up on
+        setWritable(unwritable, true);
+        assertNull(readMessage(unwritable));
+    }
+
+    @Test
+    void conflatePolicyKeepsOnlyLatestMessageForUnwritableSubscribers() throws Exception {
+        broker.createTopic("state", OverflowPolicy.CONFLATE);
+        EmbeddedChannel subscriber = subscribe("state");
+        setWritable(subscriber, false);
+
+        broker.publish("state", "1");
+        broker.publish("state", "2");
+        broker.publish("state", "3");
+        assertNull(readMessage(subscriber));
+        assertEquals(2, broker.getConflatedMessages());
+        assertEquals(0, broker.getDroppedMessages());
+
+        setWritable(subscriber, true);
+        assertEquals("3", readMessage(subscriber).getPayload());
+        assertNull(readMessage(subscriber));
+    }
+
+    @Test
+    void removedSessionIsUnsubscribed() {
+        EmbeddedChannel channel = subscribe("events");
+
+        sessionManager.removeSession(channel);
+
+        assertNull(broker.getTopic("events"));
+        assertEquals(0, broker.publish("events", "nobody"));
+    }
+
+    private EmbeddedChannel subscribe(String topic) {
+        EmbeddedChannel channel = new EmbeddedChannel(new PubSubHandler());
+        channel.attr(CodecHandshake.CODEC_KEY).set(PacketCodecs.BINARY);
+        ClientSession session = sessionManager.createSession(channel);
+        broker.subscribe(session, topic);
+        return channel;
+    }
+
+    private static void setWritable(EmbeddedChannel channel, boolean writable) {
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+    }
+
+    /**
+     * Runs the write tasks scheduled on the channel's event loop and decodes the next message written to it.
+     */
+    private static TopicMessagePacket readMessage(EmbeddedChannel channel) throws Exception {
+        channel.runPendingTasks();
+        ByteBuf buf = channel.readOutbound();
+        if (buf == null) {
+            return null;
+        }
+        try {
+            return (TopicMessagePacket) PacketCodecs.BINARY.decode(buf);
+        } finally {
+            buf.release();
+        }
+    }
+}
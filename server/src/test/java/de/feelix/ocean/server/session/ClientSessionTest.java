@@ -0,0 +1,108 @@
+package de.feelix.ocean.server.session;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClientSessionTest {
+    private static final int ROUNDS = 100;
+    private static final int WRITERS = 4;
+    private static final int GROWN_KEYS = 64;
+
+    @Test
+    void setGetAndRemove() {
+        ClientSession session = new ClientSession(new EmbeddedChannel());
+        SessionKey<String> key = SessionKey.valueOf("test.basic");
+
+        assertNull(session.get(key));
+        session.set(key, "a");
+        assertEquals("a", session.get(key));
+        assertEquals("a", session.remove(key));
+        assertNull(session.get(key));
+    }
+
+    @Test
+    void setDuringGrowLosesNoWrite() throws Exception {
+        List<SessionKey<Integer>> writerKeys = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writerKeys.add(SessionKey.valueOf("test.grow.writer." + w));
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            ClientSession session = new ClientSession(new EmbeddedChannel());
+            String prefix = "test.grow." + round + ".";
+            List<SessionKey<Integer>> grownKeys = new ArrayList<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicBoolean growing = new AtomicBoolean(true);
+            CountDownLatch start = new CountDownLatch(1);
+
+            // Each key is created right before it is set, so its index is beyond the slots and the session grows
+            Thread grower = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < GROWN_KEYS; i++) {
+                        SessionKey<Integer> key = SessionKey.valueOf(prefix + i);
+                        grownKeys.add(key);
+                        session.set(key, i);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    growing.set(false);
+                }
+            });
+
+            // Only the writer itself writes its key, so it must always read back what it has just written;
+            // a write that landed in an array already copied would be lost, and a copied slot must never be read
+            List<Thread> writers = new ArrayList<>();
+            int[] lastWritten = new int[WRITERS];
+            for (int w = 0; w < WRITERS; w++) {
+                SessionKey<Integer> key = writerKeys.get(w);
+                int writer = w;
+                writers.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        int i = 0;
+                        while (growing.get()) {
+                            session.set(key, ++i);
+                            Object value = session.get(key);
+                            if (!Integer.valueOf(i).equals(value)) {
+                                throw new AssertionError("Wrote " + i + " but read " + value);
+                            }
+                        }
+                        lastWritten[writer] = i;
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }));
+            }
+
+            writers.forEach(Thread::start);
+            grower.start();
+            start.countDown();
+            grower.join();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            if (failure.get() != null) {
+                throw new AssertionError("Round " + round, failure.get());
+            }
+            for (int w = 0; w < WRITERS; w++) {
+                Integer expected = lastWritten[w] > 0 ? lastWritten[w] : null;
+                assertEquals(expected, session.get(writerKeys.get(w)), "round " + round);
+            }
+            for (int i = 0; i < GROWN_KEYS; i++) {
+                assertEquals(i, session.get(grownKeys.get(i)), "round " + round);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.feelix.ocean.server.session;
+
+import de.feelix.ocean.api.network.CodecHandshake;
+import de.feelix.ocean.api.packet.OutPacket;
+import de.feelix.ocean.api.serialization.PacketCodec;
+import de.feelix.ocean.api.serialization.PacketCodecs;
+import de.feelix.ocean.server.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PacketMulticasterTest {
+    private static final int MAX_FRAME_LENGTH = 1024;
+    private static final OutPacket PACKET = OutPacket.Builder.success(1L, "broadcast");
+
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final PacketMulticaster.Writer writer = PacketMulticaster.dropWhenUnwritable(metrics);
+
+    @Test
+    void encodesOncePerCodec() throws Exception {
+        ClientSession first = session(PacketCodecs.BINARY);
+        ClientSession second = session(PacketCodecs.BINARY);
+        ClientSession json = session(PacketCodecs.JSON);
+
+        assertEquals(3, PacketMulticaster.send(PACKET, Arrays.asList(first, second, json), null,
+            MAX_FRAME_LENGTH, writer));
+
+        ByteBuf firstBuf = readOutbound(first);
+        ByteBuf secondBuf = readOutbound(second);
+        ByteBuf jsonBuf = readOutbound(json);
+        try {
+            // Sessions with the same codec get duplicates of one encoded buffer
+            assertSame(firstBuf.unwrap(), secondBuf.unwrap());
+            assertNotSame(firstBuf.unwrap(), jsonBuf.unwrap());
+            assertEquals("broadcast", ((OutPacket) PacketCodecs.BINARY.decode(firstBuf)).getResponse());
+            assertEquals("broadcast", ((OutPacket) PacketCodecs.BINARY.decode(secondBuf)).getResponse());
+            assertEquals("broadcast", ((OutPacket) PacketCodecs.JSON.decode(jsonBuf)).getResponse());
+        } finally {
+            firstBuf.release();
+            secondBuf.release();
+            jsonBuf.release();
+        }
+    }
+
+    @Test
+    void skipsFilteredSessions() {
+        ClientSession included = session(PacketCodecs.BINARY);
+        ClientSession excluded = session(PacketCodecs.BINARY);
+
+        assertEquals(1, PacketMulticaster.send(PACKET, Arrays.asList(included, excluded),
+            session -> session == included, MAX_FRAME_LENGTH, writer));
+
+        readOutbound(included).release();
+        assertNull(readOutbound(excluded));
+    }
+
+    @Test
+    void rejectsOversizeFrameBeforeSendingToAnyone() {
+        ClientSession first = session(PacketCodecs.BINARY);
+        ClientSession second = session(PacketCodecs.BINARY);
+        List<ClientSession> targets = Arrays.asList(first, second);
+
+        assertThrows(TooLongFrameException.class, () -> PacketMulticaster.send(
+            OutPacket.Builder.success(1L, "x".repeat(2 * MAX_FRAME_LENGTH)), targets, null, MAX_FRAME_LENGTH, writer));
+
+        assertNull(readOutbound(first));
+        assertNull(readOutbound(second));
+        assertFalse(((EmbeddedChannel) first.getChannel()).finish());
+        assertFalse(((EmbeddedChannel) second.getChannel()).finish());
+    }
+
+    @Test
+    void dropsPacketForUnwritableChannel() {
+        ClientSession writable = session(PacketCodecs.BINARY);
+        ClientSession unwritable = session(PacketCodecs.BINARY);
+        unwritable.getChannel().unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+
+        assertEquals(2, PacketMulticaster.send(PACKET, Arrays.asList(writable, unwritable), null,
+            MAX_FRAME_LENGTH, writer));
+
+        readOutbound(writable).release();
+        assertNull(readOutbound(unwritable));
+        assertEquals(1, metrics.getDroppedBroadcasts());
+    }
+
+    private static ClientSession session(PacketCodec codec) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.attr(CodecHandshake.CODEC_KEY).set(codec);
+        return new ClientSession(channel);
+    }
+
+    /**
+     * Runs the write task the multicaster scheduled on the session's event loop and reads what it wrote.
+     */
+    private static ByteBuf readOutbound(ClientSession session) {
+        EmbeddedChannel channel = (EmbeddedChannel) session.getChannel();
+        channel.runPendingTasks();
+        return channel.readOutbound();
+    }
+}
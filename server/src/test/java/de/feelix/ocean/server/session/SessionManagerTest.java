@@ -0,0 +1,44 @@
+package de.feelix.ocean.server.session;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SessionManagerTest {
+    private final SessionManager sessionManager = new SessionManager();
+
+    @AfterEach
+    void shutdown() {
+        sessionManager.shutdown();
+    }
+
+    @Test
+    void lookupAndRemoveById() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ClientSession session = sessionManager.createSession(channel);
+
+        assertSame(session, sessionManager.getSession(session.getSessionId()));
+        assertSame(session, sessionManager.removeSession(session.getSessionId()));
+
+        // Removing by ID also forgets the session on its channel
+        assertNull(sessionManager.getSession(channel));
+        assertNull(sessionManager.getSession(session.getSessionId()));
+        assertNull(sessionManager.removeSession(session.getSessionId()));
+        assertEquals(0, sessionManager.getSessionCount());
+    }
+
+    @Test
+    void removeByChannelRemovesFromIdIndex() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ClientSession session = sessionManager.createSession(channel);
+
+        assertSame(session, sessionManager.removeSession(channel));
+
+        assertNull(sessionManager.getSession(session.getSessionId()));
+        assertEquals(0, sessionManager.getSessionCount());
+    }
+}